@@ -0,0 +1,45 @@
+package com.shinkson47.FrameInterpolation.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks, accepting the usual JMH command line.
+ *
+ * Unless told otherwise, results are written as JSON to <i>jmh-result.json</i>, and the GC profiler is enabled so that
+ * each result carries its allocation rate (<i>gc.alloc.rate.norm</i>, bytes per operation).
+ * Throughput in pixels per second is reported as the secondary <i>pixels</i> result of each benchmark.
+ *
+ * <pre>
+ * java -jar benchmarks/target/benchmarks.jar InterpolateImage -p resolution=1920x1080 -p imageType=INT_RGB
+ * </pre>
+ *
+ * @version 1
+ * @author <a href="https://www.shinkson47.in">Jordan T. Gray</a>
+ */
+public final class BenchmarkMain {
+
+    /**
+     * File results are written to, unless <i>-rff</i> is given.
+     */
+    public static final String RESULT_FILE = "jmh-result.json";
+
+    private BenchmarkMain() {}
+
+    public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(commandLine);
+
+        if (!commandLine.getResultFormat().hasValue()) options.resultFormat(ResultFormatType.JSON);
+        if (!commandLine.getResult().hasValue())       options.result(RESULT_FILE);
+        if (commandLine.getProfilers().isEmpty())      options.addProfiler(GCProfiler.class);
+
+        new Runner(options.build()).run();
+    }
+}
@@ -0,0 +1,126 @@
+package com.shinkson47.FrameInterpolation.benchmark;
+
+import com.shinkson47.FrameInterpolation.NaturalOrderComparator;
+import com.shinkson47.FrameInterpolation.qoi.QOI;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+
+/**
+ * Loads the frames in the repository's <i>tests</i> folder, scaled to the resolution and image type being benchmarked.
+ *
+ * @implNote The <i>tests</i> folder is found by searching upwards from the working directory,
+ *           unless system property {@value #PROPERTY} names it explicitly.
+ * @version 1
+ * @author <a href="https://www.shinkson47.in">Jordan T. Gray</a>
+ */
+final class Fixtures {
+
+    /**
+     * System property naming the folder containing fixture sequences.
+     */
+    static final String PROPERTY = "interpolator.fixtures";
+
+    /**
+     * Resolutions benchmarked, from thumbnails to 8K.
+     */
+    static final String R256 = "256x256", R720 = "1280x720", R1080 = "1920x1080", R4K = "3840x2160", R8K = "7680x4320";
+
+    static {
+        QOI.register();
+    }
+
+    private Fixtures() {}
+
+    /**
+     * @param fixture name of a sequence within the <i>tests</i> folder, such as <i>test_001</i>
+     * @param resolution <i>width</i>x<i>height</i> to scale each frame to.
+     * @param imageType name of a BufferedImage type, without its <i>TYPE_</i> prefix, such as <i>INT_RGB</i>
+     * @param count maximum number of frames to load.
+     * @return the first <i>count</i> frames of the sequence, in natural filename order.
+     */
+    static BufferedImage[] frames(String fixture, String resolution, String imageType, int count) {
+        File[] files = new File(root(), fixture).listFiles();
+        if (files == null || files.length == 0) throw new IllegalStateException("Fixture " + fixture + " not found in " + root());
+        Arrays.sort(files, NaturalOrderComparator.INSTANCE);
+
+        int width = width(resolution), height = height(resolution), type = imageType(imageType);
+        BufferedImage[] frames = new BufferedImage[Math.min(count, files.length)];
+        for (int i = 0; i < frames.length; i++) {
+            try {
+                frames[i] = scale(ImageIO.read(files[i]), width, height, type);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return frames;
+    }
+
+    /**
+     * @return pixels in a <i>width</i>x<i>height</i> resolution.
+     */
+    static long pixels(String resolution) {
+        return (long) width(resolution) * height(resolution);
+    }
+
+    static int width(String resolution) {
+        return Integer.parseInt(resolution.substring(0, resolution.indexOf('x')));
+    }
+
+    static int height(String resolution) {
+        return Integer.parseInt(resolution.substring(resolution.indexOf('x') + 1));
+    }
+
+    /**
+     * @param name name of a BufferedImage type, without its <i>TYPE_</i> prefix.
+     * @return the BufferedImage type constant.
+     */
+    static int imageType(String name) {
+        switch (name) {
+            case "INT_RGB":      return BufferedImage.TYPE_INT_RGB;
+            case "INT_ARGB":     return BufferedImage.TYPE_INT_ARGB;
+            case "3BYTE_BGR":    return BufferedImage.TYPE_3BYTE_BGR;
+            case "4BYTE_ABGR":   return BufferedImage.TYPE_4BYTE_ABGR;
+            case "BYTE_GRAY":    return BufferedImage.TYPE_BYTE_GRAY;
+            case "BYTE_INDEXED": return BufferedImage.TYPE_BYTE_INDEXED;
+            default: throw new IllegalArgumentException("Unsupported image type " + name);
+        }
+    }
+
+    /**
+     * Deletes a folder of generated frames.
+     */
+    static void delete(File directory) {
+        File[] files = directory.listFiles();
+        if (files != null)
+            for (File file : files)
+                file.delete();
+        directory.delete();
+    }
+
+    private static BufferedImage scale(BufferedImage source, int width, int height, int type) {
+        BufferedImage scaled = new BufferedImage(width, height, type);
+        Graphics2D graphics = scaled.createGraphics();
+        graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        graphics.drawImage(source, 0, 0, width, height, null);
+        graphics.dispose();
+        return scaled;
+    }
+
+    private static File root() {
+        String property = System.getProperty(PROPERTY);
+        if (property != null) return new File(property);
+
+        for (File directory = new File(System.getProperty("user.dir")).getAbsoluteFile(); directory != null; directory = directory.getParentFile()) {
+            File tests = new File(directory, "tests");
+            if (new File(tests, "test_001").isDirectory()) return tests;
+        }
+        throw new IllegalStateException("Could not find the tests folder. Run from within the repository, or set -D" + PROPERTY);
+    }
+}
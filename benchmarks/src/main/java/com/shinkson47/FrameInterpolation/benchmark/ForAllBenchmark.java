@@ -0,0 +1,63 @@
+package com.shinkson47.FrameInterpolation.benchmark;
+
+import com.shinkson47.FrameInterpolation.FrameBuffer;
+import com.shinkson47.FrameInterpolation.InterpolationPipeline;
+import com.shinkson47.FrameInterpolation.LinearImageInterpolator;
+import org.openjdk.jmh.annotations.*;
+
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link LinearImageInterpolator#forAll(FrameBuffer, int)} over a short sequence, across exponents.
+ *
+ * @implNote forAll holds its whole output in memory; at 8K, exponent 4 produces over 2 GB of frames.
+ *           Raise the fork's heap with <i>-jvmArgsAppend -Xmx</i> if the default is too small.
+ * @version 1
+ * @author <a href="https://www.shinkson47.in">Jordan T. Gray</a>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ForAllBenchmark {
+
+    /**
+     * Frames of the fixture sequence to interpolate.
+     */
+    private static final int FRAMES = 4;
+
+    @Param({"test_001", "test_002"})
+    public String fixture;
+
+    @Param({Fixtures.R256, Fixtures.R720, Fixtures.R1080, Fixtures.R4K, Fixtures.R8K})
+    public String resolution;
+
+    @Param({"INT_RGB", "3BYTE_BGR", "4BYTE_ABGR"})
+    public String imageType;
+
+    @Param({"1", "2", "4"})
+    public int exponent;
+
+    @Param({"false", "true"})
+    public boolean tileSkipping;
+
+    private FrameBuffer frames;
+    private long pixels;
+
+    @Setup
+    public void setup() {
+        BufferedImage[] sequence = Fixtures.frames(fixture, resolution, imageType, FRAMES);
+        frames = new FrameBuffer(sequence);
+        pixels = InterpolationPipeline.outputLength(sequence.length, exponent) * Fixtures.pixels(resolution);
+        LinearImageInterpolator.setTileSkipping(tileSkipping);
+    }
+
+    @Benchmark
+    public BufferedImage[] forAll(PixelCounter counter) {
+        counter.pixels += pixels;
+        return LinearImageInterpolator.forAll(frames, exponent);
+    }
+}
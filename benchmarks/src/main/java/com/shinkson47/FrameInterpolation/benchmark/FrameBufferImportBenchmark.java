@@ -0,0 +1,68 @@
+package com.shinkson47.FrameInterpolation.benchmark;
+
+import com.shinkson47.FrameInterpolation.FrameBuffer;
+import org.openjdk.jmh.annotations.*;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Importing a folder of frames into a {@link FrameBuffer}, including validation and decoding.
+ *
+ * The fixture is written to a temporary folder in each format once per trial, so only the import is measured.
+ *
+ * @version 1
+ * @author <a href="https://www.shinkson47.in">Jordan T. Gray</a>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class FrameBufferImportBenchmark {
+
+    /**
+     * Frames of the fixture sequence to import.
+     */
+    private static final int FRAMES = 8;
+
+    @Param({"test_001", "test_002"})
+    public String fixture;
+
+    @Param({Fixtures.R256, Fixtures.R720, Fixtures.R1080, Fixtures.R4K, Fixtures.R8K})
+    public String resolution;
+
+    @Param({"INT_RGB", "INT_ARGB"})                                                                                     // Written as RGB and RGBA files respectively.
+    public String imageType;
+
+    @Param({"png", "qoi"})
+    public String format;
+
+    private File directory;
+    private long pixels;
+
+    @Setup
+    public void setup() throws IOException {
+        BufferedImage[] frames = Fixtures.frames(fixture, resolution, imageType, FRAMES);
+        directory = Files.createTempDirectory("interpolator-import").toFile();
+        for (int i = 0; i < frames.length; i++)
+            ImageIO.write(frames[i], format, new File(directory, i + "." + format));
+        pixels = frames.length * Fixtures.pixels(resolution);
+    }
+
+    @TearDown
+    public void tearDown() {
+        Fixtures.delete(directory);
+    }
+
+    @Benchmark
+    public FrameBuffer load(PixelCounter counter) {
+        counter.pixels += pixels;
+        return new FrameBuffer(directory);
+    }
+}
@@ -0,0 +1,64 @@
+package com.shinkson47.FrameInterpolation.benchmark;
+
+import com.shinkson47.FrameInterpolation.BlendMode;
+import com.shinkson47.FrameInterpolation.LinearImageInterpolator;
+import org.openjdk.jmh.annotations.*;
+
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Interpolation of a single pair of frames, at one point and at several.
+ *
+ * @version 1
+ * @author <a href="https://www.shinkson47.in">Jordan T. Gray</a>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class InterpolateImageBenchmark {
+
+    /**
+     * Points blended by {@link #multi(PixelCounter)}, as the demo does.
+     */
+    private static final double[] POINTS = {0.25, 0.5, 0.75};
+
+    @Param({"test_001", "test_002"})
+    public String fixture;
+
+    @Param({Fixtures.R256, Fixtures.R720, Fixtures.R1080, Fixtures.R4K, Fixtures.R8K})
+    public String resolution;
+
+    @Param({"INT_RGB", "3BYTE_BGR", "4BYTE_ABGR", "BYTE_GRAY", "BYTE_INDEXED"})
+    public String imageType;
+
+    @Param({"EXACT", "FIXED", "LINEAR"})
+    public BlendMode blendMode;
+
+    private BufferedImage pre, post;
+    private long pixels;
+
+    @Setup
+    public void setup() {
+        BufferedImage[] frames = Fixtures.frames(fixture, resolution, imageType, 2);
+        pre = frames[0];
+        post = frames[1];
+        pixels = Fixtures.pixels(resolution);
+        LinearImageInterpolator.setBlendMode(blendMode);
+    }
+
+    @Benchmark
+    public BufferedImage single(PixelCounter counter) {
+        counter.pixels += pixels;
+        return LinearImageInterpolator.InterpolateImage(pre, post, 0.5);
+    }
+
+    @Benchmark
+    public BufferedImage[] multi(PixelCounter counter) {
+        counter.pixels += pixels * POINTS.length;
+        return LinearImageInterpolator.InterpolateImage(pre, post, POINTS);
+    }
+}
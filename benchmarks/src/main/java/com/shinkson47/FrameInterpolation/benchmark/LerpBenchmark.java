@@ -0,0 +1,52 @@
+package com.shinkson47.FrameInterpolation.benchmark;
+
+import com.shinkson47.FrameInterpolation.LinearImageInterpolator;
+import org.openjdk.jmh.annotations.*;
+
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link LinearImageInterpolator#lerpPixel255(double, double, double)} over every channel of a frame,
+ * the per pixel cost of interpolating without the packed raster kernels.
+ *
+ * @version 1
+ * @author <a href="https://www.shinkson47.in">Jordan T. Gray</a>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class LerpBenchmark {
+
+    @Param({"test_001", "test_002"})
+    public String fixture;
+
+    @Param({Fixtures.R256, Fixtures.R720, Fixtures.R1080, Fixtures.R4K, Fixtures.R8K})
+    public String resolution;
+
+    private int[] pre, post;
+
+    @Setup
+    public void setup() {
+        BufferedImage[] frames = Fixtures.frames(fixture, resolution, "INT_RGB", 2);
+        int width = frames[0].getWidth(), height = frames[0].getHeight();
+        pre = frames[0].getRGB(0, 0, width, height, null, 0, width);
+        post = frames[1].getRGB(0, 0, width, height, null, 0, width);
+    }
+
+    @Benchmark
+    public int lerpPixel255(PixelCounter counter) {
+        int sum = 0;
+        for (int i = 0; i < pre.length; i++) {
+            int prePixel = pre[i], postPixel = post[i];
+            sum += LinearImageInterpolator.lerpPixel255((prePixel >> 16 & 0xFF) / 255.0, (postPixel >> 16 & 0xFF) / 255.0, 0.5)
+                 + LinearImageInterpolator.lerpPixel255((prePixel >> 8 & 0xFF) / 255.0, (postPixel >> 8 & 0xFF) / 255.0, 0.5)
+                 + LinearImageInterpolator.lerpPixel255((prePixel & 0xFF) / 255.0, (postPixel & 0xFF) / 255.0, 0.5);
+        }
+        counter.pixels += pre.length;
+        return sum;
+    }
+}
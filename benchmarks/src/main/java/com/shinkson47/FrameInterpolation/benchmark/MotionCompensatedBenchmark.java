@@ -0,0 +1,62 @@
+package com.shinkson47.FrameInterpolation.benchmark;
+
+import com.shinkson47.FrameInterpolation.FrameBuffer;
+import com.shinkson47.FrameInterpolation.InterpolationPipeline;
+import com.shinkson47.FrameInterpolation.MotionCompensatedInterpolator;
+import com.shinkson47.FrameInterpolation.MotionField;
+import org.openjdk.jmh.annotations.*;
+
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link MotionCompensatedInterpolator}'s motion search alone, and over a short sequence, across exponents.
+ * Compare <i>forAll</i> against {@link ForAllBenchmark} for the cost of following motion over cross-fading.
+ *
+ * @version 1
+ * @author <a href="https://www.shinkson47.in">Jordan T. Gray</a>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class MotionCompensatedBenchmark {
+
+    /**
+     * Frames of the fixture sequence to interpolate.
+     */
+    private static final int FRAMES = 4;
+
+    @Param({"test_001", "test_002"})
+    public String fixture;
+
+    @Param({Fixtures.R256, Fixtures.R720, Fixtures.R1080, Fixtures.R4K})
+    public String resolution;
+
+    @Param({"1", "4"})
+    public int exponent;
+
+    private BufferedImage[] sequence;
+    private FrameBuffer frames;
+    private long pixels;
+
+    @Setup
+    public void setup() {
+        sequence = Fixtures.frames(fixture, resolution, "INT_RGB", FRAMES);
+        frames = new FrameBuffer(sequence);
+        pixels = InterpolationPipeline.outputLength(sequence.length, exponent) * Fixtures.pixels(resolution);
+    }
+
+    @Benchmark
+    public MotionField estimate() {
+        return MotionCompensatedInterpolator.estimate(sequence[0], sequence[1]);
+    }
+
+    @Benchmark
+    public BufferedImage[] forAll(PixelCounter counter) {
+        counter.pixels += pixels;
+        return MotionCompensatedInterpolator.forAll(frames, exponent);
+    }
+}
@@ -0,0 +1,27 @@
+package com.shinkson47.FrameInterpolation.benchmark;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Counts the pixels produced, or consumed, by each benchmark operation.
+ *
+ * Reported by JMH as a secondary <i>pixels</i> throughput in ops/s, so a result of <i>1e6</i> is one megapixel per second.
+ *
+ * @version 1
+ * @author <a href="https://www.shinkson47.in">Jordan T. Gray</a>
+ */
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.OPERATIONS)
+public class PixelCounter {
+
+    public long pixels;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+        pixels = 0;
+    }
+}
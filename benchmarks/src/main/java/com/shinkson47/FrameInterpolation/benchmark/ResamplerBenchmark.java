@@ -0,0 +1,55 @@
+package com.shinkson47.FrameInterpolation.benchmark;
+
+import com.shinkson47.FrameInterpolation.LinearImageInterpolator;
+import com.shinkson47.FrameInterpolation.Resampler;
+import org.openjdk.jmh.annotations.*;
+
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resampling a single frame to 1080p, from smaller and larger sources, and interpolating a pair whose second frame
+ * must be resampled to fit the first.
+ *
+ * @version 1
+ * @author <a href="https://www.shinkson47.in">Jordan T. Gray</a>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ResamplerBenchmark {
+
+    @Param({"test_001", "test_002"})
+    public String fixture;
+
+    @Param({Fixtures.R720, Fixtures.R4K, Fixtures.R8K})
+    public String resolution;
+
+    @Param({"INT_RGB", "3BYTE_BGR", "4BYTE_ABGR"})
+    public String imageType;
+
+    private BufferedImage source, target;
+    private long pixels;
+
+    @Setup
+    public void setup() {
+        source = Fixtures.frames(fixture, resolution, imageType, 1)[0];
+        target = Fixtures.frames(fixture, Fixtures.R1080, imageType, 1)[0];
+        pixels = Fixtures.pixels(Fixtures.R1080);
+    }
+
+    @Benchmark
+    public BufferedImage resample(PixelCounter counter) {
+        counter.pixels += pixels;
+        return Resampler.resample(source, Fixtures.width(Fixtures.R1080), Fixtures.height(Fixtures.R1080));
+    }
+
+    @Benchmark
+    public BufferedImage interpolateMismatched(PixelCounter counter) {
+        counter.pixels += pixels;
+        return LinearImageInterpolator.InterpolateImage(target, source, 0.5);
+    }
+}
@@ -0,0 +1,129 @@
+package com.shinkson47.FrameInterpolation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Every mode must blend the same, whichever of its kernels is used, and as closely to {@link BlendMode#EXACT} as it claims.
+ *
+ * @version 1
+ * @author <a href="https://www.shinkson47.in">Jordan T. Gray</a>
+ */
+class BlendModeTest {
+
+    private static final int LENGTH = 4096;
+    private static final double[] POINTS = {0, 1.0 / 7, 0.25, 0.5, 2.0 / 3, 0.999, 1};
+
+    @Test
+    void fixedIsWithinALevelOfExact() {
+        int[] pre = new int[256 * 256], post = new int[pre.length], fixed = new int[pre.length];
+        for (int i = 0; i < pre.length; i++) {                                                                          // Every pair of channel values, in each channel.
+            int origin = i >> 8, target = i & 0xFF;
+            pre[i] = origin << 16 | (255 - origin) << 8 | origin;
+            post[i] = target << 16 | (255 - target) << 8 | target;
+        }
+
+        long channels = 0, differing = 0;
+        for (int step = 0; step <= 1024; step++) {                                                                      // Points on, and between, the 1/256ths FIXED blends at.
+            double point = step / 1024.0;
+            BlendMode.FIXED.blender(point).blendRow(pre, 0, post, 0, fixed, 0, pre.length);
+            byte[] exact = LinearImageInterpolator.lerpTable(point);
+
+            for (int i = 0; i < pre.length; i++) {
+                int origin = i >> 8, target = i & 0xFF;
+                int same = exact[origin << 8 | target] & 0xFF, inverse = exact[(255 - origin) << 8 | (255 - target)] & 0xFF;
+                int[] errors = {Math.abs(same - (fixed[i] >> 16 & 0xFF)), Math.abs(inverse - (fixed[i] >> 8 & 0xFF)), Math.abs(same - (fixed[i] & 0xFF))};
+                for (int error : errors) {
+                    if (error > 1) fail(origin + " to " + target + " at " + point + " is off by " + error);
+                    if (error != 0) differing++;
+                }
+                channels += errors.length;
+            }
+        }
+
+        double fraction = (double) differing / channels;
+        assertTrue(fraction > 0.07 && fraction < 0.09, "Documented as roughly 8% of channels, but was " + fraction);
+    }
+
+    @Test
+    void linearIsIdenticalToTheSourceAtEitherEnd() {
+        int[] pre = new int[256 * 256], post = new int[pre.length], out = new int[pre.length];
+        for (int i = 0; i < pre.length; i++) {                                                                          // Every pair of channel values, in each channel.
+            int origin = i >> 8, target = i & 0xFF;
+            pre[i] = origin << 16 | (255 - origin) << 8 | origin;
+            post[i] = target << 16 | (255 - target) << 8 | target;
+        }
+
+        BlendMode.LINEAR.blender(0).blendRow(pre, 0, post, 0, out, 0, pre.length);
+        assertArrayEquals(pre, out);
+        BlendMode.LINEAR.blender(1).blendRow(pre, 0, post, 0, out, 0, pre.length);
+        assertArrayEquals(post, out);
+    }
+
+    @Test
+    void linearRoundTripsEveryChannel() {
+        int[] channels = new int[256], out = new int[channels.length];
+        for (int i = 0; i < channels.length; i++)
+            channels[i] = i << 16 | (255 - i) << 8 | i;
+
+        for (double point : POINTS) {                                                                                   // Decoded, weighted against itself, then encoded again.
+            BlendMode.LINEAR.blender(point).blendRow(channels, 0, channels, 0, out, 0, channels.length);
+            assertArrayEquals(channels, out, "At " + point);
+        }
+    }
+
+    @Test
+    void linearMidpointIsTheMeanOfLinearLight() {
+        int[] pre = new int[256 * 256], post = new int[pre.length], out = new int[pre.length];
+        for (int i = 0; i < pre.length; i++) {
+            pre[i] = i >> 8;
+            post[i] = i & 0xFF;
+        }
+
+        BlendMode.LINEAR.blender(0.5).blendRow(pre, 0, post, 0, out, 0, pre.length);
+        for (int i = 0; i < pre.length; i++) {
+            int expected = (int) Math.round(toSrgb((toLinear(pre[i]) + toLinear(post[i])) / 2) * 255);
+            if (Math.abs(expected - out[i]) > 1) fail(pre[i] + " to " + post[i] + " should be " + expected + ", but was " + out[i]);
+        }
+
+        BlendMode.LINEAR.blender(0.5).blendRow(new int[]{0}, 0, new int[]{0xFFFFFF}, 0, out, 0, 1);
+        assertEquals(0xBCBCBC, out[0], "Half of white's light, rather than EXACT's 0x808080");
+    }
+
+    @Test
+    void multiPointKernelsMatchSinglePoints() {
+        Random random = new Random(47);
+        int[] pre = new int[LENGTH + 3], post = new int[LENGTH + 5];
+        for (int i = 0; i < pre.length; i++) pre[i] = random.nextInt() & 0xFFFFFF;
+        for (int i = 0; i < post.length; i++) post[i] = random.nextInt() & 0xFFFFFF;
+
+        for (BlendMode mode : BlendMode.values()) {
+            int[][] fused = new int[POINTS.length][LENGTH + 2];
+            mode.blender(POINTS).blendRow(pre, 3, post, 5, fused, 2, LENGTH);                                           // Offsets, so that no kernel assumes rows start at 0.
+
+            for (int i = 0; i < POINTS.length; i++) {
+                int[] single = new int[LENGTH + 2];
+                mode.blender(POINTS[i]).blendRow(pre, 3, post, 5, single, 2, LENGTH);
+                assertArrayEquals(single, fused[i], mode + " at " + POINTS[i]);
+            }
+        }
+    }
+
+    /**
+     * The sRGB transfer functions, per IEC 61966-2-1, each of a channel between <i>0.0 and 1.0</i>.
+     */
+    private static double toLinear(int channel) {
+        double srgb = channel / 255.0;
+        return srgb <= 0.04045 ? srgb / 12.92 : Math.pow((srgb + 0.055) / 1.055, 2.4);
+    }
+
+    private static double toSrgb(double linear) {
+        return linear <= 0.0031308 ? linear * 12.92 : 1.055 * Math.pow(linear, 1 / 2.4) - 0.055;
+    }
+}
@@ -0,0 +1,142 @@
+package com.shinkson47.FrameInterpolation;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Frames must be imported in order, and those of identical content stored once, and never blended with each other.
+ *
+ * @version 1
+ * @author <a href="https://www.shinkson47.in">Jordan T. Gray</a>
+ */
+class FrameBufferTest {
+
+    private static final int WIDTH = 150, HEIGHT = 20, FRAMES = 23;
+
+    @TempDir
+    File directory;
+
+    @Test
+    void identicalFramesAreStoredOnceAndFoundInRuns() {
+        BufferedImage[] sources = InterframeCacheTest.randomFrames(3, WIDTH, HEIGHT).getFrameBuffer().toArray(new BufferedImage[0]);
+        BufferedImage a = sources[0], b = sources[1], c = sources[2];
+        BufferedImage nearlyA = copy(a, BufferedImage.TYPE_INT_RGB);
+        nearlyA.setRGB(WIDTH - 1, HEIGHT - 1, nearlyA.getRGB(WIDTH - 1, HEIGHT - 1) ^ 1);                               // Differs by a single pixel, at the very end.
+
+        FrameBuffer frames = new FrameBuffer(new BufferedImage[]{
+                a, copy(a, BufferedImage.TYPE_INT_RGB), a,                                                              // Equal content, whether or not the same instance,
+                b, copy(b, BufferedImage.TYPE_3BYTE_BGR),                                                               // or of the same layout.
+                nearlyA, c, copy(b, BufferedImage.TYPE_INT_RGB)
+        });
+
+        assertEquals(8, frames.getBufferLength());
+        assertEquals(4, frames.getDistinctFrameCount());
+        assertSame(frames.getFrame(0), frames.getFrame(1));
+        assertSame(frames.getFrame(3), frames.getFrame(7));
+        assertNotSame(frames.getFrame(0), frames.getFrame(5));
+        assertEquals(3, frames.getReferenceCount(2));
+        assertEquals(3, frames.getReferenceCount(4));
+        assertEquals(1, frames.getReferenceCount(5));
+
+        assertTrue(frames.isDuplicate(3, 7));
+        assertTrue(frames.isDuplicate(6, 6));
+        assertFalse(frames.isDuplicate(0, 5));
+        assertFalse(frames.isDuplicate(6, 7));
+
+        List<FrameBuffer.DuplicateRun> runs = frames.getDuplicateRuns();
+        assertEquals(2, runs.size(), runs.toString());
+        assertEquals(0, runs.get(0).first);
+        assertEquals(3, runs.get(0).length);
+        assertEquals(3, runs.get(1).first);
+        assertEquals(2, runs.get(1).length);
+    }
+
+    @Test
+    void identicalPairsAreCopiedRatherThanBlended() throws Exception {
+        BufferedImage[] sources = InterframeCacheTest.randomFrames(2, WIDTH, HEIGHT).getFrameBuffer().toArray(new BufferedImage[0]);
+        FrameBuffer frames = new FrameBuffer(new BufferedImage[]{sources[0], copy(sources[0], BufferedImage.TYPE_INT_RGB), sources[1]});
+        List<BufferedImage> output = new ArrayList<>();
+
+        LinearImageInterpolator.setTileSkipping(true);                                                                  // Every blend is counted; a copy is not.
+        LinearImageInterpolator.resetTileStatistics();
+        try (InterpolationPipeline pipeline = new InterpolationPipeline(2)) {
+            pipeline.run(frames, 2, (index, frame) -> output.add(frame));
+        } finally {
+            LinearImageInterpolator.setTileSkipping(false);
+        }
+
+        int tiles = HEIGHT * ((WIDTH + LinearImageInterpolator.TILE_WIDTH - 1) / LinearImageInterpolator.TILE_WIDTH);
+        assertEquals(0, LinearImageInterpolator.getTilesSkipped(), "The identical pair was blended");
+        assertEquals(tiles, LinearImageInterpolator.getTilesBlended(), "Only the differing pair should be blended, once");
+
+        int points = InterpolationPipeline.points(2).length;
+        for (int i = 0; i < points; i++)
+            assertArrayEquals(PackedRaster.pixels(sources[0]), PackedRaster.pixels(output.get(i)), "Frame " + i);
+    }
+
+    @Test
+    void importKeepsNaturalFilenameOrder() throws IOException {
+        File folder = folder("order");
+        FrameBuffer frames = new FrameBuffer(folder);
+
+        assertEquals(FRAMES, frames.getBufferLength());
+        for (int i = 0; i < FRAMES; i++)
+            assertEquals(i + 1, frames.getFrame(i).getRGB(0, 0) & 0xFF, "Frame " + i);                                  // Not order_1, order_10, order_11...
+    }
+
+    @Test
+    @Timeout(value = 20, threadMode = Timeout.ThreadMode.SEPARATE_THREAD)
+    void failedDecodeShutsDownEveryDecoder() throws Exception {
+        File folder = folder("corrupt");
+        byte[] valid = Files.readAllBytes(new File(folder, "corrupt_5.png").toPath());
+        Files.write(new File(folder, "corrupt_5.png").toPath(), Arrays.copyOf(valid, valid.length / 2));                // Recognised as a PNG, but fails to decode.
+
+        ThreadGroup importing = new ThreadGroup("importing");                                                           // Decoders are created in the group of the thread importing.
+        AtomicBoolean imported = new AtomicBoolean(true);
+        Thread importer = new Thread(importing, () -> imported.set(InterframeCacheTest.randomFrames(2, 8, 8).validateImport(folder)));
+        importer.start();
+        importer.join();
+
+        assertFalse(imported.get(), "A folder holding a corrupt image was imported");
+        while (importing.activeCount() > 0)                                                                             // Shut down, so each decoder ends once its image is read.
+            Thread.sleep(10);
+    }
+
+    /**
+     * @return A folder of {@link #FRAMES} frames, named without padding, whose first pixel's blue channel is their number.
+     */
+    private File folder(String name) throws IOException {
+        File folder = new File(directory, name);
+        assertTrue(folder.mkdir());
+        for (int i = 1; i <= FRAMES; i++) {
+            BufferedImage image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+            image.setRGB(0, 0, i);
+            ImageIO.write(image, "png", new File(folder, name + "_" + i + ".png"));
+        }
+        return folder;
+    }
+
+    private static BufferedImage copy(BufferedImage image, int type) {
+        BufferedImage copy = new BufferedImage(image.getWidth(), image.getHeight(), type);
+        copy.getGraphics().drawImage(image, 0, 0, null);
+        return copy;
+    }
+}
@@ -0,0 +1,87 @@
+package com.shinkson47.FrameInterpolation;
+
+import com.shinkson47.FrameInterpolation.qoi.QOI;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Every accepted frame must reach the file of its index, or its failure must reach the caller.
+ *
+ * @version 1
+ * @author <a href="https://www.shinkson47.in">Jordan T. Gray</a>
+ */
+class FrameExporterTest {
+
+    private static final int FRAMES = 24;
+
+    @TempDir
+    File directory;
+
+    @Test
+    @Timeout(value = 20, threadMode = Timeout.ThreadMode.SEPARATE_THREAD)
+    void framesAreWrittenToTheirIndexAndReported() throws IOException {
+        FrameBuffer frames = InterframeCacheTest.randomFrames(FRAMES, 32, 24);
+        Set<Integer> reported = Collections.synchronizedSet(new TreeSet<>());
+
+        FrameExporter exporter = new FrameExporter(directory, QOI.FORMAT, FrameExporter.LEVEL_DEFAULT, 4, (written, framesPerSecond) -> {
+            if (framesPerSecond > 0) reported.add(written);
+        });
+        try (FrameExporter closing = exporter) {
+            for (int i = 0; i < FRAMES; i++)
+                closing.accept(i, frames.getFrame(i));
+        }
+
+        assertEquals(FRAMES, exporter.getFramesWritten());
+        assertEquals(FRAMES, reported.size(), "Every write should be reported once, with its own count, and a throughput");
+        assertEquals(FRAMES, (int) Collections.max(reported));
+        assertTrue(exporter.getFramesPerSecond() > 0);
+        for (int i = 0; i < FRAMES; i++) {                                                                              // Whichever order they finished in.
+            BufferedImage read = ImageIO.read(new File(directory, directory.getName() + "_" + i + "." + QOI.FORMAT));
+            int[] pixels = PackedRaster.pixels(read).clone();
+            for (int p = 0; p < pixels.length; p++)
+                pixels[p] &= 0xFFFFFF;                                                                                  // Opaque either way.
+            assertArrayEquals(PackedRaster.pixels(frames.getFrame(i)), pixels, "Frame " + i);
+        }
+    }
+
+    @Test
+    @Timeout(value = 20, threadMode = Timeout.ThreadMode.SEPARATE_THREAD)
+    void failuresReachTheCaller() throws IOException {
+        File missing = new File(directory, "missing");                                                                  // Never created, so no frame can be written.
+        FrameBuffer frames = InterframeCacheTest.randomFrames(2, 16, 12);
+
+        FrameExporter exporter = new FrameExporter(missing, QOI.FORMAT, FrameExporter.LEVEL_DEFAULT, 2, null);
+        exporter.accept(0, frames.getFrame(0));
+        assertThrows(IOException.class, exporter::close);
+        assertThrows(IOException.class, () -> exporter.accept(1, frames.getFrame(1)));
+        assertEquals(0, exporter.getFramesWritten());
+    }
+
+    @Test
+    @Timeout(value = 20, threadMode = Timeout.ThreadMode.SEPARATE_THREAD)                                              // A leaked permit would hang the second close.
+    void framesAcceptedAfterCloseAreRefused() throws IOException {
+        FrameBuffer frames = InterframeCacheTest.randomFrames(2, 16, 12);
+        FrameExporter exporter = new FrameExporter(directory, QOI.FORMAT, FrameExporter.LEVEL_DEFAULT, 1, null);
+        exporter.close();
+
+        for (int i = 0; i < 3; i++) {
+            int index = i;
+            assertThrows(IOException.class, () -> exporter.accept(index, frames.getFrame(0)));
+        }
+        exporter.close();
+    }
+}
@@ -0,0 +1,161 @@
+package com.shinkson47.FrameInterpolation;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Random;
+
+import static com.shinkson47.FrameInterpolation.FrameSequenceFormat.*;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Frames written by {@link FrameSequenceWriter} must read back from {@link FrameSequenceReader} unchanged.
+ *
+ * @version 1
+ * @author <a href="https://www.shinkson47.in">Jordan T. Gray</a>
+ */
+class FrameSequenceTest {
+
+    private static final int WIDTH = 37, HEIGHT = 23, FRAMES = 5;
+
+    @TempDir
+    File directory;
+
+    @Test
+    void rawRgbRoundTrips() throws IOException {
+        roundTrip(FORMAT_RGB, -1);
+    }
+
+    @Test
+    void deflatedRgbRoundTrips() throws IOException {
+        roundTrip(FORMAT_RGB, 6);
+    }
+
+    @Test
+    void rawArgbRoundTrips() throws IOException {
+        roundTrip(FORMAT_ARGB, -1);
+    }
+
+    @Test
+    void deflatedArgbRoundTrips() throws IOException {
+        roundTrip(FORMAT_ARGB, 1);
+    }
+
+    @Test
+    void rgbIsStoredWithoutAlpha() throws IOException {
+        BufferedImage source = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_4BYTE_ABGR);
+        source.setRGB(0, 0, 0x80123456);
+        File file = new File(directory, "masked.fseq");
+        try (FrameSequenceWriter writer = new FrameSequenceWriter(file, WIDTH, HEIGHT, FORMAT_RGB, -1)) {
+            writer.append(source);
+            writer.append(source);
+        }
+
+        try (RandomAccessFile raw = new RandomAccessFile(file, "r")) {
+            raw.seek(HEADER_BYTES);
+            assertEquals(0x00123456, Integer.reverseBytes(raw.readInt()));                                             // Little endian.
+        }
+    }
+
+    @Test
+    void framesAreIndependentViews() throws IOException {
+        File file = write(FORMAT_RGB, -1, frames(false));
+        try (FrameSequenceReader reader = new FrameSequenceReader(file)) {
+            assertArrayEquals(PackedRaster.pixels(reader.getFrame(2)), PackedRaster.pixels(reader.getFrame(2)));
+            assertEquals(WIDTH, reader.getWidth());
+            assertEquals(HEIGHT, reader.getHeight());
+        }
+    }
+
+    @Test
+    @Timeout(value = 10, threadMode = Timeout.ThreadMode.SEPARATE_THREAD)                                              // A regression spins forever; fail it instead.
+    void truncatedPayloadFailsRatherThanHangs() throws IOException {
+        File file = write(FORMAT_RGB, 9, frames(false));
+
+        try (RandomAccessFile raw = new RandomAccessFile(file, "rw")) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            raw.readFully(header.array());
+            long index = header.getLong(20);
+            raw.seek(index + 8);                                                                                        // Length of the first payload.
+            int length = Integer.reverseBytes(raw.readInt());
+            raw.seek(index + 8);
+            raw.writeInt(Integer.reverseBytes(length / 2));
+        }
+
+        try (FrameSequenceReader reader = new FrameSequenceReader(file)) {
+            assertThrows(UncheckedIOException.class, () -> reader.getFrame(0));
+        }
+    }
+
+    @Test
+    void unknownFormatIsRejected() throws IOException {
+        File file = write(FORMAT_RGB, -1, frames(false));
+        try (RandomAccessFile raw = new RandomAccessFile(file, "rw")) {
+            raw.seek(6);
+            raw.writeByte(7);
+        }
+
+        assertThrows(IOException.class, () -> new FrameSequenceReader(file).close());
+    }
+
+    @Test
+    void unknownCompressionIsRejected() throws IOException {
+        File file = write(FORMAT_RGB, -1, frames(false));
+        try (RandomAccessFile raw = new RandomAccessFile(file, "rw")) {
+            raw.seek(7);
+            raw.writeByte(7);
+        }
+
+        assertThrows(IOException.class, () -> new FrameSequenceReader(file).close());
+    }
+
+    private void roundTrip(byte format, int level) throws IOException {
+        BufferedImage[] frames = frames(format == FORMAT_ARGB);
+        try (FrameSequenceReader reader = new FrameSequenceReader(write(format, level, frames))) {
+            assertEquals(frames.length, reader.getBufferLength());
+            for (int i = 0; i < frames.length; i++) {
+                assertArrayEquals(PackedRaster.pixels(frames[i]), PackedRaster.pixels(reader.getFrame(i)), "Frame " + i);
+
+                PackedRaster raster = reader.getRaster(i);
+                int[] row = new int[WIDTH];
+                for (int y = 0; y < HEIGHT; y++) {
+                    int[] read = format == FORMAT_ARGB ? raster.argbRow(y, row) : raster.row(y, row);
+                    int offset = format == FORMAT_ARGB ? raster.argbRowOffset(y) : raster.rowOffset(y);
+                    for (int x = 0; x < WIDTH; x++)
+                        assertEquals(frames[i].getRGB(x, y), format == FORMAT_ARGB ? read[offset + x] : read[offset + x] | 0xFF000000);
+                }
+            }
+        }
+    }
+
+    private File write(byte format, int level, BufferedImage[] frames) throws IOException {
+        File file = new File(directory, "sequence-" + format + "-" + level + ".fseq");
+        try (FrameSequenceWriter writer = new FrameSequenceWriter(file, WIDTH, HEIGHT, format, level)) {
+            for (int i = 0; i < frames.length; i++)
+                writer.accept(i, frames[i]);
+        }
+        return file;
+    }
+
+    private static BufferedImage[] frames(boolean alpha) {
+        Random random = new Random(10);
+        BufferedImage[] frames = new BufferedImage[FRAMES];
+        for (int i = 0; i < FRAMES; i++) {
+            frames[i] = new BufferedImage(WIDTH, HEIGHT, alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+            int[] pixels = PackedRaster.pixels(frames[i]);
+            for (int p = 0; p < pixels.length; p++)
+                pixels[p] = alpha ? random.nextInt() : random.nextInt() & 0xFFFFFF;
+        }
+        return frames;
+    }
+}
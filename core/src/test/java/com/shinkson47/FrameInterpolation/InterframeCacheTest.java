@@ -0,0 +1,111 @@
+package com.shinkson47.FrameInterpolation;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Cached interpolation must produce what uncached interpolation does, to within the cache's quantisation.
+ *
+ * @version 1
+ * @author <a href="https://www.shinkson47.in">Jordan T. Gray</a>
+ */
+class InterframeCacheTest {
+
+    private static final long BUDGET = 1L << 30;
+
+    @AfterEach
+    void restoreBlendMode() {
+        LinearImageInterpolator.setBlendMode(BlendMode.EXACT);
+    }
+
+    @Test
+    void exactForAllIsWithinALevelOfUncached() {
+        FrameBuffer frames = randomFrames(4, 64, 48);
+        for (int exponent : new int[]{1, 2, 3, 5, 7})
+            assertWithinALevel(LinearImageInterpolator.forAll(frames, exponent),
+                             LinearImageInterpolator.forAll(new InterframeCache(frames, BUDGET), exponent));
+    }
+
+    @Test
+    void exactPointsAreQuantisedWithinALevel() {
+        FrameBuffer frames = randomFrames(2, 64, 48);
+        InterframeCache cache = new InterframeCache(frames, BUDGET);
+        assertEquals(85.0 / 256, cache.quantise(1.0 / 3));
+
+        BufferedImage cached = cache.interpolate(0, 1.0 / 3);
+        assertSame(cached, cache.interpolate(0, 0.3334), "Nearby points of a scrub should share a frame");
+        assertEquals(1, cache.getHits());
+
+        assertWithinALevel(new BufferedImage[]{LinearImageInterpolator.InterpolateImage(frames.getFrame(0), frames.getFrame(1), 1.0 / 3)},
+                           new BufferedImage[]{cached});
+    }
+
+    @Test
+    void fixedForAllMatchesUncached() {
+        LinearImageInterpolator.setBlendMode(BlendMode.FIXED);
+        FrameBuffer frames = randomFrames(3, 64, 48);
+        for (int exponent : new int[]{2, 3, 5})
+            assertSameFrames(LinearImageInterpolator.forAll(frames, exponent),
+                             LinearImageInterpolator.forAll(new InterframeCache(frames, BUDGET), exponent));
+    }
+
+    @Test
+    void modesAreCachedApart() {
+        FrameBuffer frames = randomFrames(2, 16, 16);
+        InterframeCache cache = new InterframeCache(frames, BUDGET, (1 << 24) - 1);
+
+        BufferedImage post = cache.interpolate(0, 1.0);
+        LinearImageInterpolator.setBlendMode(BlendMode.FIXED);
+        BufferedImage pre = cache.interpolate(0, 0.0);
+
+        assertArrayEquals(PackedRaster.pixels(frames.getFrame(1)), PackedRaster.pixels(post));
+        assertArrayEquals(PackedRaster.pixels(frames.getFrame(0)), PackedRaster.pixels(pre));
+    }
+
+    @Test
+    void rejectsStepsThatCannotBeKeyed() {
+        FrameBuffer frames = randomFrames(2, 8, 8);
+        assertThrows(IllegalArgumentException.class, () -> new InterframeCache(frames, BUDGET, 0));
+        assertThrows(IllegalArgumentException.class, () -> new InterframeCache(frames, BUDGET, 1 << 24));
+    }
+
+    private static void assertSameFrames(BufferedImage[] expected, BufferedImage[] actual) {
+        assertEquals(expected.length, actual.length);
+        for (int i = 0; i < expected.length; i++)
+            assertArrayEquals(PackedRaster.pixels(expected[i]), PackedRaster.pixels(actual[i]), "Frame " + i);
+    }
+
+    /**
+     * Asserts no channel of any frame differs by more than 1, as {@link BlendMode#EXACT} frames cached at 1/256ths may.
+     */
+    private static void assertWithinALevel(BufferedImage[] expected, BufferedImage[] actual) {
+        assertEquals(expected.length, actual.length);
+        for (int i = 0; i < expected.length; i++) {
+            int[] expectedPixels = PackedRaster.pixels(expected[i]), actualPixels = PackedRaster.pixels(actual[i]);
+            for (int p = 0; p < expectedPixels.length; p++)
+                for (int shift = 0; shift < 24; shift += 8)
+                    assertTrue(Math.abs((expectedPixels[p] >> shift & 0xFF) - (actualPixels[p] >> shift & 0xFF)) <= 1, "Frame " + i + ", pixel " + p);
+        }
+    }
+
+    static FrameBuffer randomFrames(int count, int width, int height) {
+        Random random = new Random(47);
+        BufferedImage[] images = new BufferedImage[count];
+        for (int i = 0; i < count; i++) {
+            images[i] = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            int[] pixels = PackedRaster.pixels(images[i]);
+            for (int p = 0; p < pixels.length; p++)
+                pixels[p] = random.nextInt() & 0xFFFFFF;
+        }
+        return new FrameBuffer(images);
+    }
+}
@@ -0,0 +1,130 @@
+package com.shinkson47.FrameInterpolation;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A job must stop its run when cancelled, and report the progress of every pair until then.
+ *
+ * @version 1
+ * @author <a href="https://www.shinkson47.in">Jordan T. Gray</a>
+ */
+class InterpolationJobTest {
+
+    private static final int FRAMES = 5, EXPONENT = 2;
+    private static final int POINTS = EXPONENT + 1;
+
+    @Test
+    @Timeout(value = 20, threadMode = Timeout.ThreadMode.SEPARATE_THREAD)                                              // A run that ignores cancel sleeps through the sink.
+    void cancelInterruptsTheRunnerAndStopsAtTheNextPair() throws Exception {
+        FrameBuffer frames = InterframeCacheTest.randomFrames(FRAMES, 16, 12);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        CountDownLatch blocked = new CountDownLatch(1);
+        AtomicBoolean interrupted = new AtomicBoolean();
+        AtomicInteger last = new AtomicInteger(-1);
+
+        try (InterpolationPipeline pipeline = new InterpolationPipeline(2)) {
+            InterpolationJob<Void> job = pipeline.submit(frames, EXPONENT, (index, frame) -> {
+                last.set(index);
+                if (index != POINTS) return;                                                                            // The first frame of the second pair.
+
+                blocked.countDown();
+                try {
+                    Thread.sleep(60_000);
+                } catch (InterruptedException e) {
+                    interrupted.set(true);
+                    Thread.currentThread().interrupt();
+                }
+            }, executor, null);
+
+            assertTrue(blocked.await(10, TimeUnit.SECONDS), "The sink was never reached");
+            assertTrue(job.cancel(false));
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS), "The run did not stop");
+
+            assertTrue(job.isCancelled());
+            assertTrue(interrupted.get(), "The runner was not interrupted");
+            assertEquals(2 * POINTS - 1, last.get(), "The run went on past the pair it was cancelled in");
+            assertEquals(1, job.getProgress().getPairsDone());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void cancelBeforeStartingRunsNothing() {
+        FrameBuffer frames = InterframeCacheTest.randomFrames(FRAMES, 16, 12);
+        List<Runnable> queued = new ArrayList<>();
+        AtomicInteger accepted = new AtomicInteger();
+
+        try (InterpolationPipeline pipeline = new InterpolationPipeline(2)) {
+            InterpolationJob<Void> job = pipeline.submit(frames, EXPONENT, (index, frame) -> accepted.incrementAndGet(), queued::add, null);
+            assertTrue(job.cancel(true));
+            queued.forEach(Runnable::run);                                                                              // The executor gets round to it afterwards.
+
+            assertTrue(job.isCancelled());
+            assertEquals(0, accepted.get());
+            assertFalse(Thread.interrupted(), "A run that never started was interrupted");
+        }
+    }
+
+    @Test
+    void progressIsReportedAfterEveryPair() throws Exception {
+        FrameBuffer frames = InterframeCacheTest.randomFrames(FRAMES, 16, 12);
+        List<InterpolationJob.Progress> reported = new ArrayList<>();
+        AtomicInteger accepted = new AtomicInteger();
+
+        InterpolationJob<Void> job;
+        try (InterpolationPipeline pipeline = new InterpolationPipeline(2)) {
+            job = pipeline.submit(frames, EXPONENT, (index, frame) -> accepted.incrementAndGet(), Runnable::run, reported::add);
+            job.get();
+        }
+
+        int pairs = FRAMES - 1;
+        assertEquals(pairs, reported.size());
+        for (int i = 0; i < pairs; i++) {
+            InterpolationJob.Progress progress = reported.get(i);
+            assertEquals(i + 1, progress.getPairsDone());
+            assertEquals(pairs, progress.getPairs());
+            assertEquals((long) (i + 1) * POINTS, progress.getFramesDone());
+            assertEquals((long) pairs * POINTS, progress.getFrames());
+            assertEquals((i + 1.0) / pairs, progress.getFraction());
+            assertTrue(progress.getFramesPerSecond() > 0, progress.toString());
+            assertTrue(progress.getRemainingNanos() >= 0, progress.toString());
+            if (i > 0) assertTrue(progress.getElapsedNanos() >= reported.get(i - 1).getElapsedNanos());
+        }
+
+        assertEquals(pairs * POINTS, accepted.get());
+        assertEquals(0, reported.get(pairs - 1).getRemainingNanos());
+        assertSame(reported.get(pairs - 1), job.getProgress());
+    }
+
+    @Test
+    void throughputAndEstimateFollowTheTimePerPair() {
+        InterpolationJob.Progress unstarted = new InterpolationJob<Void>(4, 3, null).getProgress();
+        assertEquals(0, unstarted.getFramesPerSecond());
+        assertEquals(-1, unstarted.getRemainingNanos());
+        assertEquals(0, unstarted.getFraction());
+
+        InterpolationJob.Progress halfway = new InterpolationJob.Progress(2, 4, 3, 2_000_000L, 1_000_000L);             // A millisecond per pair of 3 frames.
+        assertEquals(3000, halfway.getFramesPerSecond(), 1e-9);
+        assertEquals(2_000_000L, halfway.getRemainingNanos());
+        assertEquals(0.5, halfway.getFraction());
+
+        assertEquals(1, new InterpolationJob<Void>(0, 3, null).getProgress().getFraction(), "Nothing to do is done");
+    }
+}
@@ -0,0 +1,112 @@
+package com.shinkson47.FrameInterpolation;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Every key frame, including the last, must survive the pipeline.
+ *
+ * @version 1
+ * @author <a href="https://www.shinkson47.in">Jordan T. Gray</a>
+ */
+class InterpolationPipelineTest {
+
+    @Test
+    void rejectsExponentsThatWouldDropFrames() {
+        assertThrows(IllegalArgumentException.class, () -> InterpolationPipeline.points(0));
+        assertThrows(IllegalArgumentException.class, () -> InterpolationPipeline.outputLength(4, 0));
+        assertThrows(IllegalArgumentException.class, () -> InterpolationPipeline.points(-1));
+    }
+
+    @Test
+    void keyFramesArePassedThrough() throws Exception {
+        FrameBuffer frames = InterframeCacheTest.randomFrames(3, 16, 12);
+        List<BufferedImage> output = new ArrayList<>();
+        try (InterpolationPipeline pipeline = new InterpolationPipeline(2)) {
+            pipeline.run(frames, 1, (index, frame) -> output.add(frame));
+        }
+
+        assertEquals(InterpolationPipeline.outputLength(3, 1), output.size());
+        assertArrayEquals(PackedRaster.pixels(frames.getFrame(0)), PackedRaster.pixels(output.get(0)));
+        assertArrayEquals(PackedRaster.pixels(frames.getFrame(2)), PackedRaster.pixels(output.get(output.size() - 1)));
+    }
+
+    @Test
+    void failingSinkReturnsEveryFrameToThePool() throws Exception {
+        FrameBuffer frames = InterframeCacheTest.randomFrames(6, 16, 12);
+        CountingPool pool = new CountingPool();
+
+        try (InterpolationPipeline pipeline = new InterpolationPipeline(2, 4, pool)) {
+            assertThrows(IOException.class, () -> pipeline.run(frames, 2, (index, frame) -> {
+                if (index < 1) {
+                    pool.release(frame);                                                                                // Taken by the sink.
+                    return;
+                }
+                LockSupport.parkNanos(200_000_000L);                                                                    // Lets every pair in flight finish.
+                throw new IOException("Sink failed");
+            }));
+        }
+
+        assertEquals(0, pool.outstanding, "Frames borrowed but never released");
+    }
+
+    @Test
+    void blendPoolIsUsedWithoutReplacingTheGlobalPool() throws Exception {
+        FrameBuffer frames = InterframeCacheTest.randomFrames(3, 64, 48);
+        AtomicInteger blendThreads = new AtomicInteger();
+        ForkJoinPool blending = new ForkJoinPool(2, pool -> {
+            blendThreads.incrementAndGet();
+            return ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+        }, null, false);
+        ForkJoinPool global = LinearImageInterpolator.getPool();
+        long threshold = LinearImageInterpolator.getParallelThreshold();
+        LinearImageInterpolator.setParallelThreshold(0);                                                                // Every frame is split into bands.
+
+        List<BufferedImage> output = new ArrayList<>();
+        try (InterpolationPipeline pipeline = new InterpolationPipeline(2, 4, null, false, blending)) {
+            pipeline.run(frames, 3, (index, frame) -> output.add(frame));
+        } finally {
+            LinearImageInterpolator.setParallelThreshold(threshold);
+            blending.shutdown();
+        }
+
+        assertTrue(blendThreads.get() > 0, "No band ran on the blend pool");
+        assertSame(global, LinearImageInterpolator.getPool());
+        BufferedImage[] expected = LinearImageInterpolator.forAll(frames, 3);
+        for (int i = 0; i < expected.length; i++)
+            assertArrayEquals(PackedRaster.pixels(expected[i]), PackedRaster.pixels(output.get(i)), "Frame " + i);
+    }
+
+    /**
+     * Counts frames borrowed, but not yet released.
+     */
+    private static final class CountingPool extends FramePool {
+
+        int outstanding;
+
+        @Override
+        public synchronized BufferedImage borrow(int width, int height) {
+            outstanding++;
+            return super.borrow(width, height);
+        }
+
+        @Override
+        public synchronized void release(BufferedImage frame) {
+            if (frame != null) outstanding--;
+            super.release(frame);
+        }
+    }
+}
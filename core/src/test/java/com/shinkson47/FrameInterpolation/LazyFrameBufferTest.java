@@ -0,0 +1,66 @@
+package com.shinkson47.FrameInterpolation;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Frames must always be fetchable, whatever became of their read-ahead.
+ *
+ * @version 1
+ * @author <a href="https://www.shinkson47.in">Jordan T. Gray</a>
+ */
+class LazyFrameBufferTest {
+
+    private static final int FRAMES = 17;
+
+    @TempDir
+    File directory;
+
+    @Test
+    @Timeout(value = 20, threadMode = Timeout.ThreadMode.SEPARATE_THREAD)                                              // A regression waits forever on dropped read-ahead.
+    void framesDecodeAfterClose() throws IOException {
+        File folder = folder("close", 0);
+        LazyFrameBuffer buffer = new LazyFrameBuffer(folder, Long.MAX_VALUE, 16);
+
+        assertEquals(0, buffer.getFrame(0).getRGB(0, 0) & 0xFF);
+        buffer.close();
+        for (int i = 1; i < FRAMES; i++)
+            assertEquals(i, buffer.getFrame(i).getRGB(0, 0) & 0xFF, "Frame " + i);
+    }
+
+    @Test
+    @Timeout(value = 20, threadMode = Timeout.ThreadMode.SEPARATE_THREAD)
+    void reimportNeverServesTheLastFolder() throws IOException {
+        File first = folder("first", 0), second = folder("second", 100);
+        try (LazyFrameBuffer buffer = new LazyFrameBuffer(first, Long.MAX_VALUE, 16)) {
+            buffer.getFrame(0);                                                                                         // Leaves the rest of the first folder decoding.
+            assertTrue(buffer.validateImport(second));
+
+            for (int i = 0; i < FRAMES; i++)
+                assertEquals(100 + i, buffer.getFrame(i).getRGB(0, 0) & 0xFF, "Frame " + i);
+        }
+    }
+
+    /**
+     * @return A folder of frames whose first pixel's blue channel is <i>first</i> plus their index.
+     */
+    private File folder(String name, int first) throws IOException {
+        File folder = new File(directory, name);
+        assertTrue(folder.mkdir());
+        for (int i = 0; i < FRAMES; i++) {
+            BufferedImage image = new BufferedImage(96, 64, BufferedImage.TYPE_INT_RGB);
+            image.setRGB(0, 0, first + i);
+            ImageIO.write(image, "png", new File(folder, String.format("%s_%02d.png", name, i)));
+        }
+        return folder;
+    }
+}
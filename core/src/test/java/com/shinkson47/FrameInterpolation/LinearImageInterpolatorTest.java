@@ -0,0 +1,165 @@
+package com.shinkson47.FrameInterpolation;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Packed kernels must blend exactly what the per-pixel colour path they replaced did.
+ *
+ * @version 1
+ * @author <a href="https://www.shinkson47.in">Jordan T. Gray</a>
+ */
+class LinearImageInterpolatorTest {
+
+    private static final int WIDTH = 67, HEIGHT = 29;
+    private static final int TILED_WIDTH = 3 * LinearImageInterpolator.TILE_WIDTH + 8, TILES = 4;                       // Ending with a narrower tile.
+    private static final int[] TYPES = {
+            BufferedImage.TYPE_INT_RGB, BufferedImage.TYPE_INT_BGR, BufferedImage.TYPE_INT_ARGB,
+            BufferedImage.TYPE_3BYTE_BGR, BufferedImage.TYPE_4BYTE_ABGR
+    };
+
+    @Test
+    void packedKernelMatchesTheColourPath() {
+        Random random = new Random(47);
+        double[] points = new double[12];
+        for (int i = 2; i < points.length; i++)
+            points[i] = random.nextDouble();
+        points[1] = 1;
+
+        for (int preType : TYPES)
+            for (int postType : TYPES) {
+                BufferedImage pre = opaqueNoise(preType, random), post = opaqueNoise(postType, random);
+                for (double point : points) {
+                    BufferedImage blended = LinearImageInterpolator.InterpolateImage(pre, post, point);
+                    for (int y = 0; y < HEIGHT; y++)
+                        for (int x = 0; x < WIDTH; x++)
+                            assertEquals(colourPath(pre.getRGB(x, y), post.getRGB(x, y), point), blended.getRGB(x, y) & 0xFFFFFF,
+                                         preType + " to " + postType + " at " + point + ", pixel " + x + ", " + y);
+                }
+            }
+    }
+
+    @Test
+    void lerpTablesMatchTheColourPathForEveryChannelPair() {
+        for (double point : new double[]{0, 1.0 / 3, 0.5, 0.7071, 1}) {
+            byte[] table = LinearImageInterpolator.lerpTable(point);
+            for (int pre = 0; pre < 256; pre++)
+                for (int post = 0; post < 256; post++)
+                    assertEquals(colourPath(pre, post, point), table[pre << 8 | post] & 0xFF, pre + " to " + post + " at " + point);
+        }
+    }
+
+    @Test
+    void tileSkippingMatchesTheFullBlendAndCountsEveryTile() {
+        int[] pre = new int[TILED_WIDTH * HEIGHT], post = new int[pre.length];
+        boolean[] dirty = new boolean[TILES * HEIGHT];
+        int skippable = unchangedTiles(pre, post, dirty, false);
+        double[] points = {0, 0.25, 0.5, 1.0 / 3, 1};
+
+        BlendMode mode = LinearImageInterpolator.getBlendMode();
+        try {
+            for (BlendMode blending : BlendMode.values()) {
+                LinearImageInterpolator.setBlendMode(blending);
+                int[][] full = new int[points.length][pre.length], skipped = new int[points.length][pre.length];
+
+                LinearImageInterpolator.setTileSkipping(false);
+                LinearImageInterpolator.InterpolatePixels(TILED_WIDTH, HEIGHT, pre, post, full, points);
+                LinearImageInterpolator.setTileSkipping(true);
+                LinearImageInterpolator.resetTileStatistics();
+                LinearImageInterpolator.InterpolatePixels(TILED_WIDTH, HEIGHT, pre, post, skipped, points);
+
+                for (int i = 0; i < points.length; i++)
+                    assertArrayEquals(full[i], skipped[i], blending + " at " + points[i]);
+                assertEquals(skippable, LinearImageInterpolator.getTilesSkipped(), blending + " tiles skipped");
+                assertEquals(dirty.length - skippable, LinearImageInterpolator.getTilesBlended(), blending + " tiles blended");
+                assertEquals((double) skippable / dirty.length, LinearImageInterpolator.getSkippedTileFraction(), 1e-9);
+            }
+
+            LinearImageInterpolator.resetTileStatistics();
+            assertEquals(0, LinearImageInterpolator.getTilesSkipped());
+            assertEquals(0, LinearImageInterpolator.getTilesBlended());
+            assertEquals(0, LinearImageInterpolator.getSkippedTileFraction());
+        } finally {
+            LinearImageInterpolator.setTileSkipping(false);
+            LinearImageInterpolator.setBlendMode(mode);
+        }
+    }
+
+    @Test
+    void tileSkippingComparesAlphaWhenBlendingIt() {
+        BufferedImage pre = new BufferedImage(TILED_WIDTH, HEIGHT, BufferedImage.TYPE_INT_ARGB), post = new BufferedImage(TILED_WIDTH, HEIGHT, BufferedImage.TYPE_INT_ARGB);
+        boolean[] dirty = new boolean[TILES * HEIGHT];
+        int skippable = unchangedTiles(PackedRaster.pixels(pre), PackedRaster.pixels(post), dirty, true);
+        double[] points = {0.25, 0.5, 1};
+
+        try {
+            LinearImageInterpolator.setTileSkipping(false);
+            BufferedImage[] full = LinearImageInterpolator.InterpolateImage(pre, post, points);
+            LinearImageInterpolator.setTileSkipping(true);
+            LinearImageInterpolator.resetTileStatistics();
+            BufferedImage[] skipped = LinearImageInterpolator.InterpolateImage(pre, post, points);
+
+            for (int i = 0; i < points.length; i++)
+                assertArrayEquals(PackedRaster.pixels(full[i]), PackedRaster.pixels(skipped[i]), "At " + points[i]);
+            assertEquals(skippable, LinearImageInterpolator.getTilesSkipped());
+            assertEquals(dirty.length - skippable, LinearImageInterpolator.getTilesBlended());
+        } finally {
+            LinearImageInterpolator.setTileSkipping(false);
+        }
+    }
+
+    /**
+     * Fills <i>pre</i> with noise and <i>post</i> with a copy of it, then changes a pixel of some tiles of every row,
+     * including the narrower tile at the end of each row, and only the alpha of one.
+     *
+     * @param dirty set for every tile that differs, in row order.
+     * @param alpha <i>true</i> if alpha is compared, so a change to alpha alone makes a tile differ.
+     * @return Number of tiles that do not differ.
+     */
+    private static int unchangedTiles(int[] pre, int[] post, boolean[] dirty, boolean alpha) {
+        Random random = new Random(47);
+        for (int i = 0; i < pre.length; i++)
+            pre[i] = post[i] = alpha ? random.nextInt() : random.nextInt() & 0xFFFFFF;
+
+        for (int y = 0; y < HEIGHT; y++) {
+            if (y % 2 == 0) change(post, dirty, y, LinearImageInterpolator.TILE_WIDTH + y, 0x010000);
+            if (y % 3 == 0) change(post, dirty, y, TILED_WIDTH - 1, 0x000001);                                          // The edge tile.
+        }
+        post[TILED_WIDTH + 5] ^= 0x01000000;
+        dirty[TILES] |= alpha;
+
+        int unchanged = 0;
+        for (boolean tile : dirty)
+            if (!tile) unchanged++;
+        return unchanged;
+    }
+
+    private static void change(int[] pixels, boolean[] dirty, int y, int x, int bits) {
+        pixels[y * TILED_WIDTH + x] ^= bits;
+        dirty[y * TILES + x / LinearImageInterpolator.TILE_WIDTH] = true;
+    }
+
+    /**
+     * The original blend of a pixel: each channel read as a JavaFX Color would, a float of <i>0.0 to 1.0</i>,
+     * then lerped by {@link LinearImageInterpolator#lerpPixel255(double, double, double)}.
+     */
+    static int colourPath(int pre, int post, double point) {
+        int pixel = 0;
+        for (int shift = 16; shift >= 0; shift -= 8)
+            pixel |= LinearImageInterpolator.lerpPixel255((float) ((pre >> shift & 0xFF) / 255.0), (float) ((post >> shift & 0xFF) / 255.0), point) << shift;
+        return pixel;
+    }
+
+    static BufferedImage opaqueNoise(int type, Random random) {
+        BufferedImage image = new BufferedImage(WIDTH, HEIGHT, type);
+        for (int y = 0; y < HEIGHT; y++)
+            for (int x = 0; x < WIDTH; x++)
+                image.setRGB(x, y, 0xFF000000 | random.nextInt());
+        return image;
+    }
+}
@@ -0,0 +1,98 @@
+package com.shinkson47.FrameInterpolation;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Interpolating straight into a store must store exactly what interpolating onto the heap produces.
+ *
+ * @version 1
+ * @author <a href="https://www.shinkson47.in">Jordan T. Gray</a>
+ */
+class MappedFrameBufferTest {
+
+    @TempDir
+    File directory;
+
+    @Test
+    void pipelineBlendsStraightIntoStore() throws IOException, InterruptedException {
+        FrameBuffer frames = InterframeCacheTest.randomFrames(4, 67, 45);
+        assertStoredLikeHeap(frames, 3);
+    }
+
+    @Test
+    void bandsBlendStraightIntoStore() throws IOException, InterruptedException {
+        long threshold = LinearImageInterpolator.getParallelThreshold();
+        LinearImageInterpolator.setParallelThreshold(1);
+        try {
+            assertStoredLikeHeap(InterframeCacheTest.randomFrames(3, 64, 96), 4);
+        } finally {
+            LinearImageInterpolator.setParallelThreshold(threshold);
+        }
+    }
+
+    @Test
+    void duplicatePairsAreCopiedIntoStore() throws IOException, InterruptedException {
+        FrameBuffer random = InterframeCacheTest.randomFrames(2, 31, 17);
+        BufferedImage[] held = {random.getFrame(0), random.getFrame(0), random.getFrame(1)};
+        assertStoredLikeHeap(new FrameBuffer(held), 2);
+    }
+
+    @Test
+    void storeOfTheWrongLengthIsRejected() throws IOException {
+        FrameBuffer frames = InterframeCacheTest.randomFrames(3, 8, 8);
+        try (MappedFrameBuffer store = MappedFrameBuffer.create(new File(directory, "short.store"), 8, 8, 3);
+             InterpolationPipeline pipeline = new InterpolationPipeline(2)) {
+            assertThrows(IllegalArgumentException.class, () -> pipeline.run(frames, 2, store));
+        }
+    }
+
+    @Test
+    void importedStoreIsReopenedOnceClosed() throws IOException {
+        File folder = new File(directory, "frames");
+        BufferedImage[] images = frameFolder(folder);
+        File file = new File(directory, "import.store");
+
+        try (MappedFrameBuffer store = new MappedFrameBuffer(folder, file)) {
+            assertThrows(UncheckedIOException.class, () -> new MappedFrameBuffer(folder, file));                       // Locked by the open store.
+            assertThrows(UncheckedIOException.class, () -> MappedFrameBuffer.create(file, 8, 8, 2));
+        }
+
+        long modified = file.lastModified();
+        try (MappedFrameBuffer store = new MappedFrameBuffer(folder, file)) {
+            assertEquals(modified, file.lastModified(), "An unchanged folder is mapped, not imported again");
+            for (int i = 0; i < images.length; i++)
+                assertArrayEquals(PackedRaster.pixels(images[i]), PackedRaster.pixels(store.getFrame(i)), "Frame " + i);
+        }
+    }
+
+    private static BufferedImage[] frameFolder(File folder) throws IOException {
+        assertTrue(folder.mkdir());
+        BufferedImage[] images = InterframeCacheTest.randomFrames(3, 23, 19).getFrameBuffer().toArray(new BufferedImage[0]);
+        for (int i = 0; i < images.length; i++)
+            ImageIO.write(images[i], "png", new File(folder, "frame_" + i + ".png"));
+        return images;
+    }
+
+    private void assertStoredLikeHeap(FrameBuffer frames, int exponent) throws IOException, InterruptedException {
+        BufferedImage[] expected = LinearImageInterpolator.forAll(frames, exponent);
+        File file = new File(directory, "out.store");
+        try (MappedFrameBuffer store = MappedFrameBuffer.create(file, frames.getWidth(), frames.getHeight(), expected.length);
+             InterpolationPipeline pipeline = new InterpolationPipeline(2)) {
+            pipeline.run(frames, exponent, store);
+            for (int i = 0; i < expected.length; i++)
+                assertArrayEquals(PackedRaster.pixels(expected[i]), PackedRaster.pixels(store.getFrame(i)), "Frame " + i);
+        }
+    }
+}
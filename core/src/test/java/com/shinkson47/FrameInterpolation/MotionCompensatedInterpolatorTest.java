@@ -0,0 +1,111 @@
+package com.shinkson47.FrameInterpolation;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Content moving between a pair must be followed, block for block, and placed where it is along the motion.
+ *
+ * @version 1
+ * @author <a href="https://www.shinkson47.in">Jordan T. Gray</a>
+ */
+class MotionCompensatedInterpolatorTest {
+
+    private static final int WIDTH = 320, HEIGHT = 240, SHIFT_X = 12, SHIFT_Y = -6, MARGIN = 32;
+
+    private final int[] canvas = canvas();
+    private final BufferedImage pre = frame(0, 0), post = frame(SHIFT_X, SHIFT_Y);
+
+    @Test
+    void everyBlockWhoseMatchIsInFrameFollowsTheShift() {
+        MotionField field = MotionCompensatedInterpolator.estimate(pre, post);
+
+        int size = field.getBlockSize();
+        for (int blockY = 0; blockY < field.blocksY; blockY++)
+            for (int blockX = 0; blockX < field.blocksX; blockX++) {
+                int x = blockX * size + SHIFT_X, y = blockY * size + SHIFT_Y;
+                if (x < 0 || y < 0 || x + size > WIDTH || y + size > HEIGHT) continue;                                 // Its content has left the frame.
+
+                int block = blockY * field.blocksX + blockX;
+                assertEquals(SHIFT_X, field.vectorX[block], "Block " + blockX + ", " + blockY);
+                assertEquals(SHIFT_Y, field.vectorY[block], "Block " + blockX + ", " + blockY);
+            }
+    }
+
+    @Test
+    void warpPlacesContentAlongTheMotion() {
+        MotionField field = MotionCompensatedInterpolator.estimate(pre, post);
+        double[] points = {0, 0.5, 1};
+        BufferedImage[] out = new BufferedImage[points.length];
+        for (int i = 0; i < out.length; i++)
+            out[i] = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+        MotionCompensatedInterpolator.interpolateInto(out, pre, post, field, points);
+
+        for (int i = 0; i < points.length; i++) {
+            int offsetX = (int) Math.round(points[i] * SHIFT_X), offsetY = (int) Math.round(points[i] * SHIFT_Y);
+            BufferedImage expected = frame(offsetX, offsetY);                                                           // The canvas, moved part of the way.
+
+            for (int y = 2 * MARGIN; y < HEIGHT - 2 * MARGIN; y++)                                                      // Away from blocks whose content left the frame.
+                for (int x = 2 * MARGIN; x < WIDTH - 2 * MARGIN; x++)
+                    assertEquals(expected.getRGB(x, y), out[i].getRGB(x, y), "Point " + points[i] + ", pixel " + x + ", " + y);
+        }
+    }
+
+    @Test
+    void reusedFieldMatchesASingleSearch() {
+        double[] points = {0.25, 0.5, 0.75};
+        BufferedImage[] expected = MotionCompensatedInterpolator.InterpolateImage(pre, post, points);
+
+        MotionField field = MotionCompensatedInterpolator.estimate(pre, post);
+        for (int i = 0; i < points.length; i++) {
+            BufferedImage actual = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+            MotionCompensatedInterpolator.interpolateInto(actual, pre, post, field, points[i]);
+            assertArrayEquals(PackedRaster.pixels(expected[i]), PackedRaster.pixels(actual), "Point " + points[i]);
+        }
+    }
+
+    /**
+     * @return A frame of the canvas, with its content moved by a vector.
+     */
+    private BufferedImage frame(int dx, int dy) {
+        BufferedImage frame = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+        int stride = WIDTH + 2 * MARGIN;
+        for (int y = 0; y < HEIGHT; y++)
+            for (int x = 0; x < WIDTH; x++)
+                frame.setRGB(x, y, canvas[(y + MARGIN - dy) * stride + x + MARGIN - dx]);
+        return frame;
+    }
+
+    /**
+     * @return Noise, smoothed as camera content is, larger than a frame by {@link #MARGIN} on every side.
+     */
+    private static int[] canvas() {
+        int width = WIDTH + 2 * MARGIN, height = HEIGHT + 2 * MARGIN;
+        Random random = new Random(47);
+        int[] canvas = new int[width * height], smoothed = new int[canvas.length];
+        for (int i = 0; i < canvas.length; i++)
+            canvas[i] = random.nextInt() & 0xFFFFFF;
+
+        for (int pass = 0; pass < 3; pass++) {                                                                          // A 3x3 box blur, three times over.
+            for (int y = 1; y < height - 1; y++)
+                for (int x = 1; x < width - 1; x++) {
+                    int red = 0, green = 0, blue = 0;
+                    for (int j = -1; j <= 1; j++)
+                        for (int i = -1; i <= 1; i++) {
+                            int pixel = canvas[(y + j) * width + x + i];
+                            red += pixel >> 16 & 0xFF;
+                            green += pixel >> 8 & 0xFF;
+                            blue += pixel & 0xFF;
+                        }
+                    smoothed[y * width + x] = red / 9 << 16 | green / 9 << 8 | blue / 9;
+                }
+            System.arraycopy(smoothed, 0, canvas, 0, canvas.length);
+        }
+        return canvas;
+    }
+}
@@ -0,0 +1,103 @@
+package com.shinkson47.FrameInterpolation;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.Transparency;
+import java.awt.color.ColorSpace;
+import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+import java.awt.image.ComponentColorModel;
+import java.awt.image.DataBuffer;
+import java.awt.image.WritableRaster;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Every layout must be read as the colours it holds, whether directly or through the fallback.
+ *
+ * @version 1
+ * @author <a href="https://www.shinkson47.in">Jordan T. Gray</a>
+ */
+class PackedRasterTest {
+
+    private static final int WIDTH = 37, HEIGHT = 11;
+    private static final int[] TYPES = {
+            BufferedImage.TYPE_INT_RGB, BufferedImage.TYPE_INT_ARGB, BufferedImage.TYPE_INT_BGR,
+            BufferedImage.TYPE_3BYTE_BGR, BufferedImage.TYPE_4BYTE_ABGR,
+            BufferedImage.TYPE_BYTE_GRAY, BufferedImage.TYPE_USHORT_GRAY,
+            BufferedImage.TYPE_BYTE_INDEXED, BufferedImage.TYPE_BYTE_BINARY,
+            BufferedImage.TYPE_USHORT_565_RGB, BufferedImage.TYPE_USHORT_555_RGB
+    };
+
+    private final Random random = new Random(47);
+
+    @Test
+    void standardTypesMatchTheirColours() {
+        for (int type : TYPES)
+            assertReadsAsStored(noise(new BufferedImage(WIDTH, HEIGHT, type)), "Type " + type);
+    }
+
+    @Test
+    void customComponentLayoutsMatchTheirColours() {
+        ColorSpace srgb = ColorSpace.getInstance(ColorSpace.CS_sRGB), gray = ColorSpace.getInstance(ColorSpace.CS_GRAY);
+        assertReadsAsStored(noise(custom(srgb, true, DataBuffer.TYPE_USHORT)), "16 bit RGBA");                            // As ImageIO reads 16 bit PNGs.
+        assertReadsAsStored(noise(custom(srgb, false, DataBuffer.TYPE_USHORT)), "16 bit RGB");
+        assertReadsAsStored(noise(custom(gray, true, DataBuffer.TYPE_BYTE)), "8 bit gray and alpha");
+        assertReadsAsStored(noise(custom(gray, true, DataBuffer.TYPE_USHORT)), "16 bit gray and alpha");
+    }
+
+    @Test
+    void subImagesAreReadFromTheirOrigin() {
+        for (int type : new int[]{BufferedImage.TYPE_INT_RGB, BufferedImage.TYPE_3BYTE_BGR, BufferedImage.TYPE_BYTE_GRAY, BufferedImage.TYPE_BYTE_BINARY}) {
+            BufferedImage whole = noise(new BufferedImage(WIDTH + 9, HEIGHT + 5, type));
+            assertReadsAsStored(whole.getSubimage(5, 3, WIDTH, HEIGHT), "Sub-image of type " + type);
+        }
+    }
+
+    /**
+     * Asserts every row, of either kind, holds each pixel's colour: its 8 bit samples for component layouts, which are
+     * expanded as stored rather than through a colour space, otherwise that of BufferedImage#getRGB.
+     */
+    private static void assertReadsAsStored(BufferedImage image, String name) {
+        PackedRaster raster = new PackedRaster(image);
+        int[] scratch = new int[WIDTH];
+        for (int y = 0; y < HEIGHT; y++) {
+            int[] argb = raster.argbRow(y, scratch).clone(), row = raster.row(y, scratch);
+            int argbOffset = raster.argbRowOffset(y), rowOffset = raster.rowOffset(y);
+
+            for (int x = 0; x < WIDTH; x++) {
+                int expected = stored(image, x, y);
+                assertEquals(Integer.toHexString(expected), Integer.toHexString(argb[argbOffset + x]), name + ", pixel " + x + ", " + y);
+                assertEquals(Integer.toHexString(expected & 0xFFFFFF), Integer.toHexString(row[rowOffset + x] & 0xFFFFFF), name + ", pixel " + x + ", " + y);
+            }
+        }
+    }
+
+    private static int stored(BufferedImage image, int x, int y) {
+        ColorModel model = image.getColorModel();
+        if (!(model instanceof ComponentColorModel)) return image.getRGB(x, y);
+
+        WritableRaster raster = image.getRaster();
+        int[] samples = raster.getPixel(x, y, (int[]) null);
+        int shift = model.getComponentSize(0) - 8, colours = model.getNumColorComponents();
+        int alpha = model.hasAlpha() ? samples[colours] >> shift : 0xFF;
+        if (colours == 1) return alpha << 24 | (samples[0] >> shift) * 0x010101;
+        return alpha << 24 | (samples[0] >> shift) << 16 | (samples[1] >> shift) << 8 | samples[2] >> shift;
+    }
+
+    private static BufferedImage custom(ColorSpace space, boolean alpha, int transferType) {
+        ComponentColorModel model = new ComponentColorModel(space, alpha, false, alpha ? Transparency.TRANSLUCENT : Transparency.OPAQUE, transferType);
+        return new BufferedImage(model, model.createCompatibleWritableRaster(WIDTH, HEIGHT), false, null);
+    }
+
+    /**
+     * Fills every element of an image's backing array with random bits; every such value is a valid pixel.
+     */
+    private BufferedImage noise(BufferedImage image) {
+        DataBuffer buffer = image.getRaster().getDataBuffer();
+        for (int i = 0; i < buffer.getSize(); i++)
+            buffer.setElem(i, random.nextInt());
+        return image;
+    }
+}
@@ -0,0 +1,53 @@
+package com.shinkson47.FrameInterpolation;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.awt.image.BufferedImage;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Playback must reach the end of the sequence, whatever becomes of a frame on its way to the display.
+ *
+ * @version 1
+ * @author <a href="https://www.shinkson47.in">Jordan T. Gray</a>
+ */
+class PlaybackEngineTest {
+
+    @Test
+    @Timeout(value = 20, threadMode = Timeout.ThreadMode.SEPARATE_THREAD)
+    void rejectedFrameIsDroppedAndFreesItsSlot() throws InterruptedException {
+        FrameBuffer frames = InterframeCacheTest.randomFrames(4, 16, 12);
+        AtomicInteger handed = new AtomicInteger();
+        Executor display = task -> {
+            if (handed.getAndIncrement() == 0) throw new RejectedExecutionException("Display is busy");
+            task.run();
+        };
+        CountDownLatch ended = new CountDownLatch(1);
+
+        try (PlaybackEngine engine = new PlaybackEngine(frames, 2, 2, 1, new FramePool(), display, new PlaybackEngine.Display() {
+            @Override
+            public void show(int index, BufferedImage frame) {}
+
+            @Override
+            public void ended() {
+                ended.countDown();
+            }
+        })) {
+            while (engine.getBufferDepth() == 0)                                                                        // The first frame is rendered, so it is handed over.
+                Thread.sleep(1);
+            engine.play(50);
+
+            assertTrue(ended.await(10, TimeUnit.SECONDS), "Playback never ended");
+            assertTrue(engine.getFramesShown() > 0, "Nothing was shown after the rejected frame");
+            assertEquals(engine.getLength(), engine.getFramesShown() + engine.getFramesDropped());
+        }
+    }
+}
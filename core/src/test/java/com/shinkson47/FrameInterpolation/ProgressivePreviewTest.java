@@ -0,0 +1,92 @@
+package com.shinkson47.FrameInterpolation;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Previews must never wait on proxies, and refinements must match a full resolution blend.
+ *
+ * @version 1
+ * @author <a href="https://www.shinkson47.in">Jordan T. Gray</a>
+ */
+class ProgressivePreviewTest {
+
+    private static final double[] POINTS = {0.25, 0.5, 0.75};
+
+    @Test
+    void previewWaitsForProxiesThenRefines() throws InterruptedException {
+        FrameBuffer frames = InterframeCacheTest.randomFrames(2, 256, 128);
+        BlockingQueue<Runnable> displayThread = new LinkedBlockingQueue<>();
+        BlockingQueue<Shown> shown = new LinkedBlockingQueue<>();
+
+        try (ProgressivePreview preview = new ProgressivePreview(displayThread::add, (images, refined, nanos) -> shown.add(new Shown(images, refined)), 1 << 12, 0)) {
+            preview.setFrames(frames.getFrame(0), frames.getFrame(1));
+            preview.request(POINTS);
+            assertTrue(shown.isEmpty(), "Nothing to show until proxies are built");
+
+            next(displayThread).run();                                                                                  // Proxies are ready; previews the request.
+            Shown first = shown.poll();
+            assertNotNull(first);
+            assertFalse(first.refined);
+            assertEquals(POINTS.length, first.frames.length);
+            assertTrue((long) first.frames[0].getWidth() * first.frames[0].getHeight() <= 1 << 12);
+
+            next(displayThread).run();
+            Shown refined = shown.poll();
+            assertNotNull(refined);
+            assertTrue(refined.refined);
+            BufferedImage[] expected = LinearImageInterpolator.InterpolateImage(frames.getFrame(0), frames.getFrame(1), POINTS);
+            for (int i = 0; i < POINTS.length; i++)
+                assertArrayEquals(PackedRaster.pixels(expected[i]), refined.pixels[i], "Point " + i);
+        }
+    }
+
+    @Test
+    void cancelledBlendIsAbandoned() {
+        FrameBuffer frames = InterframeCacheTest.randomFrames(2, 64, 48);
+        PackedRaster pre = new PackedRaster(frames.getFrame(0)), post = new PackedRaster(frames.getFrame(1));
+        FramePool pool = new FramePool();
+
+        assertNull(LinearImageInterpolator.InterpolateImage(pre, post, POINTS, pool, () -> true));
+
+        BufferedImage[] expected = LinearImageInterpolator.InterpolateImage(pre, post, POINTS, null);
+        BufferedImage[] actual = LinearImageInterpolator.InterpolateImage(pre, post, POINTS, pool, () -> false);
+        for (int i = 0; i < POINTS.length; i++)
+            assertArrayEquals(PackedRaster.pixels(expected[i]), PackedRaster.pixels(actual[i]), "Point " + i);
+    }
+
+    private static Runnable next(BlockingQueue<Runnable> displayThread) throws InterruptedException {
+        Runnable next = displayThread.poll(10, TimeUnit.SECONDS);
+        assertNotNull(next, "Nothing was sent to the display thread");
+        return next;
+    }
+
+    /**
+     * Copy of a call to the display, as its frames are only valid during the call.
+     */
+    private static final class Shown {
+
+        final BufferedImage[] frames;
+        final int[][] pixels;
+        final boolean refined;
+
+        Shown(BufferedImage[] frames, boolean refined) {
+            this.frames = frames.clone();
+            this.refined = refined;
+            pixels = new int[frames.length][];
+            for (int i = 0; i < frames.length; i++)
+                pixels[i] = PackedRaster.pixels(frames[i]).clone();
+        }
+    }
+}
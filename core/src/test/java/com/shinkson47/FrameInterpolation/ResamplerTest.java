@@ -0,0 +1,80 @@
+package com.shinkson47.FrameInterpolation;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Scaling must keep flat areas flat, average the area each pixel covers, and never bleed colour out of transparency.
+ *
+ * @version 1
+ * @author <a href="https://www.shinkson47.in">Jordan T. Gray</a>
+ */
+class ResamplerTest {
+
+    private static final int[][] SIZES = {{37, 23}, {12, 7}, {1, 1}, {74, 46}, {100, 9}, {5, 60}};
+
+    @Test
+    void flatFieldsStayFlat() {
+        for (int[] size : SIZES) {
+            assertFlat(0x3A7FC2, flat(BufferedImage.TYPE_INT_RGB, 0x3A7FC2), size[0], size[1]);
+            assertFlat(0x80123456, flat(BufferedImage.TYPE_INT_ARGB, 0x80123456), size[0], size[1]);
+        }
+    }
+
+    @Test
+    void reductionsAverageTheAreaCovered() {
+        BufferedImage halved = Resampler.resample(row(BufferedImage.TYPE_INT_RGB, 0, 200, 0, 200, 10, 30), 3, 1);
+        assertEquals(0xFF000064, halved.getRGB(0, 0));
+        assertEquals(0xFF000064, halved.getRGB(1, 0));
+        assertEquals(0xFF000014, halved.getRGB(2, 0));
+
+        BufferedImage thirded = Resampler.resample(row(BufferedImage.TYPE_INT_RGB, 30, 60, 90), 1, 1);
+        assertEquals(0xFF00003C, thirded.getRGB(0, 0));
+    }
+
+    @Test
+    void transparentPixelsDoNotBleed() {
+        BufferedImage source = new BufferedImage(2, 2, BufferedImage.TYPE_INT_ARGB);
+        source.setRGB(0, 0, 0x00FF0000);                                                                                // Transparent red,
+        source.setRGB(1, 0, 0xFF0000FF);                                                                                // beside opaque blue.
+        source.setRGB(0, 1, 0x00FF0000);
+        source.setRGB(1, 1, 0xFF0000FF);
+
+        assertEquals(0x800000FF, Resampler.resample(source, 1, 1).getRGB(0, 0));
+
+        BufferedImage enlarged = Resampler.resample(source, 8, 2);
+        for (int x = 0; x < 8; x++)
+            if (enlarged.getRGB(x, 0) >>> 24 != 0)                                                                      // Only alpha fades; what is visible is blue throughout.
+                assertEquals(0x0000FF, enlarged.getRGB(x, 0) & 0xFFFFFF, "Pixel " + x);
+        assertEquals(0xFF0000FF, enlarged.getRGB(7, 0));
+    }
+
+    private static void assertFlat(int expected, BufferedImage source, int width, int height) {
+        BufferedImage scaled = Resampler.resample(source, width, height);
+        int mask = source.getColorModel().hasAlpha() ? 0xFFFFFFFF : 0xFFFFFF;
+        for (int y = 0; y < height; y++)
+            for (int x = 0; x < width; x++)
+                assertEquals(expected, scaled.getRGB(x, y) & mask, width + "x" + height + ", pixel " + x + ", " + y);
+    }
+
+    private static BufferedImage flat(int type, int argb) {
+        BufferedImage image = new BufferedImage(37, 23, type);
+        for (int y = 0; y < image.getHeight(); y++)
+            for (int x = 0; x < image.getWidth(); x++)
+                image.setRGB(x, y, argb);
+        return image;
+    }
+
+    /**
+     * @return A single row of opaque pixels, of blue values only.
+     */
+    private static BufferedImage row(int type, int... blue) {
+        BufferedImage image = new BufferedImage(blue.length, 1, type);
+        for (int x = 0; x < blue.length; x++)
+            image.setRGB(x, 0, 0xFF000000 | blue[x]);
+        return image;
+    }
+}
@@ -0,0 +1,82 @@
+package com.shinkson47.FrameInterpolation.qoi;
+
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Images encoded by {@link QOI} must decode unchanged, whichever chunks they are encoded with.
+ *
+ * @version 1
+ * @author <a href="https://www.shinkson47.in">Jordan T. Gray</a>
+ */
+class QOITest {
+
+    private static final int WIDTH = 61, HEIGHT = 37;
+
+    @Test
+    void rgbRoundTrips() throws IOException {
+        BufferedImage image = noise(BufferedImage.TYPE_INT_RGB);
+        BufferedImage decoded = QOI.decode(QOI.encode(image));
+
+        assertEquals(BufferedImage.TYPE_INT_RGB, decoded.getType());
+        assertSamePixels(image, decoded);
+    }
+
+    @Test
+    void rgbaRoundTrips() throws IOException {
+        BufferedImage image = noise(BufferedImage.TYPE_INT_ARGB);
+        BufferedImage decoded = QOI.decode(QOI.encode(image));
+
+        assertEquals(BufferedImage.TYPE_INT_ARGB, decoded.getType());
+        assertSamePixels(image, decoded);
+    }
+
+    @Test
+    void runsAndSmallDifferencesRoundTrip() throws IOException {
+        BufferedImage image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_ARGB);
+        for (int y = 0; y < HEIGHT; y++)
+            for (int x = 0; x < WIDTH; x++)
+                image.setRGB(x, y, y < HEIGHT / 2 ? 0xFF102030                                                         // Runs longer than a single run chunk,
+                                                  : 0x80000000 | (x & 3) << 16 | (x % 20) << 8 | y);                   // then small steps, and repeats of recent pixels.
+
+        byte[] encoded = QOI.encode(image);
+        assertTrue(encoded.length < WIDTH * HEIGHT, "Runs and differences should encode in under a byte per pixel");
+        assertSamePixels(image, QOI.decode(encoded));
+    }
+
+    @Test
+    void imageIORoundTrips() throws IOException {
+        QOI.register();
+        BufferedImage image = noise(BufferedImage.TYPE_INT_RGB);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertTrue(ImageIO.write(image, QOI.FORMAT, out));
+        assertSamePixels(image, ImageIO.read(new ByteArrayInputStream(out.toByteArray())));
+    }
+
+    private static void assertSamePixels(BufferedImage expected, BufferedImage actual) {
+        assertEquals(expected.getWidth(), actual.getWidth());
+        assertEquals(expected.getHeight(), actual.getHeight());
+        for (int y = 0; y < expected.getHeight(); y++)
+            for (int x = 0; x < expected.getWidth(); x++)
+                assertEquals(expected.getRGB(x, y), actual.getRGB(x, y), "Pixel " + x + ", " + y);
+    }
+
+    private static BufferedImage noise(int type) {
+        Random random = new Random(12);
+        BufferedImage image = new BufferedImage(WIDTH, HEIGHT, type);
+        for (int y = 0; y < HEIGHT; y++)
+            for (int x = 0; x < WIDTH; x++)
+                image.setRGB(x, y, random.nextInt());
+        return image;
+    }
+}
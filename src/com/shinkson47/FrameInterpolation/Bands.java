@@ -0,0 +1,109 @@
+package com.shinkson47.FrameInterpolation;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Runs work over a range of rows, split in half across a pool if there is enough of it, until each band is small enough
+ * to run on a single thread. The pool is that bound to the calling thread by {@link #bind(ForkJoinPool, Runnable)},
+ * if any, otherwise {@link LinearImageInterpolator#getPool()}.
+ *
+ * @version 1
+ * @author <a href="https://www.shinkson47.in">Jordan T. Gray</a>
+ */
+final class Bands {
+
+    /**
+     * Work over a range of rows.
+     */
+    interface Band {
+
+        /**
+         * @param from first row, inclusive.
+         * @param to last row, exclusive.
+         */
+        void run(int from, int to);
+    }
+
+    /**
+     * Smallest band of pixels given to a single fork join task.
+     */
+    static final int MIN_BAND_PIXELS = 1 << 14;
+
+    /**
+     * Number of bands to aim for per thread of the pool, so that uneven threads can steal work.
+     */
+    static final int BANDS_PER_THREAD = 4;
+
+    /**
+     * Pool bands of the current thread are run on, in place of {@link LinearImageInterpolator#getPool()}, if not <i>null</i>
+     */
+    private static final ThreadLocal<ForkJoinPool> POOL = new ThreadLocal<>();
+
+    private Bands() {}
+
+    /**
+     * @param pool pool to run every band on, whilst <i>task</i> runs.
+     * @param task work to run, such as the body of a worker thread.
+     * @return <i>task</i>, running its bands on <i>pool</i> rather than the global pool, on whichever thread runs it.
+     */
+    static Runnable bind(ForkJoinPool pool, Runnable task) {
+        return () -> {
+            ForkJoinPool previous = POOL.get();
+            POOL.set(pool);
+            try {
+                task.run();
+            } finally {
+                POOL.set(previous);
+            }
+        };
+    }
+
+    /**
+     * Runs a band over every row, on the calling thread if there are fewer than
+     * {@link LinearImageInterpolator#getParallelThreshold()} pixels of work.
+     *
+     * @param rows number of rows.
+     * @param pixels pixels of work in total.
+     * @param band work to run. Must be safe to run on several threads at once, over distinct rows.
+     */
+    static void run(int rows, long pixels, Band band) {
+        if (pixels < LinearImageInterpolator.getParallelThreshold() || rows < 2) {
+            band.run(0, rows);
+            return;
+        }
+
+        ForkJoinPool bound = POOL.get(), target = bound != null ? bound : LinearImageInterpolator.getPool();
+        long minRows = Math.max((long) MIN_BAND_PIXELS * rows / Math.max(1, pixels),                                    // Bands no smaller than a few L2 lines of work,
+                                rows / (target.getParallelism() * BANDS_PER_THREAD));                                   // but enough of them for every thread to steal from.
+        target.invoke(new Task(band, 0, rows, (int) Math.max(1, minRows)));
+    }
+
+    /**
+     * Splits a {@link Band} in half until each is small enough to run on a single thread.
+     */
+    @SuppressWarnings("serial")                                                                                         // Never serialised; only ever forked.
+    private static final class Task extends RecursiveAction {
+
+        private final Band band;
+        private final int from, to, minRows;
+
+        Task(Band band, int from, int to, int minRows) {
+            this.band = band;
+            this.from = from;
+            this.to = to;
+            this.minRows = minRows;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= minRows) {
+                band.run(from, to);
+                return;
+            }
+
+            int middle = (from + to) >>> 1;
+            invokeAll(new Task(band, from, middle, minRows), new Task(band, middle, to, minRows));
+        }
+    }
+}
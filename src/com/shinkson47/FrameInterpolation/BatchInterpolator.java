@@ -0,0 +1,118 @@
+package com.shinkson47.FrameInterpolation;
+
+import java.io.File;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Command line entry point, interpolating a folder of frames into another without JavaFX, or a display.
+ *
+ * <pre>
+ * java -cp ... com.shinkson47.FrameInterpolation.BatchInterpolator &lt;input dir&gt; &lt;output dir&gt; &lt;exponent&gt; [threads] [format] [resolution]
+ * </pre>
+ *
+ * Frames are decoded lazily, interpolated by an {@link InterpolationPipeline}, and written by a {@link FrameExporter}
+ * as they are produced, so only a bounded window of the sequence is ever held in memory.
+ *
+ * @version 1
+ * @author <a href="https://www.shinkson47.in">Jordan T. Gray</a>
+ */
+public final class BatchInterpolator {
+
+    private static final String USAGE =
+            "Usage: BatchInterpolator <input dir> <output dir> <exponent> [threads] [format] [resolution]\n" +
+            "  input dir   folder of frames, in natural filename order.\n" +
+            "  output dir  folder to write interpolated frames to. Created if missing.\n" +
+            "  exponent    number of steps between each pair of frames, at least 1.\n" +
+            "  threads     number of pairs to interpolate, frames to encode, and threads to blend each frame across. Defaults to one per processor.\n" +
+            "  format      ImageIO format name of the output frames, such as png or qoi. Defaults to png.\n" +
+            "  resolution  WIDTHxHEIGHT to resample every frame to, such as 1280x720. Defaults to that of the first frame.";
+
+    private BatchInterpolator() {}
+
+    /**
+     * @param args <i>input dir, output dir, exponent, [threads], [format], [resolution]</i>
+     */
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");                                                               // Before anything touches AWT.
+
+        if (args.length < 3 || args.length > 6) {
+            System.err.println(USAGE);
+            System.exit(2);
+        }
+
+        File input = new File(args[0]);
+        File output = new File(args[1]);
+        int exponent, threads, width = 0, height = 0;
+        try {
+            exponent = Integer.parseInt(args[2]);
+            threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+            if (exponent < 1 || threads < 1) throw new NumberFormatException(args[2]);
+            if (args.length > 5) {
+                String[] resolution = args[5].toLowerCase().split("x", 2);
+                width = Integer.parseInt(resolution[0]);
+                height = resolution.length > 1 ? Integer.parseInt(resolution[1]) : 0;
+                if (width < 1 || height < 1) throw new NumberFormatException(args[5]);
+            }
+        } catch (NumberFormatException e) {
+            System.err.println("Exponent and threads must be positive whole numbers, and resolution WIDTHxHEIGHT.\n" + USAGE);
+            System.exit(2);
+            return;
+        }
+        String format = args.length > 4 ? args[4] : "png";
+
+        if (!output.isDirectory() && !output.mkdirs()) {
+            System.err.println("Could not create output folder " + output);
+            System.exit(1);
+        }
+
+        try {
+            long start = System.nanoTime();
+            int frames = run(input, output, exponent, threads, format, width, height);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("Wrote %d frames to %s in %.2fs (%.1f fps)%n", frames, output, seconds, frames / seconds);
+        } catch (Exception e) {
+            System.err.print("Interpolation failed: ");
+            e.printStackTrace();                                                                                        // The message alone is often null, or names only a file.
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Interpolates every pair of frames in a folder, writing the output sequence to another.
+     *
+     * @param input folder of frames, see {@link FrameBuffer#validateImport(File)}
+     * @param output existing folder to write frames to.
+     * @param exponent number of steps between each pair of frames.
+     * @param threads number of pairs to interpolate, frames to encode, and threads to blend each frame across, concurrently.
+     * @param format ImageIO informal format name of the output frames.
+     * @return Number of frames written.
+     * @throws IllegalStateException if the input is not a valid import.
+     * @throws IllegalArgumentException if no writer is registered for <i>format</i>, or <i>threads</i> is less than 1.
+     */
+    public static int run(File input, File output, int exponent, int threads, String format) throws Exception {
+        return run(input, output, exponent, threads, format, 0, 0);
+    }
+
+    /**
+     * Interpolates every pair of frames in a folder at a given resolution, writing the output sequence to another.
+     *
+     * @param width width to resample every frame to, or <i>0</i> for that of the first frame.
+     * @param height height to resample every frame to, or <i>0</i> for that of the first frame.
+     * @see #run(File, File, int, int, String)
+     */
+    public static int run(File input, File output, int exponent, int threads, String format, int width, int height) throws Exception {
+        ForkJoinPool blending = new ForkJoinPool(threads);                                                             // Bound the blend of each frame, not just the pairs in flight.
+
+        FrameExporter exporter = null;
+        try (LazyFrameBuffer frames = width > 0 ? new LazyFrameBuffer(input, Runtime.getRuntime().maxMemory() / 4, LazyFrameBuffer.DEFAULT_READ_AHEAD, width, height)
+                                                : new LazyFrameBuffer(input);
+             InterpolationPipeline pipeline = new InterpolationPipeline(threads, threads * InterpolationPipeline.PAIRS_PER_WORKER, null, false, blending);
+             FrameExporter export = new FrameExporter(output, format, FrameExporter.LEVEL_FAST, threads, null)) {
+            exporter = export;
+            pipeline.run(frames, exponent, export);
+        } finally {
+            blending.shutdown();
+        }
+        return exporter.getFramesWritten();                                                                             // Closed, so every frame has reached the disk.
+    }
+}
@@ -1,22 +1,102 @@
 package com.shinkson47.FrameInterpolation;
 
+import com.shinkson47.FrameInterpolation.qoi.QOI;
+
 import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Dimension;
 import java.awt.image.BufferedImage;
 import java.io.*;
 import java.nio.ByteBuffer;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
- * TODO CHECK RESOLUTIONS
-        EXTEND ARRAYLIST
+ * Every frame of a buffer is normalised to a single resolution as it is imported, so that any pair may be interpolated.
+ * That is either a target resolution chosen when the buffer is created, such as to reduce large sources before
+ * blending, or otherwise the resolution of the first frame. Frames of any other resolution are resampled to it,
+ * see {@link Resampler}.
+ *
+ * TODO EXTEND ARRAYLIST
  */
 public class FrameBuffer {
 
-    protected ArrayList<BufferedImage> frameBuffer = new ArrayList<BufferedImage>();
+    protected ArrayList<BufferedImage> frameBuffer = new ArrayList<BufferedImage>();                                   // One entry per frame; identical frames share a single image.
+
+    /**
+     * Frames of distinct content, each stored once, and the number of frames that refer to each.
+     */
+    private final ArrayList<BufferedImage> distinct = new ArrayList<>();
+    private final ArrayList<Integer> references = new ArrayList<>();
+
+    /**
+     * Index within {@link #distinct} of the content of each frame.
+     */
+    private final ArrayList<Integer> distinctIndex = new ArrayList<>();
+
+    /**
+     * Indices within {@link #distinct} of the frames with each content hash; more than one only on a collision.
+     */
+    private final HashMap<Long, ArrayList<Integer>> byHash = new HashMap<>();
+
+    /**
+     * Resolution chosen when the buffer was created, or 0 to take the resolution of the first frame.
+     */
+    protected int targetWidth, targetHeight;
+
+    /**
+     * Resolution every frame is normalised to; 0 until it is known.
+     */
+    protected int width, height;
+
+    /**
+     * A run of consecutive frames with identical content, such as a held shot, or a frame repeated by frame rate conversion.
+     */
+    public static final class DuplicateRun {
+
+        /**
+         * Index of the first frame of the run.
+         */
+        public final int first;
+
+        /**
+         * Number of frames in the run; at least 2.
+         */
+        public final int length;
+
+        DuplicateRun(int first, int length) {
+            this.first = first;
+            this.length = length;
+        }
+
+        @Override
+        public String toString() {
+            return "frames " + first + " - " + (first + length - 1);
+        }
+    }
 
     public static final byte MIN_VALID_IMAGES = 2;
 
+    /**
+     * Number of images decoded concurrently during an import.
+     */
+    public static final int IMPORT_THREADS = Runtime.getRuntime().availableProcessors();
+
+    static {
+        QOI.register();                                                                                                 // Frames may be imported from QOI, as well as any format ImageIO supports.
+    }
+
     public FrameBuffer(Path directory) throws IllegalStateException {
         this(new File(directory.toString()));
     }
@@ -29,6 +109,25 @@ public class FrameBuffer {
         if (!validateImport(directory)) invalidState();
     }
 
+    /**
+     * Imports a folder of frames, resampling every frame to a target resolution.
+     *
+     * @param directory Folder containing images to import.
+     * @param width width to resample every frame to.
+     * @param height height to resample every frame to.
+     * @throws IllegalStateException if the folder is not a valid import, see {@link #validateImport(File)}
+     * @throws IllegalArgumentException if <i>width</i> or <i>height</i> is less than 1.
+     */
+    public FrameBuffer(File directory, int width, int height) throws IllegalStateException {
+        setTargetResolution(width, height);
+        if (!validateImport(directory)) invalidState();
+    }
+
+    /**
+     * Creates an empty buffer, for subclasses that store or import frames differently.
+     */
+    protected FrameBuffer() {}
+
     public FrameBuffer(BufferedImage[] buffer) {
         if(buffer.length < 2) invalidState();
 
@@ -37,13 +136,47 @@ public class FrameBuffer {
         }
     }
 
+    /**
+     * Buffers frames, resampling every frame to a target resolution.
+     *
+     * @param buffer frames, in order.
+     * @param width width to resample every frame to.
+     * @param height height to resample every frame to.
+     * @throws IllegalArgumentException if <i>width</i> or <i>height</i> is less than 1.
+     */
+    public FrameBuffer(BufferedImage[] buffer, int width, int height) {
+        setTargetResolution(width, height);
+        if(buffer.length < 2) invalidState();
+
+        for (BufferedImage image : buffer){
+            add(image);
+        }
+    }
+
     private void invalidState() {
-        throw new IllegalStateException("Invalid folder structure passed. Must only contain images of the same resolution.");
+        throw new IllegalStateException("Invalid folder structure passed. Must contain at least two images, and no sub-folders.");
+    }
+
+    /**
+     * Chooses the resolution every frame is resampled to, before any frame is imported.
+     *
+     * @throws IllegalArgumentException if <i>width</i> or <i>height</i> is less than 1.
+     */
+    protected void setTargetResolution(int width, int height) {
+        if (width < 1 || height < 1) throw new IllegalArgumentException("Cannot resample frames to " + width + "x" + height + ".");
+        targetWidth = this.width = width;
+        targetHeight = this.height = height;
     }
 
     /**
      * Imports a folder containing video frames of the same resolution.
      *
+     * Images are decoded concurrently, on up to {@link #IMPORT_THREADS} threads, and buffered in natural order of their names.
+     * The first image that fails to read cancels every other outstanding decode.
+     *
+     * Each image is resampled to the target resolution, if there is one, and content hashed as it is decoded. Frames identical to one already imported are not stored again,
+     * but refer to the earlier frame's image, see {@link #getDuplicateRuns()}.
+     *
      * @implNote SIDE EFFECT: Clears frame buffer before importing.
      * @param directory Folder containing images to import.
      * @return <i>false</i> if directory is contains less than two children,
@@ -52,25 +185,144 @@ public class FrameBuffer {
      */
     public boolean validateImport(File directory) {
         frameBuffer.clear();
-        if (!directory.isDirectory() ||
-            directory.listFiles().length < MIN_VALID_IMAGES) return false;                                              // Directory passed is not a directory, or does not have enough files.
+        distinct.clear();
+        references.clear();
+        distinctIndex.clear();
+        byHash.clear();
+        width = targetWidth;
+        height = targetHeight;
+        File[] files = listImport(directory);
+        if (files == null) return false;
+
+        BufferedImage[] decoded = new BufferedImage[files.length];
+        long[] hashes = new long[files.length];
+        ExecutorService decoders = Executors.newFixedThreadPool(Math.min(IMPORT_THREADS, files.length));
+        CompletionService<Integer> completion = new ExecutorCompletionService<>(decoders);
+
+        try {
+            for (int i = 0; i < files.length; i++) {
+                final int index = i;
+                completion.submit(() -> {
+                    decoded[index] = ImageIO.read(files[index]);                                                       // Read next image, into its place in the sequence.
+                    if (decoded[index] != null && targetWidth > 0)
+                        decoded[index] = Resampler.fit(decoded[index], targetWidth, targetHeight);                      // Resampled in parallel, where the target is known up front.
+                    if (decoded[index] != null) hashes[index] = new PackedRaster(decoded[index]).contentHash();        // Hashed whilst it is still in cache.
+                    return index;
+                });
+            }
 
-        for (File file: directory.listFiles())
-            if (file.isDirectory())
-                return false;                                                                                           // Folder contains a sub-folder.
-            else
+            for (int i = 0; i < files.length; i++) {
+                Future<Integer> done = completion.take();                                                               // In order of completion, so the first failure is seen first.
                 try {
-                  add(ImageIO.read(file));                                                                              // Read next images, and append to buffer
-                } catch (IOException e){
-                  return false;                                                                                         // Folder contains items that're not valid images OR failed to read images.
+                    done.get();
+                } catch (ExecutionException e) {
+                    return false;                                                                                       // Folder contains items that're not valid images OR failed to read images.
                 }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            decoders.shutdownNow();                                                                                     // Cancels outstanding decodes, if any failed.
+        }
+
+        for (int i = 0; i < decoded.length; i++)
+            add(decoded[i], hashes[i]);                                                                                 // Append to buffer, in order; non-images are skipped.
 
         if (frameBuffer.size() < MIN_VALID_IMAGES) return false;                                                        // Not Enough images for comparable.
         return true;
     }
 
+    /**
+     * Lists the files of a folder that is to be imported.
+     *
+     * @param directory Folder containing images to import.
+     * @return The files within <i>directory</i> in natural order of their names, see {@link NaturalOrderComparator},
+     *         or <i>null</i> if it is not a directory, contains less than two children, or contains a sub-folder.
+     */
+    protected static File[] listImport(File directory) {
+        File[] files = directory.listFiles();
+        if (files == null || files.length < MIN_VALID_IMAGES) return null;                                              // Directory passed is not a directory, or does not have enough files.
+
+        for (File file : files)
+            if (file.isDirectory()) return null;                                                                        // Folder contains a sub-folder.
+
+        Arrays.sort(files, NaturalOrderComparator.INSTANCE);                                                            // listFiles() order differs between platforms.
+        return files;
+    }
+
+    /**
+     * Determines whether ImageIO is able to decode a file, by reading only its header.
+     *
+     * @param file file to test.
+     * @return <i>true</i> if a registered ImageIO reader recognises the file.
+     * @throws IOException if the file cannot be read.
+     */
+    protected static boolean isImage(File file) throws IOException {
+        try (ImageInputStream stream = ImageIO.createImageInputStream(file)) {
+            return stream != null && ImageIO.getImageReaders(stream).hasNext();
+        }
+    }
+
+    /**
+     * Reads the resolution of an image from its header, without decoding it.
+     *
+     * @param file image to measure.
+     * @return Width and height of the first image in the file.
+     * @throws IOException if the file cannot be read, or no registered ImageIO reader recognises it.
+     */
+    protected static Dimension readResolution(File file) throws IOException {
+        try (ImageInputStream stream = ImageIO.createImageInputStream(file)) {
+            Iterator<ImageReader> readers = stream == null ? null : ImageIO.getImageReaders(stream);
+            if (readers == null || !readers.hasNext()) throw new IOException("Not a readable image: " + file);
+
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(stream, true, true);
+                return new Dimension(reader.getWidth(0), reader.getHeight(0));
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
     private void add(BufferedImage toAdd) {
         if(toAdd == null) return;
+        add(toAdd, new PackedRaster(toAdd).contentHash());
+    }
+
+    /**
+     * Appends a frame, storing it only if no frame of identical content has been stored already.
+     * The first frame sets the resolution, if there is no target; any other frame of a different resolution is resampled.
+     *
+     * @param toAdd frame to append, or <i>null</i> to skip.
+     * @param hash {@link PackedRaster#contentHash()} of the frame.
+     */
+    private void add(BufferedImage toAdd, long hash) {
+        if(toAdd == null) return;
+
+        if (width == 0) {
+            width = toAdd.getWidth();
+            height = toAdd.getHeight();
+        } else if (toAdd.getWidth() != width || toAdd.getHeight() != height) {
+            toAdd = Resampler.resample(toAdd, width, height);
+            hash = new PackedRaster(toAdd).contentHash();
+        }
+
+        ArrayList<Integer> candidates = byHash.computeIfAbsent(hash, key -> new ArrayList<>(1));
+        PackedRaster raster = new PackedRaster(toAdd);
+        for (int candidate : candidates)
+            if (new PackedRaster(distinct.get(candidate)).sameContent(raster)) {                                       // Confirmed pixel for pixel; never assumed from the hash.
+                references.set(candidate, references.get(candidate) + 1);
+                distinctIndex.add(candidate);
+                frameBuffer.add(distinct.get(candidate));
+                return;
+            }
+
+        candidates.add(distinct.size());
+        distinctIndex.add(distinct.size());
+        distinct.add(toAdd);
+        references.add(1);
         frameBuffer.add(toAdd);
     }
 
@@ -83,6 +335,80 @@ public class FrameBuffer {
         return frameBuffer.size();
     }
 
+    /**
+     * @return Width of every frame, or 0 if no frame has been imported.
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * @return Height of every frame, or 0 if no frame has been imported.
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * @param i index of a frame.
+     * @param j index of another frame.
+     * @return <i>true</i> if both frames have identical content, so that every blend between them is the same frame.
+     *         Buffers that do not track content, such as subclasses that store frames elsewhere, only report
+     *         a frame as a duplicate of itself.
+     */
+    public boolean isDuplicate(int i, int j) {
+        if (i == j) return true;
+        if (distinctIndex.size() != getBufferLength()) return false;                                                   // Content is not tracked.
+        return distinctIndex.get(i).equals(distinctIndex.get(j));
+    }
+
+    /**
+     * @return Number of frames of distinct content, each of which is stored once.
+     */
+    public int getDistinctFrameCount() {
+        return distinctIndex.size() == getBufferLength() ? distinct.size() : getBufferLength();
+    }
+
+    /**
+     * @param i index of a frame.
+     * @return Number of frames, including <i>i</i>, that share frame <i>i</i>'s content and storage.
+     */
+    public int getReferenceCount(int i) {
+        if (distinctIndex.size() != getBufferLength()) return 1;
+        return references.get(distinctIndex.get(i));
+    }
+
+    /**
+     * Finds every run of consecutive frames with identical content.
+     *
+     * The interpolation between each pair within a run is the same frame at every point,
+     * so it is copied rather than blended, see {@link InterpolationPipeline#run(FrameBuffer, int, FrameSink)}
+     *
+     * @return Runs of at least two identical frames, in order.
+     */
+    public List<DuplicateRun> getDuplicateRuns() {
+        ArrayList<DuplicateRun> runs = new ArrayList<>();
+        for (int first = 0, next; first < getBufferLength(); first = next) {
+            next = first + 1;
+            while (next < getBufferLength() && isDuplicate(next - 1, next))
+                next++;
+
+            if (next - first > 1) runs.add(new DuplicateRun(first, next - first));
+        }
+        return runs;
+    }
+
+    /**
+     * Provides a frame as a packed raster, for the interpolation kernels.
+     * Subclasses that do not store frames as BufferedImages may serve their own storage directly.
+     *
+     * @param i index of the frame.
+     * @return Row-wise view of the frame.
+     */
+    PackedRaster getRaster(int i) {
+        return new PackedRaster(getFrame(i));
+    }
+
     public ArrayList<BufferedImage> getFrameBuffer(){
         ArrayList<BufferedImage> i = new ArrayList<BufferedImage>();
         i.addAll(frameBuffer);
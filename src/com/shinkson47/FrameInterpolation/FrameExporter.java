@@ -0,0 +1,282 @@
+package com.shinkson47.FrameInterpolation;
+
+import com.shinkson47.FrameInterpolation.qoi.QOI;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.CompletionHandler;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Encodes and writes frames to a folder of image files, in parallel.
+ *
+ * Each accepted frame is encoded on one of a pool of worker threads, then written through an asynchronous file channel,
+ * so neither encoding nor writing block the thread supplying frames. As a {@link FrameSink}, this may be the output of an
+ * {@link InterpolationPipeline}, overlapping export with interpolation. A bounded number of frames may be waiting to
+ * be encoded; beyond that, {@link #accept(int, BufferedImage)} blocks, so frames never pile up on the heap.
+ *
+ * Frames are named <i>directory_index.format</i>, as the demo has always named them.
+ * For intermediate frames, format {@value com.shinkson47.FrameInterpolation.qoi.QOI#FORMAT} is lossless, and far faster than PNG.
+ *
+ * @version 1
+ * @author <a href="https://www.shinkson47.in">Jordan T. Gray</a>
+ */
+public class FrameExporter implements FrameSink, AutoCloseable {
+
+    /**
+     * Compression level that stores PNG data without deflating it. Fastest, and largest.
+     */
+    public static final int LEVEL_STORE = 0;
+
+    /**
+     * Compression level that deflates PNG data as quickly as possible.
+     */
+    public static final int LEVEL_FAST = 1;
+
+    /**
+     * Compression level used by ImageIO when none is specified.
+     */
+    public static final int LEVEL_DEFAULT = -1;
+
+    /**
+     * Notified after each frame has been written to disk.
+     */
+    @FunctionalInterface
+    public interface ProgressListener {
+
+        /**
+         * @param framesWritten number of frames written so far.
+         * @param framesPerSecond average export throughput since the first frame was accepted.
+         */
+        void progress(int framesWritten, double framesPerSecond);
+    }
+
+    static {
+        QOI.register();                                                                                                 // Frames may be exported as QOI, as well as any format ImageIO supports.
+    }
+
+    private final File directory;
+    private final String format;
+    private final int level;
+    private final ProgressListener listener;
+
+    private final ExecutorService encoders;
+    private final Semaphore capacity;
+    private final int maxQueued;
+    private final AtomicInteger written = new AtomicInteger();
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+    private volatile long started;
+
+    /**
+     * Creates an exporter writing PNGs with the fastest compression, on one thread per available processor.
+     *
+     * @param directory existing folder to write frames to.
+     */
+    public FrameExporter(File directory) {
+        this(directory, "png", LEVEL_FAST, Runtime.getRuntime().availableProcessors(), null);
+    }
+
+    /**
+     * @param directory existing folder to write frames to.
+     * @param format ImageIO informal format name, such as <i>png</i>
+     * @param level compression level from {@link #LEVEL_STORE} to <i>9</i>, or {@link #LEVEL_DEFAULT}.
+     *              Ignored by formats, and JREs, whose writer does not support explicit compression.
+     * @param threads number of frames to encode concurrently.
+     * @param listener notified as frames are written, or <i>null</i>. Called from worker threads.
+     * @throws IllegalArgumentException if no writer is registered for <i>format</i>, or <i>threads</i> is less than 1.
+     */
+    public FrameExporter(File directory, String format, int level, int threads, ProgressListener listener) {
+        if (!ImageIO.getImageWritersByFormatName(format).hasNext()) throw new IllegalArgumentException("No ImageIO writer for format " + format);
+        if (threads < 1) throw new IllegalArgumentException("An exporter requires at least one thread.");
+
+        this.directory = directory;
+        this.format = format;
+        this.level = level;
+        this.listener = listener;
+
+        maxQueued = threads * 2;
+        capacity = new Semaphore(maxQueued);
+        encoders = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "Frame exporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Queues a frame to be encoded and written, blocking whilst the queue is full.
+     *
+     * @param index position of the frame, used to name its file.
+     * @param frame image to export. Must not be modified until it has been written.
+     * @throws IOException if a previously accepted frame failed to export, or the exporter has been closed.
+     */
+    @Override
+    public void accept(int index, BufferedImage frame) throws IOException {
+        rethrow();
+        if (started == 0) started = System.nanoTime();
+
+        try {
+            capacity.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted whilst waiting to export.", e);
+        }
+
+        try {
+            encoders.execute(() -> {
+                boolean writing = false;
+                try {
+                    write(new File(directory, directory.getName() + "_" + index + "." + format), encode(frame));
+                    writing = true;                                                                                     // The write now releases the permit, once on disk.
+                } catch (IOException | RuntimeException e) {
+                    failure.compareAndSet(null, e);
+                } catch (Error e) {
+                    failure.compareAndSet(null, e);
+                    throw e;
+                } finally {
+                    if (!writing) capacity.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {                                                                        // Closed; the frame will never be encoded.
+            capacity.release();
+            throw new IOException("Cannot export frame " + index + "; the exporter is closed.", e);
+        }
+    }
+
+    /**
+     * Waits for every accepted frame to be written, then stops the worker threads.
+     *
+     * @throws IOException if any frame failed to export.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            capacity.acquire(maxQueued);                                                                                // Every permit back means every frame is written.
+            capacity.release(maxQueued);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted whilst waiting for export to finish.", e);
+        } finally {
+            encoders.shutdown();
+        }
+        rethrow();
+    }
+
+    /**
+     * @return number of frames written so far.
+     */
+    public int getFramesWritten() {
+        return written.get();
+    }
+
+    /**
+     * @return average export throughput, in frames per second, since the first frame was accepted.
+     */
+    public double getFramesPerSecond() {
+        long elapsed = System.nanoTime() - started;
+        return started == 0 || elapsed <= 0 ? 0 : written.get() / (elapsed / 1e9);
+    }
+
+    /**
+     * Encodes a frame in memory, at the configured compression level.
+     */
+    private byte[] encode(BufferedImage frame) throws IOException {
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName(format);
+        ImageWriter writer = writers.next();                                                                            // A new writer per frame; writers are not thread safe.
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        try (ImageOutputStream stream = new MemoryCacheImageOutputStream(bytes)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            if (level != LEVEL_DEFAULT && param.canWriteCompressed()) {
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(1f - Math.max(0, Math.min(9, level)) / 9f);                                 // Deflate level is derived as 9 * (1 - quality).
+            }
+
+            writer.setOutput(stream);
+            writer.write(null, new IIOImage(frame, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Writes an encoded frame asynchronously, releasing its place in the queue once it is on disk.
+     */
+    private void write(File file, byte[] encoded) throws IOException {
+        AsynchronousFileChannel channel = AsynchronousFileChannel.open(file.toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+
+        ByteBuffer buffer = ByteBuffer.wrap(encoded);
+        try {
+            channel.write(buffer, 0, buffer, new CompletionHandler<Integer, ByteBuffer>() {
+                private long position;
+
+                @Override
+                public void completed(Integer count, ByteBuffer remaining) {
+                    position += count;
+                    if (!remaining.hasRemaining()) {
+                        finish(null);
+                        return;
+                    }
+
+                    try {
+                        channel.write(remaining, position, remaining, this);                                            // Short write; continue from where it stopped.
+                    } catch (RuntimeException e) {
+                        finish(e);
+                    }
+                }
+
+                @Override
+                public void failed(Throwable cause, ByteBuffer remaining) {
+                    finish(cause);
+                }
+
+                private void finish(Throwable cause) {
+                    try {
+                        channel.close();
+                    } catch (IOException e) {
+                        if (cause == null) cause = e;
+                    }
+
+                    try {
+                        if (cause != null) failure.compareAndSet(null, cause);
+                        else {
+                            int count = written.incrementAndGet();
+                            if (listener != null) listener.progress(count, getFramesPerSecond());
+                        }
+                    } finally {
+                        capacity.release();
+                    }
+                }
+            });
+        } catch (RuntimeException e) {                                                                                  // Never started; the caller still holds the permit.
+            channel.close();
+            throw e;
+        }
+    }
+
+    private void rethrow() throws IOException {
+        Throwable cause = failure.get();
+        if (cause == null) return;
+        if (cause instanceof IOException) throw (IOException) cause;
+        throw new IOException("Failed to export a frame.", cause);
+    }
+}
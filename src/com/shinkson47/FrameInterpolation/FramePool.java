@@ -0,0 +1,130 @@
+package com.shinkson47.FrameInterpolation;
+
+import java.awt.image.BufferedImage;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+
+/**
+ * Recycles TYPE_INT_RGB frames by resolution, so that repeated interpolation into them allocates no new images.
+ *
+ * Frames are borrowed for a resolution, written with {@link LinearImageInterpolator#interpolateInto}, then released
+ * back once nothing refers to them any longer. Only a bounded number of idle frames are kept per resolution;
+ * anything released beyond that is left to the garbage collector.
+ *
+ * @implNote Thread safe. Borrowing and releasing allocate nothing once a resolution has been seen.
+ * @version 1
+ * @author <a href="https://www.shinkson47.in">Jordan T. Gray</a>
+ */
+public class FramePool {
+
+    /**
+     * Default maximum idle frames kept per resolution.
+     */
+    public static final int DEFAULT_RETAINED = 16;
+
+    /**
+     * Idle frames of a single resolution.
+     */
+    private static final class Bucket {
+        final int width, height;
+        final ArrayDeque<BufferedImage> idle = new ArrayDeque<>();
+
+        Bucket(int width, int height) {
+            this.width = width;
+            this.height = height;
+        }
+    }
+
+    private final ArrayList<Bucket> buckets = new ArrayList<>();                                                        // Few resolutions are ever in use at once; searched linearly.
+    private final int maxRetained;
+    private long allocations, reuses;
+
+    /**
+     * Creates a pool keeping up to {@link #DEFAULT_RETAINED} idle frames per resolution.
+     */
+    public FramePool() {
+        this(DEFAULT_RETAINED);
+    }
+
+    /**
+     * @param maxRetained maximum idle frames kept per resolution.
+     * @throws IllegalArgumentException if <i>maxRetained</i> is negative.
+     */
+    public FramePool(int maxRetained) {
+        if (maxRetained < 0) throw new IllegalArgumentException("Cannot retain a negative number of frames.");
+        this.maxRetained = maxRetained;
+    }
+
+    /**
+     * Takes an idle frame of the given resolution, or creates one if there are none.
+     *
+     * @param width width of the frame.
+     * @param height height of the frame.
+     * @return TYPE_INT_RGB frame, with undefined content.
+     */
+    public synchronized BufferedImage borrow(int width, int height) {
+        BufferedImage frame = bucket(width, height).idle.poll();
+        if (frame != null) {
+            reuses++;
+            return frame;
+        }
+
+        allocations++;
+        return new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+    }
+
+    /**
+     * Returns a frame to the pool. The caller must not use it again.
+     *
+     * @param frame frame to recycle. Ignored if <i>null</i>, not TYPE_INT_RGB, or the pool for its resolution is full.
+     */
+    public synchronized void release(BufferedImage frame) {
+        if (frame == null || frame.getType() != BufferedImage.TYPE_INT_RGB) return;
+
+        ArrayDeque<BufferedImage> idle = bucket(frame.getWidth(), frame.getHeight()).idle;
+        if (idle.size() < maxRetained)
+            idle.push(frame);                                                                                           // Most recently used first, whilst it may still be cached.
+    }
+
+    /**
+     * Returns every frame of an array to the pool.
+     *
+     * @see #release(BufferedImage)
+     */
+    public void release(BufferedImage[] frames) {
+        for (BufferedImage frame : frames)
+            release(frame);
+    }
+
+    /**
+     * Drops every idle frame.
+     */
+    public synchronized void clear() {
+        buckets.clear();
+    }
+
+    /**
+     * @return number of frames the pool has had to create.
+     */
+    public synchronized long getAllocations() {
+        return allocations;
+    }
+
+    /**
+     * @return number of borrows satisfied by an idle frame.
+     */
+    public synchronized long getReuses() {
+        return reuses;
+    }
+
+    private Bucket bucket(int width, int height) {
+        for (int i = 0; i < buckets.size(); i++) {
+            Bucket bucket = buckets.get(i);
+            if (bucket.width == width && bucket.height == height) return bucket;
+        }
+
+        Bucket bucket = new Bucket(width, height);
+        buckets.add(bucket);
+        return bucket;
+    }
+}
@@ -0,0 +1,50 @@
+package com.shinkson47.FrameInterpolation;
+
+/**
+ * Constants of the frame sequence container, a simple file of raw or lightly compressed frames,
+ * intended as a fast intermediate between stages of an interpolation job.
+ *
+ * <pre>
+ * All values are little endian.
+ *
+ * Header, {@value #HEADER_BYTES} bytes:
+ *   0  int   {@value #MAGIC}, "FSEQ"
+ *   4  short {@value #VERSION}
+ *   6  byte  pixel format; {@value #FORMAT_RGB} packed 0x00RRGGBB ints, or {@value #FORMAT_ARGB} packed 0xAARRGGBB ints
+ *   7  byte  compression;  {@value #COMPRESSION_NONE} raw, or {@value #COMPRESSION_DEFLATE} zlib deflate
+ *   8  int   width
+ *   12 int   height
+ *   16 int   frame count
+ *   20 long  offset of the frame index, or 0 if the file was never finished.
+ *   28 int   reserved, 0
+ *
+ * Frames, from offset {@value #HEADER_BYTES}:
+ *   Payloads, back to back, in order. A raw payload is width * height ints, row after row.
+ *   A deflated payload inflates to the same.
+ *
+ * Frame index, at the offset given by the header:
+ *   frame count entries of {@value #INDEX_ENTRY_BYTES} bytes;
+ *     long offset of the payload
+ *     int  length of the payload, in bytes
+ * </pre>
+ *
+ * @see FrameSequenceWriter
+ * @see FrameSequenceReader
+ * @version 1
+ * @author <a href="https://www.shinkson47.in">Jordan T. Gray</a>
+ */
+public final class FrameSequenceFormat {
+
+    public static final int MAGIC = 0x51455346;                                                                         // "FSEQ", as read little endian.
+    public static final short VERSION = 1;
+    public static final int HEADER_BYTES = 32;
+    public static final int INDEX_ENTRY_BYTES = 12;
+
+    public static final byte FORMAT_RGB = 0;
+    public static final byte FORMAT_ARGB = 1;
+
+    public static final byte COMPRESSION_NONE = 0;
+    public static final byte COMPRESSION_DEFLATE = 1;
+
+    private FrameSequenceFormat() {}
+}
@@ -0,0 +1,186 @@
+package com.shinkson47.FrameInterpolation;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import static com.shinkson47.FrameInterpolation.FrameSequenceFormat.*;
+
+/**
+ * Reads a frame sequence container, see {@link FrameSequenceFormat}, as a frame buffer.
+ *
+ * Any frame may be read at any time. Raw frames are memory mapped once, when first requested, and every request after
+ * is a view of that mapping, which the interpolation kernels read in place without copying it onto the heap.
+ * Compressed frames are inflated when requested.
+ *
+ * @implNote Mappings cannot be unmapped explicitly; after {@link #close()}, they are released once they are collected.
+ *
+ * @version 1
+ * @author <a href="https://www.shinkson47.in">Jordan T. Gray</a>
+ */
+public class FrameSequenceReader extends FrameBuffer implements AutoCloseable {
+
+    private final FileChannel channel;
+    private final byte format;
+    private final byte compression;
+    private final long[] offsets;
+    private final int[] lengths;
+    private final IntBuffer[] mapped;                                                                                   // Mapping of each raw frame, once requested.
+
+    /**
+     * Opens a container, reading its header and frame index.
+     *
+     * @param file container to read.
+     * @throws IOException if the file cannot be read, is not a container, was never finished,
+     *                     or its header or index is not valid.
+     */
+    public FrameSequenceReader(File file) throws IOException {
+        channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+
+        try {
+            ByteBuffer header = read(0, HEADER_BYTES);
+            if (header.getInt(0) != MAGIC) throw new IOException("Not a frame sequence: " + file);
+            if (header.getShort(4) != VERSION) throw new IOException("Unsupported frame sequence version " + header.getShort(4));
+
+            format = header.get(6);
+            compression = header.get(7);
+            width = header.getInt(8);
+            height = header.getInt(12);
+            int count = header.getInt(16);
+            long indexOffset = header.getLong(20);
+            if (indexOffset == 0) throw new IOException("Frame sequence was never finished: " + file);
+            if (format != FORMAT_RGB && format != FORMAT_ARGB) throw new IOException("Unknown pixel format " + format);
+            if (compression != COMPRESSION_NONE && compression != COMPRESSION_DEFLATE) throw new IOException("Unknown compression " + compression);
+            if (width < 1 || height < 1 || (long) width * height * 4 > Integer.MAX_VALUE) throw new IOException("Invalid resolution " + width + "x" + height);
+            if (count < 0 || indexOffset < HEADER_BYTES || indexOffset + (long) count * INDEX_ENTRY_BYTES > channel.size())
+                throw new IOException("Invalid frame index in " + file);
+
+            ByteBuffer index = read(indexOffset, count * INDEX_ENTRY_BYTES);
+            offsets = new long[count];
+            lengths = new int[count];
+            mapped = new IntBuffer[count];
+            for (int i = 0; i < count; i++) {
+                offsets[i] = index.getLong();
+                lengths[i] = index.getInt();
+                if (offsets[i] < HEADER_BYTES || lengths[i] < 0 || offsets[i] + lengths[i] > indexOffset
+                    || (compression == COMPRESSION_NONE && lengths[i] != width * height * 4))
+                    throw new IOException("Invalid index entry for frame " + i + " in " + file);
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @throws UncheckedIOException if the frame cannot be read.
+     */
+    @Override
+    public BufferedImage getFrame(int i) {
+        BufferedImage image = new BufferedImage(width, height, format == FORMAT_ARGB ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        pixels(i).get(PackedRaster.pixels(image));
+        return image;
+    }
+
+    @Override
+    PackedRaster getRaster(int i) {
+        return new PackedRaster(pixels(i), width, height, format == FORMAT_ARGB);
+    }
+
+    @Override
+    public int getBufferLength() {
+        return offsets.length;
+    }
+
+    /**
+     * @implNote Reads every frame onto the heap. Prefer {@link #getFrame(int)}
+     */
+    @Override
+    public ArrayList<BufferedImage> getFrameBuffer() {
+        ArrayList<BufferedImage> all = new ArrayList<BufferedImage>(offsets.length);
+        for (int i = 0; i < offsets.length; i++)
+            all.add(getFrame(i));
+
+        return all;
+    }
+
+    /**
+     * @return pixel format of every frame, see {@link FrameSequenceFormat}
+     */
+    public byte getFormat() {
+        return format;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+        synchronized (mapped) {
+            Arrays.fill(mapped, null);
+        }
+    }
+
+    /**
+     * Provides the packed pixels of a frame; mapped if stored raw, otherwise inflated.
+     */
+    private IntBuffer pixels(int i) {
+        try {
+            if (compression == COMPRESSION_NONE)
+                return mapping(i).duplicate();                                                                          // Own position, so that callers never disturb each other.
+
+            Inflater inflater = new Inflater();
+            try {
+                inflater.setInput(read(offsets[i], lengths[i]).array());
+                byte[] raw = new byte[width * height * 4];
+                int inflated = 0;
+                while (inflated < raw.length && !inflater.finished()) {
+                    int count = inflater.inflate(raw, inflated, raw.length - inflated);
+                    if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) break;             // Payload ends early; never any more output.
+                    inflated += count;
+                }
+                if (inflated != raw.length) throw new IOException("Frame " + i + " is truncated.");
+
+                return ByteBuffer.wrap(raw).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+            } finally {
+                inflater.end();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (DataFormatException e) {
+            throw new UncheckedIOException(new IOException("Frame " + i + " is corrupt.", e));
+        }
+    }
+
+    /**
+     * Provides the mapping of a raw frame, mapping it if it has not been already.
+     */
+    private IntBuffer mapping(int i) throws IOException {
+        synchronized (mapped) {
+            if (mapped[i] == null)
+                mapped[i] = channel.map(FileChannel.MapMode.READ_ONLY, offsets[i], lengths[i]).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+            return mapped[i];
+        }
+    }
+
+    /**
+     * Reads a region of the file onto the heap, without moving the channel's position.
+     */
+    private ByteBuffer read(long offset, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+        while (buffer.hasRemaining())
+            if (channel.read(buffer, offset + buffer.position()) < 0)
+                throw new IOException("Unexpected end of frame sequence.");
+
+        buffer.flip();
+        return buffer;
+    }
+}
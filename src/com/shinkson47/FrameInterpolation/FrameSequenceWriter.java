@@ -0,0 +1,176 @@
+package com.shinkson47.FrameInterpolation;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.Deflater;
+
+import static com.shinkson47.FrameInterpolation.FrameSequenceFormat.*;
+
+/**
+ * Appends frames to a frame sequence container, see {@link FrameSequenceFormat}.
+ *
+ * Frames are streamed to disk as they arrive; only the index is held in memory, and written on {@link #close()}.
+ * As a {@link FrameSink}, this may be the output of an {@link InterpolationPipeline}.
+ *
+ * @version 1
+ * @author <a href="https://www.shinkson47.in">Jordan T. Gray</a>
+ */
+public class FrameSequenceWriter implements FrameSink, AutoCloseable {
+
+    private final FileChannel channel;
+    private final int width;
+    private final int height;
+    private final byte format;
+    private final Deflater deflater;
+
+    private final ByteBuffer pixels;                                                                                    // One raw frame, reused for every frame.
+    private byte[] compressed = new byte[0];
+    private final int[] row;
+
+    private long[] offsets = new long[64];
+    private int[] lengths = new int[64];
+    private int count;
+    private long position = HEADER_BYTES;
+
+    /**
+     * Creates, or replaces, a container.
+     *
+     * @param file file to write.
+     * @param width width of every frame.
+     * @param height height of every frame.
+     * @param format {@link FrameSequenceFormat#FORMAT_RGB} or {@link FrameSequenceFormat#FORMAT_ARGB}
+     * @param compressionLevel <i>-1</i> to store frames raw, or a {@link Deflater} level of <i>0 - 9</i>
+     * @throws IOException if the file cannot be created.
+     */
+    public FrameSequenceWriter(File file, int width, int height, byte format, int compressionLevel) throws IOException {
+        if (format != FORMAT_RGB && format != FORMAT_ARGB) throw new IllegalArgumentException("Unknown pixel format " + format);
+        if ((long) width * height * 4 > Integer.MAX_VALUE) throw new IllegalArgumentException("Frames larger than 2GB are not supported.");
+
+        this.width = width;
+        this.height = height;
+        this.format = format;
+        deflater = compressionLevel < 0 ? null : new Deflater(compressionLevel);
+        pixels = ByteBuffer.allocateDirect(width * height * 4).order(ByteOrder.LITTLE_ENDIAN);
+        row = new int[width];
+
+        channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        writeHeader(0);                                                                                                 // Unfinished until closed.
+    }
+
+    /**
+     * Appends the next frame.
+     *
+     * @param index must be the number of frames already written.
+     * @param frame image of the container's resolution.
+     * @throws IOException if the frame cannot be written.
+     * @throws IllegalArgumentException if the frame is out of order, or of the wrong resolution.
+     */
+    @Override
+    public void accept(int index, BufferedImage frame) throws IOException {
+        if (index != count) throw new IllegalArgumentException("Frames must be appended in order; expected " + count + ", got " + index);
+        append(frame);
+    }
+
+    /**
+     * Appends the next frame.
+     *
+     * @param frame image of the container's resolution.
+     * @throws IOException if the frame cannot be written.
+     */
+    public synchronized void append(BufferedImage frame) throws IOException {
+        if (frame.getWidth() != width || frame.getHeight() != height)
+            throw new IllegalArgumentException("Frame is " + frame.getWidth() + "x" + frame.getHeight() + ", but container is " + width + "x" + height);
+
+        pixels.clear();
+        IntBuffer ints = pixels.asIntBuffer();
+        PackedRaster raster = new PackedRaster(frame);
+        if (format == FORMAT_ARGB)
+            for (int y = 0; y < height; y++)
+                ints.put(raster.argbRow(y, row), raster.argbRowOffset(y), width);
+        else
+            for (int y = 0; y < height; y++) {
+                int[] source = raster.row(y, row);
+                int offset = raster.rowOffset(y);
+                for (int x = 0; x < width; x++)                                                                         // The top byte of a row may be garbage, or alpha; stored as 0.
+                    row[x] = source[offset + x] & 0xFFFFFF;
+                ints.put(row, 0, width);
+            }
+
+        ByteBuffer payload = deflater == null ? pixels : deflate();
+        if (count == offsets.length) {
+            offsets = Arrays.copyOf(offsets, count * 2);
+            lengths = Arrays.copyOf(lengths, count * 2);
+        }
+        offsets[count] = position;
+        lengths[count] = payload.remaining();
+        count++;
+
+        while (payload.hasRemaining())
+            position += channel.write(payload, position);
+    }
+
+    /**
+     * @return number of frames written so far.
+     */
+    public synchronized int getLength() {
+        return count;
+    }
+
+    /**
+     * Writes the frame index and finishes the header. Until then, the container cannot be read.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (!channel.isOpen()) return;
+
+        try {
+            ByteBuffer index = ByteBuffer.allocate(count * INDEX_ENTRY_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            for (int i = 0; i < count; i++)
+                index.putLong(offsets[i]).putInt(lengths[i]);
+            index.flip();
+
+            long indexOffset = position;
+            while (index.hasRemaining())
+                position += channel.write(index, position);
+
+            writeHeader(indexOffset);
+        } finally {
+            if (deflater != null) deflater.end();
+            channel.close();
+        }
+    }
+
+    /**
+     * Compresses the raw frame.
+     */
+    private ByteBuffer deflate() {
+        byte[] raw = new byte[pixels.limit()];
+        pixels.get(raw);
+        deflater.reset();
+        deflater.setInput(raw);
+        deflater.finish();
+
+        if (compressed.length < raw.length + 64) compressed = new byte[raw.length + raw.length / 1000 + 64];           // Deflate's worst case, for incompressible frames.
+        int length = 0;
+        while (!deflater.finished())
+            length += deflater.deflate(compressed, length, compressed.length - length);
+
+        return ByteBuffer.wrap(compressed, 0, length);
+    }
+
+    private void writeHeader(long indexOffset) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC).putShort(VERSION).put(format).put(deflater == null ? COMPRESSION_NONE : COMPRESSION_DEFLATE)
+              .putInt(width).putInt(height).putInt(count).putLong(indexOffset).putInt(0);
+        header.flip();
+        while (header.hasRemaining())
+            channel.write(header, header.position());
+    }
+}
@@ -0,0 +1,44 @@
+package com.shinkson47.FrameInterpolation;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Destination for frames produced by an {@link InterpolationPipeline}.
+ *
+ * Frames are always delivered in order, one at a time, on the thread that is running the pipeline.
+ * The pipeline will not produce more frames until this sink has accepted the previous ones,
+ * so a slow sink throttles the whole pipeline rather than letting finished frames pile up on the heap.
+ *
+ * @version 1
+ * @author <a href="https://www.shinkson47.in">Jordan T. Gray</a>
+ */
+@FunctionalInterface
+public interface FrameSink {
+
+    /**
+     * Accepts the next frame of the output sequence.
+     *
+     * @param index position of the frame within the output sequence, starting at <i>0</i>
+     * @param frame the frame. The pipeline keeps no reference to it once accepted.
+     * @throws IOException if the frame could not be stored; this stops the pipeline.
+     */
+    void accept(int index, BufferedImage frame) throws IOException;
+
+    /**
+     * Creates a sink that writes each frame to its own image file, named <i>directory_index.format</i>
+     *
+     * @param directory existing folder to write frames to.
+     * @param format ImageIO informal format name, such as <i>png</i>
+     * @return Sink writing to <i>directory</i>.
+     */
+    static FrameSink toDirectory(File directory, String format) {
+        return (index, frame) -> {
+            File file = new File(directory, directory.getName() + "_" + index + "." + format);
+            if (!ImageIO.write(frame, format, file))
+                throw new IOException("No ImageIO writer for format " + format);
+        };
+    }
+}
@@ -0,0 +1,234 @@
+package com.shinkson47.FrameInterpolation;
+
+import java.awt.image.BufferedImage;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Caches the inter-frames of a {@link FrameBuffer}, so that revisiting a point, such as whilst scrubbing back and forth,
+ * costs a lookup instead of a blend.
+ *
+ * Inter-frames are keyed by the index of the frame they follow, and their point of interpolation, quantised to
+ * <i>1 / steps</i> so that nearby points, such as those of a scrub, share a frame. Every inter-frame is blended at its
+ * quantised point. Cached frames are kept in a least-recently-used cache, bounded by their size in bytes, and are
+ * separated by {@link BlendMode}, so changing the mode never serves frames blended in the old one.
+ *
+ * @implNote Cached frames are shared between every caller, and must not be modified, nor released to a {@link FramePool}.
+ *           {@link BlendMode#FIXED} and {@link BlendMode#LINEAR} quantise to 1/256ths anyway, so at {@link #DEFAULT_STEPS}
+ *           their cached frames are identical to uncached ones. {@link BlendMode#EXACT} blends any point, so its cached
+ *           frames may differ from a blend at the point asked for by up to <i>255 / (2 * steps)</i> per channel, before
+ *           rounding; at {@link #DEFAULT_STEPS}, by at most <i>1</i>.
+ * @version 1
+ * @author <a href="https://www.shinkson47.in">Jordan T. Gray</a>
+ */
+public class InterframeCache {
+
+    /**
+     * Default quantisation of points of interpolation; the resolution of {@link BlendMode#FIXED}'s weights,
+     * so that in that mode, cached output is identical to uncached output.
+     */
+    public static final int DEFAULT_STEPS = 256;
+
+    private final FrameBuffer frames;
+    private final long budget;
+    private final int steps;
+
+    /**
+     * Inter-frames, in order of least to most recently used.
+     */
+    private final LinkedHashMap<Key, BufferedImage> cache = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long cachedBytes;
+    private long hits, misses, evictions;
+
+    /**
+     * @param frames sequence to cache the inter-frames of.
+     * @param budget maximum bytes of inter-frames to keep cached.
+     */
+    public InterframeCache(FrameBuffer frames, long budget) {
+        this(frames, budget, DEFAULT_STEPS);
+    }
+
+    /**
+     * @param frames sequence to cache the inter-frames of.
+     * @param budget maximum bytes of inter-frames to keep cached.
+     * @param steps number of distinct points of interpolation between each pair of frames, <i>0.0 to 1.0</i>.
+     * @throws IllegalArgumentException if <i>steps</i> is less than 1, or not less than <i>2^24</i>
+     */
+    public InterframeCache(FrameBuffer frames, long budget, int steps) {
+        if (steps < 1 || steps >= 1 << 24) throw new IllegalArgumentException("Steps must be at least 1, and less than 2^24.");
+
+        this.frames = frames;
+        this.budget = budget;
+        this.steps = steps;
+    }
+
+    /**
+     * Fetches the inter-frame between frames <i>frame</i> and <i>frame + 1</i>, blending it if it is not cached.
+     *
+     * @param frame index of the frame that represents <i>interpol = 0</i>
+     * @param interpol Blend value between <i>0.0 and 1.0</i>, which is quantised to <i>1 / steps</i>
+     * @return The shared inter-frame. Must not be modified.
+     * @throws IndexOutOfBoundsException if there is no frame after <i>frame</i>.
+     */
+    public BufferedImage interpolate(int frame, double interpol) {
+        return interpolate(frame, new double[]{interpol})[0];
+    }
+
+    /**
+     * Fetches inter-frames between frames <i>frame</i> and <i>frame + 1</i> at several points,
+     * blending every point that is not cached in a single pass.
+     *
+     * @param frame index of the frame that represents <i>interpol = 0</i>
+     * @param interpol Blend values, each between <i>0.0 and 1.0</i>, which are quantised to <i>1 / steps</i>
+     * @return The shared inter-frames, one per point. Must not be modified.
+     * @throws IndexOutOfBoundsException if there is no frame after <i>frame</i>.
+     */
+    public BufferedImage[] interpolate(int frame, double[] interpol) {
+        if (frame < 0 || frame >= frames.getBufferLength() - 1)
+            throw new IndexOutOfBoundsException("No inter-frames follow frame " + frame + " of " + frames.getBufferLength());
+
+        BlendMode mode = LinearImageInterpolator.getBlendMode();
+        BufferedImage[] out = new BufferedImage[interpol.length];
+        Key[] keys = new Key[interpol.length];
+        int missing = 0;
+
+        synchronized (cache) {
+            for (int i = 0; i < interpol.length; i++) {
+                keys[i] = new Key(frame, mode, step(interpol[i]));
+                out[i] = cache.get(keys[i]);
+                if (out[i] == null) missing++;
+            }
+            hits += interpol.length - missing;
+            misses += missing;
+        }
+        if (missing == 0) return out;
+
+        double[] points = new double[missing];                                                                          // Blend every miss at once, from one read of each source.
+        for (int i = 0, miss = 0; i < out.length; i++)
+            if (out[i] == null) points[miss++] = quantise(interpol[i]);
+
+        BufferedImage[] blended = LinearImageInterpolator.InterpolateImage(frames.getRaster(frame), frames.getRaster(frame + 1), points, null);
+
+        synchronized (cache) {
+            for (int i = 0, miss = 0; i < out.length; i++)
+                if (out[i] == null) cache(keys[i], out[i] = blended[miss++]);
+        }
+        return out;
+    }
+
+    /**
+     * @param interpol Blend value between <i>0.0 and 1.0</i>
+     * @return The point <i>interpol</i> is actually blended at.
+     */
+    public double quantise(double interpol) {
+        return (double) step(interpol) / steps;
+    }
+
+    /**
+     * @return Sequence whose inter-frames are cached.
+     */
+    public FrameBuffer getFrames() {
+        return frames;
+    }
+
+    /**
+     * @return Bytes of inter-frames currently cached.
+     */
+    public long getCachedBytes() {
+        synchronized (cache) {
+            return cachedBytes;
+        }
+    }
+
+    /**
+     * @return Number of inter-frames served from the cache.
+     */
+    public long getHits() {
+        synchronized (cache) {
+            return hits;
+        }
+    }
+
+    /**
+     * @return Number of inter-frames that had to be blended.
+     */
+    public long getMisses() {
+        synchronized (cache) {
+            return misses;
+        }
+    }
+
+    /**
+     * @return Number of inter-frames evicted to stay within the budget.
+     */
+    public long getEvictions() {
+        synchronized (cache) {
+            return evictions;
+        }
+    }
+
+    /**
+     * Drops every cached inter-frame. Statistics are kept.
+     */
+    public void clear() {
+        synchronized (cache) {
+            cache.clear();
+            cachedBytes = 0;
+        }
+    }
+
+    /**
+     * Adds an inter-frame to the cache, evicting the least recently used until it fits the budget.
+     * Must be called whilst holding the lock on the cache.
+     */
+    private void cache(Key key, BufferedImage image) {
+        BufferedImage replaced = cache.put(key, image);                                                                 // Another thread may have blended the same point.
+        if (replaced != null) cachedBytes -= LazyFrameBuffer.sizeOf(replaced);
+        cachedBytes += LazyFrameBuffer.sizeOf(image);
+
+        Iterator<Map.Entry<Key, BufferedImage>> eldest = cache.entrySet().iterator();
+        while (cachedBytes > budget && eldest.hasNext()) {
+            Map.Entry<Key, BufferedImage> evict = eldest.next();
+            cachedBytes -= LazyFrameBuffer.sizeOf(evict.getValue());
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    /**
+     * @return <i>interpol</i> in <i>1 / steps</i>, clamped to <i>0 - steps</i>
+     */
+    private int step(double interpol) {
+        return (int) Math.max(0, Math.min(steps, Math.round(interpol * steps)));
+    }
+
+    /**
+     * Identifies an inter-frame by the frame it follows, the mode it was blended in, and its point, in steps of <i>1 / steps</i>
+     */
+    private static final class Key {
+
+        private final int frame;
+        private final BlendMode mode;
+        private final int point;
+
+        Key(int frame, BlendMode mode, int point) {
+            this.frame = frame;
+            this.mode = mode;
+            this.point = point;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Key)) return false;
+            Key key = (Key) other;
+            return frame == key.frame && mode == key.mode && point == key.point;
+        }
+
+        @Override
+        public int hashCode() {
+            return (31 * frame + mode.ordinal()) * 31 + Long.hashCode(point);
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package com.shinkson47.FrameInterpolation;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Handle to an interpolation run in the background, such as by {@link InterpolationPipeline#submit}
+ * or {@link LinearImageInterpolator#forAllAsync}.
+ *
+ * Completes with the run's result, or exceptionally with whatever stopped it, and may be composed like any other
+ * {@link CompletableFuture}. Unlike one, cancelling the job also stops the run: the thread running it is interrupted,
+ * pairs in flight are abandoned, and no further pairs are started. Stages derived from the job are not able to cancel it.
+ *
+ * Whilst running, a {@link Progress} is published to the job's listener after each pair is finished.
+ *
+ * @param <T> type of the run's result.
+ * @version 1
+ * @author <a href="https://www.shinkson47.in">Jordan T. Gray</a>
+ */
+public class InterpolationJob<T> extends CompletableFuture<T> {
+
+    /**
+     * Weight of the latest pair in the measured time per pair. Low enough that a burst of pairs finishing together,
+     * or a run of cached pairs, does not swing the estimate.
+     */
+    private static final double SMOOTHING = 0.2;
+
+    /**
+     * Receives the progress of a job.
+     */
+    @FunctionalInterface
+    public interface ProgressListener {
+
+        /**
+         * Called on the thread running the job, after each pair has been accepted by the sink.
+         * Listeners that update a UI must hand the progress to its thread, such as with <i>Platform::runLater</i>.
+         *
+         * @param progress progress of the job so far.
+         */
+        void progress(Progress progress);
+    }
+
+    /**
+     * Progress of a job, at the moment it was published.
+     *
+     * @implNote Immutable, and so safe to share between threads.
+     */
+    public static final class Progress {
+
+        private final int pairsDone, pairs, pointsPerPair;
+        private final long elapsedNanos, nanosPerPair;
+
+        Progress(int pairsDone, int pairs, int pointsPerPair, long elapsedNanos, long nanosPerPair) {
+            this.pairsDone = pairsDone;
+            this.pairs = pairs;
+            this.pointsPerPair = pointsPerPair;
+            this.elapsedNanos = elapsedNanos;
+            this.nanosPerPair = nanosPerPair;
+        }
+
+        /**
+         * @return number of pairs finished.
+         */
+        public int getPairsDone() {
+            return pairsDone;
+        }
+
+        /**
+         * @return number of pairs in the run.
+         */
+        public int getPairs() {
+            return pairs;
+        }
+
+        /**
+         * @return number of output frames finished.
+         */
+        public long getFramesDone() {
+            return (long) pairsDone * pointsPerPair;
+        }
+
+        /**
+         * @return number of output frames in the run.
+         */
+        public long getFrames() {
+            return (long) pairs * pointsPerPair;
+        }
+
+        /**
+         * @return Fraction of pairs finished, between <i>0.0 and 1.0</i>
+         */
+        public double getFraction() {
+            return pairs == 0 ? 1 : (double) pairsDone / pairs;
+        }
+
+        /**
+         * @return nanoseconds since the job started running.
+         */
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        /**
+         * @return Recent throughput, in output frames per second, or <i>0</i> before the first pair has finished.
+         */
+        public double getFramesPerSecond() {
+            return nanosPerPair == 0 ? 0 : pointsPerPair * 1e9 / nanosPerPair;
+        }
+
+        /**
+         * @return Estimated nanoseconds until the job finishes at its recent throughput,
+         *         or <i>-1</i> before the first pair has finished.
+         */
+        public long getRemainingNanos() {
+            if (pairsDone == 0 && pairs > 0) return -1;
+            return (pairs - pairsDone) * nanosPerPair;
+        }
+
+        @Override
+        public String toString() {
+            long remaining = getRemainingNanos();
+            return pairsDone + " / " + pairs + " pairs, " + Math.round(getFramesPerSecond()) + " fps, "
+                 + (remaining < 0 ? "estimating" : Math.round(remaining / 1e9) + "s remaining");
+        }
+    }
+
+    /**
+     * Work run by a job.
+     */
+    @FunctionalInterface
+    interface Body<T> {
+
+        /**
+         * @param job job to report each finished pair to, with {@link #pairDone()}
+         * @return The result of the job.
+         */
+        T run(InterpolationJob<T> job) throws Exception;
+    }
+
+    private final int pairs, pointsPerPair;
+    private final ProgressListener listener;
+
+    private final Object lock = new Object();
+    private Thread runner;                                                                                              // Thread running the body, or null.
+    private boolean interrupted;                                                                                        // Runner was interrupted by cancel, not by its executor.
+    private int pairsDone;
+    private long started, lastPair, nanosPerPair;
+    private volatile Progress progress;
+
+    /**
+     * @param pairs number of pairs the run interpolates.
+     * @param pointsPerPair number of output frames per pair.
+     * @param listener receives progress, or <i>null</i>.
+     */
+    InterpolationJob(int pairs, int pointsPerPair, ProgressListener listener) {
+        this.pairs = pairs;
+        this.pointsPerPair = pointsPerPair;
+        this.listener = listener;
+        progress = new Progress(0, pairs, pointsPerPair, 0, 0);
+    }
+
+    /**
+     * Runs a body on an executor, completing this job with its outcome.
+     *
+     * @param executor executor to run on. Runs block for their whole length, so this should not be a pool that
+     *                 other work depends upon, such as a UI thread.
+     * @param body work to run.
+     * @return This job.
+     */
+    InterpolationJob<T> start(Executor executor, Body<T> body) {
+        executor.execute(() -> {
+            synchronized (lock) {
+                if (isDone()) return;                                                                                   // Cancelled before it started.
+                runner = Thread.currentThread();
+                started = lastPair = System.nanoTime();
+            }
+
+            try {
+                complete(body.run(this));
+            } catch (Throwable e) {
+                completeExceptionally(e);                                                                               // Has no effect if already cancelled.
+            } finally {
+                synchronized (lock) {
+                    runner = null;
+                    if (interrupted) Thread.interrupted();                                                              // Leave the executor's thread as it was found.
+                }
+            }
+        });
+        return this;
+    }
+
+    /**
+     * Records that a pair has been finished, and publishes the job's progress.
+     *
+     * @throws CancellationException if the job has been cancelled, so that the run stops between pairs.
+     */
+    void pairDone() {
+        if (isCancelled()) throw new CancellationException("Interpolation job was cancelled.");
+
+        Progress current;
+        synchronized (lock) {
+            long now = System.nanoTime();
+            long took = now - lastPair;
+            nanosPerPair = pairsDone++ == 0 ? took : (long) (nanosPerPair + SMOOTHING * (took - nanosPerPair));
+            lastPair = now;
+            progress = current = new Progress(pairsDone, pairs, pointsPerPair, now - started, nanosPerPair);
+        }
+
+        if (listener != null) listener.progress(current);
+    }
+
+    /**
+     * @return The most recently published progress.
+     */
+    public Progress getProgress() {
+        return progress;
+    }
+
+    /**
+     * Cancels the job, stopping its run if it has started.
+     *
+     * @param mayInterruptIfRunning ignored; a run is always interrupted, as it cannot otherwise be stopped mid-pair.
+     * @return <i>true</i> if the job is now cancelled.
+     */
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        boolean cancelled = super.cancel(mayInterruptIfRunning);
+        synchronized (lock) {
+            if (cancelled && runner != null) {
+                interrupted = true;
+                runner.interrupt();
+            }
+        }
+        return cancelled;
+    }
+}
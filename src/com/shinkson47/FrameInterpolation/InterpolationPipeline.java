@@ -0,0 +1,413 @@
+package com.shinkson47.FrameInterpolation;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Streams the interpolation of every pair of frames in a {@link FrameBuffer}, as {@link LinearImageInterpolator#forAll} does,
+ * without ever holding the whole output sequence in memory.
+ *
+ * Pairs are blended concurrently on a fixed pool of worker threads, but only a bounded number of pairs may be in flight
+ * at once. Finished frames are handed to a {@link FrameSink} strictly in order; until the sink has taken the oldest
+ * pair, no further pairs are started. Peak memory is therefore <i>maxPairsInFlight * (exponent + 1)</i> frames,
+ * regardless of the length of the sequence.
+ *
+ * @version 1
+ * @author <a href="https://www.shinkson47.in">Jordan T. Gray</a>
+ */
+public class InterpolationPipeline implements AutoCloseable {
+
+    /**
+     * Default number of pairs each worker may have in flight, so that a worker is never idle waiting for the sink.
+     */
+    public static final int PAIRS_PER_WORKER = 2;
+
+    private final ExecutorService workers;
+    private final int maxPairsInFlight;
+    private final FramePool pool;
+    private final boolean motionCompensated;
+
+    /**
+     * Creates a pipeline with one worker per available processor.
+     */
+    public InterpolationPipeline() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param threads number of worker threads to blend pairs on.
+     */
+    public InterpolationPipeline(int threads) {
+        this(threads, threads * PAIRS_PER_WORKER);
+    }
+
+    /**
+     * @param threads number of worker threads to blend pairs on.
+     * @param maxPairsInFlight maximum pairs that may be blended, or waiting for the sink, at once.
+     * @throws IllegalArgumentException if either argument is less than 1.
+     */
+    public InterpolationPipeline(int threads, int maxPairsInFlight) {
+        this(threads, maxPairsInFlight, null);
+    }
+
+    /**
+     * @param threads number of worker threads to blend pairs on.
+     * @param maxPairsInFlight maximum pairs that may be blended, or waiting for the sink, at once.
+     * @param pool pool to borrow output frames from, or <i>null</i> to create them. Sinks may release frames back
+     *             to it once they are done with them, so that a long sequence recycles a handful of frames.
+     * @throws IllegalArgumentException if either <i>threads</i> or <i>maxPairsInFlight</i> is less than 1.
+     */
+    public InterpolationPipeline(int threads, int maxPairsInFlight, FramePool pool) {
+        this(threads, maxPairsInFlight, pool, false);
+    }
+
+    /**
+     * @param threads number of worker threads to blend pairs on.
+     * @param maxPairsInFlight maximum pairs that may be blended, or waiting for the sink, at once.
+     * @param pool pool to borrow output frames from, or <i>null</i> to create them.
+     * @param motionCompensated <i>true</i> to interpolate pairs along their motion with {@link MotionCompensatedInterpolator},
+     *                          searching each pair once for all of its points, rather than cross-fading them.
+     *                          Cached sequences are always cross-faded, as that is what their cache holds.
+     * @throws IllegalArgumentException if either <i>threads</i> or <i>maxPairsInFlight</i> is less than 1.
+     */
+    public InterpolationPipeline(int threads, int maxPairsInFlight, FramePool pool, boolean motionCompensated) {
+        this(threads, maxPairsInFlight, pool, motionCompensated, null);
+    }
+
+    /**
+     * @param threads number of worker threads to blend pairs on.
+     * @param maxPairsInFlight maximum pairs that may be blended, or waiting for the sink, at once.
+     * @param pool pool to borrow output frames from, or <i>null</i> to create them.
+     * @param motionCompensated <i>true</i> to interpolate pairs along their motion, see {@link #InterpolationPipeline(int, int, FramePool, boolean)}
+     * @param blendPool pool to split the blend of each large frame across, or <i>null</i> for {@link LinearImageInterpolator#getPool()}.
+     *                  Used by this pipeline's workers only; the global pool is left as it is. Not shut down by {@link #close()}.
+     * @throws IllegalArgumentException if either <i>threads</i> or <i>maxPairsInFlight</i> is less than 1.
+     */
+    public InterpolationPipeline(int threads, int maxPairsInFlight, FramePool pool, boolean motionCompensated, ForkJoinPool blendPool) {
+        if (threads < 1 || maxPairsInFlight < 1)
+            throw new IllegalArgumentException("A pipeline requires at least one thread, and one pair in flight.");
+
+        this.maxPairsInFlight = maxPairsInFlight;
+        this.pool = pool;
+        this.motionCompensated = motionCompensated;
+        workers = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(blendPool == null ? runnable : Bands.bind(blendPool, runnable), "Interpolation pipeline worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Calculates the points each pair of frames is blended at.
+     *
+     * @param exponent number of steps between each pair of frames.
+     * @return <i>exponent + 1</i> evenly spaced points from <i>0.0 to 1.0</i> inclusive.
+     * @throws IllegalArgumentException if <i>exponent</i> is less than 1; no steps would drop the last frame of every sequence.
+     */
+    public static double[] points(int exponent) {
+        if (exponent < 1) throw new IllegalArgumentException("Exponent must be at least 1.");
+
+        double[] points = new double[exponent + 1];
+        for (int i = 0; i <= exponent; i++)
+            points[i] = (double) i / (double) exponent;
+
+        return points;
+    }
+
+    /**
+     * @param frames number of frames in the source sequence.
+     * @param exponent number of steps between each pair of frames.
+     * @return number of frames produced when interpolating the sequence.
+     * @throws IllegalArgumentException if <i>exponent</i> is less than 1.
+     */
+    public static int outputLength(int frames, int exponent) {
+        return Math.max(0, frames - 1) * points(exponent).length;
+    }
+
+    /**
+     * Interpolates every pair of consecutive frames, blocking until every resulting frame has been accepted by the sink.
+     *
+     * Output frame <i>(pair - 1) * points + i</i> is the blend between frames <i>pair - 1</i> and <i>pair</i>
+     * at {@link #points(int)}<i>[i]</i>.
+     *
+     * Pairs of identical frames, see {@link FrameBuffer#isDuplicate(int, int)}, are copied rather than blended.
+     * Unless the pipeline has a pool, every point of such a pair is the same image, so sinks must not modify frames
+     * they are given.
+     *
+     * @param frames source sequence.
+     * @param exponent number of steps between each pair of frames.
+     * @param sink receives every output frame, in order.
+     * @throws IOException if the sink fails; remaining pairs are abandoned.
+     * @throws InterruptedException if interrupted while waiting for a pair; remaining pairs are abandoned.
+     */
+    public void run(FrameBuffer frames, int exponent, FrameSink sink) throws IOException, InterruptedException {
+        run(frames, null, exponent, sink, null);
+    }
+
+    /**
+     * Interpolates every pair of consecutive frames of a cached sequence, blocking until every resulting frame
+     * has been accepted by the sink. Pairs are taken from the cache where possible, and cached once blended.
+     *
+     * @param cache inter-frame cache of the source sequence. Frames given to the sink are shared with it,
+     *              so must not be modified, nor released to a pool.
+     * @see #run(FrameBuffer, int, FrameSink)
+     */
+    public void run(InterframeCache cache, int exponent, FrameSink sink) throws IOException, InterruptedException {
+        run(cache.getFrames(), cache, exponent, sink, null);
+    }
+
+    /**
+     * Interpolates every pair of consecutive frames straight into the frames of a store, blocking until every pair is stored.
+     *
+     * Cross-faded pairs are blended row by row into the store's mapping, so no output frame is ever held on the heap,
+     * and there is no sink to copy frames through. Pairs of identical frames are copied in, and motion compensated
+     * pairs are interpolated on the heap, then copied in.
+     *
+     * @param frames source sequence.
+     * @param exponent number of steps between each pair of frames.
+     * @param store store of {@link #outputLength(int, int)} frames at the resolution of <i>frames</i>,
+     *              such as from {@link MappedFrameBuffer#create}. Output frame <i>i</i> is stored at index <i>i</i>,
+     *              as {@link #run(FrameBuffer, int, FrameSink)} numbers it.
+     * @throws IllegalArgumentException if the store is not the length, or resolution, of the output.
+     * @throws IOException if a pair could not be stored; remaining pairs are abandoned.
+     * @throws InterruptedException if interrupted while waiting for a pair; remaining pairs are abandoned.
+     */
+    public void run(FrameBuffer frames, int exponent, MappedFrameBuffer store) throws IOException, InterruptedException {
+        final double[] points = points(exponent);
+        if (store.getBufferLength() != outputLength(frames.getBufferLength(), exponent)
+            || store.getWidth() != frames.getWidth() || store.getHeight() != frames.getHeight())
+            throw new IllegalArgumentException("Store must hold " + outputLength(frames.getBufferLength(), exponent) + " frames of "
+                                               + frames.getWidth() + "x" + frames.getHeight() + ".");
+
+        ArrayDeque<Future<BufferedImage[]>> inFlight = new ArrayDeque<>(maxPairsInFlight);
+        int nextPair = 1;
+
+        try {
+            while (nextPair < frames.getBufferLength() || !inFlight.isEmpty()) {
+                while (nextPair < frames.getBufferLength() && inFlight.size() < maxPairsInFlight) {
+                    final int pair = nextPair++;
+                    final int first = (pair - 1) * points.length;
+                    inFlight.add(workers.submit(() -> {
+                        if (frames.isDuplicate(pair - 1, pair))
+                            store.copyInto(first, points.length, frames.getRaster(pair - 1));
+                        else if (motionCompensated) {
+                            BufferedImage[] blended = MotionCompensatedInterpolator.InterpolateImage(frames.getRaster(pair - 1), frames.getRaster(pair), points, pool);
+                            for (int i = 0; i < blended.length; i++)
+                                store.setFrame(first + i, blended[i]);
+                            if (pool != null) pool.release(blended);
+                        } else
+                            store.interpolateInto(first, frames.getRaster(pair - 1), frames.getRaster(pair), points);
+                        return null;
+                    }));
+                }
+
+                await(inFlight.poll());                                                                                 // Pairs are stored by the workers; only bound how many are in flight.
+            }
+        } finally {
+            for (Future<BufferedImage[]> abandoned : inFlight)
+                abandoned.cancel(true);
+        }
+    }
+
+    /**
+     * Interpolates every pair of consecutive frames on an executor, without blocking.
+     *
+     * @param frames source sequence.
+     * @param exponent number of steps between each pair of frames.
+     * @param sink receives every output frame, in order, on the executor's thread.
+     * @param executor executor to run on, which is blocked for the length of the run; blending still happens on this
+     *                 pipeline's workers.
+     * @param listener receives progress after each pair, or <i>null</i>.
+     * @return Job that completes once every frame has been accepted by the sink.
+     *         Cancelling it abandons the remaining pairs; the sink is given no further frames.
+     * @see #run(FrameBuffer, int, FrameSink)
+     */
+    public InterpolationJob<Void> submit(FrameBuffer frames, int exponent, FrameSink sink, Executor executor, InterpolationJob.ProgressListener listener) {
+        return submit(frames, null, exponent, sink, executor, listener);
+    }
+
+    /**
+     * Interpolates every pair of consecutive frames of a cached sequence on an executor, without blocking.
+     *
+     * @param cache inter-frame cache of the source sequence. Frames given to the sink are shared with it,
+     *              so must not be modified, nor released to a pool.
+     * @see #submit(FrameBuffer, int, FrameSink, Executor, InterpolationJob.ProgressListener)
+     */
+    public InterpolationJob<Void> submit(InterframeCache cache, int exponent, FrameSink sink, Executor executor, InterpolationJob.ProgressListener listener) {
+        return submit(cache.getFrames(), cache, exponent, sink, executor, listener);
+    }
+
+    private InterpolationJob<Void> submit(FrameBuffer frames, InterframeCache cache, int exponent, FrameSink sink, Executor executor, InterpolationJob.ProgressListener listener) {
+        return new InterpolationJob<Void>(Math.max(0, frames.getBufferLength() - 1), points(exponent).length, listener).start(executor, job -> {
+            run(frames, cache, exponent, sink, job);
+            return null;
+        });
+    }
+
+    /**
+     * @param job job to report each pair to once its frames have been accepted by the sink, or <i>null</i>.
+     */
+    void run(FrameBuffer frames, InterframeCache cache, int exponent, FrameSink sink, InterpolationJob<?> job) throws IOException, InterruptedException {
+        final double[] points = points(exponent);
+        ArrayDeque<Future<BufferedImage[]>> inFlight = new ArrayDeque<>(maxPairsInFlight);
+        int nextPair = 1, index = 0;
+        BufferedImage[] emitting = null;                                                                                // Pair being given to the sink, and how much of it has been.
+        int accepted = 0;
+
+        try {
+            while (nextPair < frames.getBufferLength() || !inFlight.isEmpty()) {
+                while (nextPair < frames.getBufferLength() && inFlight.size() < maxPairsInFlight) {                    // Keep the workers busy, up to the limit.
+                    final int pair = nextPair++;
+                    inFlight.add(workers.submit(() -> {
+                        if (cache != null) return cache.interpolate(pair - 1, points);
+                        if (frames.isDuplicate(pair - 1, pair))
+                            return LinearImageInterpolator.copies(frames.getRaster(pair - 1), points.length, pool);
+                        if (motionCompensated)
+                            return MotionCompensatedInterpolator.InterpolateImage(frames.getRaster(pair - 1), frames.getRaster(pair), points, pool);
+                        return LinearImageInterpolator.InterpolateImage(frames.getRaster(pair - 1), frames.getRaster(pair), points, pool);
+                    }));
+                }
+
+                emitting = await(inFlight.poll());                                                                     // Emit the oldest pair, in order.
+                for (accepted = 0; accepted < emitting.length; accepted++)
+                    sink.accept(index++, emitting[accepted]);
+                emitting = null;
+                if (job != null) job.pairDone();                                                                        // Stops the run if the job has been cancelled.
+            }
+        } finally {
+            boolean borrowed = pool != null && cache == null;                                                           // Cached frames belong to the cache.
+            if (borrowed && emitting != null)
+                for (int i = accepted; i < emitting.length; i++)                                                        // Never taken by the sink.
+                    pool.release(emitting[i]);
+
+            for (Future<BufferedImage[]> abandoned : inFlight)                                                          // Only non-empty if something went wrong.
+                if (!abandoned.cancel(true) && borrowed)
+                    release(abandoned);                                                                                 // Already finished; a running pair's frames are left to the collector.
+        }
+    }
+
+    /**
+     * Returns the frames of a finished pair that will never be emitted to the pool.
+     */
+    private void release(Future<BufferedImage[]> pair) {
+        try {
+            pool.release(pair.get());
+        } catch (ExecutionException | InterruptedException | CancellationException e) {                                // Nothing was borrowed, or it cannot be reached.
+            if (e instanceof InterruptedException) Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Interpolates every pair of consecutive frames on a background thread, exposing the output as an iterator.
+     *
+     * The background thread blocks whenever a few pairs' worth of frames are waiting to be taken,
+     * so an iterator that is consumed slowly, or abandoned, holds no more than that.
+     *
+     * @param frames source sequence.
+     * @param exponent number of steps between each pair of frames.
+     * @return Iterator over the output sequence, in order.
+     *         Failures in the pipeline are rethrown from {@link Iterator#next()} as an {@link IllegalStateException}.
+     */
+    public Iterator<BufferedImage> iterator(FrameBuffer frames, int exponent) {
+        QueueIterator iterator = new QueueIterator(outputLength(frames.getBufferLength(), exponent), points(exponent).length * PAIRS_PER_WORKER);
+        Thread producer = new Thread(() -> {
+            try {
+                run(frames, exponent, (index, frame) -> iterator.put(frame));
+            } catch (IOException | InterruptedException | RuntimeException e) {
+                iterator.fail(e);
+            }
+        }, "Interpolation pipeline producer");
+        producer.setDaemon(true);
+        producer.start();
+        return iterator;
+    }
+
+    /**
+     * Stops the worker threads. Any run in progress will fail.
+     */
+    @Override
+    public void close() {
+        workers.shutdownNow();
+    }
+
+    /**
+     * Waits for a pair to be blended, unwrapping any failure.
+     */
+    private static BufferedImage[] await(Future<BufferedImage[]> pair) throws IOException, InterruptedException {
+        try {
+            return pair.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) throw (IOException) cause;
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            if (cause instanceof Error) throw (Error) cause;
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    /**
+     * Iterator fed by a bounded queue, which the pipeline's sink blocks on when full.
+     */
+    private static final class QueueIterator implements Iterator<BufferedImage> {
+
+        private final BlockingQueue<Object> queue;
+        private int remaining;
+
+        QueueIterator(int length, int capacity) {
+            remaining = length;
+            queue = new ArrayBlockingQueue<>(Math.max(1, capacity));
+        }
+
+        void put(BufferedImage frame) throws IOException {
+            try {
+                queue.put(frame);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while waiting for the consumer.", e);
+            }
+        }
+
+        void fail(Exception e) {
+            queue.clear();                                                                                              // Make room, so that the failure is never blocked.
+            queue.offer(e);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return remaining > 0;
+        }
+
+        @Override
+        public BufferedImage next() {
+            if (remaining <= 0) throw new NoSuchElementException();
+
+            Object next;
+            try {
+                next = queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for the next frame.", e);
+            }
+
+            if (next instanceof Exception) {
+                remaining = 0;
+                throw new IllegalStateException("Interpolation pipeline failed.", (Exception) next);
+            }
+
+            remaining--;
+            return (BufferedImage) next;
+        }
+    }
+}
@@ -0,0 +1,380 @@
+package com.shinkson47.FrameInterpolation;
+
+import javax.imageio.ImageIO;
+import java.awt.Dimension;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * A frame buffer that decodes frames only when they are asked for.
+ *
+ * Importing a folder only indexes the paths of its images. Decoded frames are kept in a least-recently-used cache,
+ * bounded by an estimate of their size in bytes, and the frames following each request are decoded ahead of time
+ * on a background thread, so that sequential access, such as {@link LinearImageInterpolator#forAll} or playback,
+ * rarely waits on a decode.
+ *
+ * Frames are normalised to a single resolution as they are decoded, as {@link FrameBuffer} does on import;
+ * either a target resolution, or that of the first frame, read from its header.
+ *
+ * @implNote {@link #getFrameBuffer()} decodes every frame, and should be avoided for long sequences.
+ * @version 1
+ * @author <a href="https://www.shinkson47.in">Jordan T. Gray</a>
+ */
+public class LazyFrameBuffer extends FrameBuffer implements AutoCloseable {
+
+    /**
+     * Default number of frames decoded ahead of the most recently requested frame.
+     */
+    public static final int DEFAULT_READ_AHEAD = 4;
+
+    /**
+     * Paths of every frame, in order. Only changed, or read, whilst holding the lock on the cache.
+     */
+    protected final ArrayList<File> frames = new ArrayList<File>();
+
+    /**
+     * Decoded frames, in order of least to most recently used.
+     */
+    private final LinkedHashMap<Integer, BufferedImage> cache = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * Frames that are being decoded, so that each frame is only ever decoded once at a time.
+     * A decode that is abandoned, by {@link #close()} or a new import, completes with <i>null</i>, and its waiters decode the frame themselves.
+     */
+    private final Map<Integer, CompletableFuture<BufferedImage>> pending = new HashMap<>();
+
+    private final ExecutorService readAheadThread = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "Frame buffer read-ahead");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final long budget;
+    private final int readAhead;
+    private long cachedBytes;
+    private int generation;                                                                                             // Of the latest import; decodes of any other are never cached.
+
+    /**
+     * Indexes a folder of frames, with a cache of a quarter of the maximum heap.
+     *
+     * @param directory Folder containing images to import.
+     * @throws IllegalStateException if the folder is not a valid import, see {@link #validateImport(File)}
+     */
+    public LazyFrameBuffer(File directory) throws IllegalStateException {
+        this(directory, Runtime.getRuntime().maxMemory() / 4, DEFAULT_READ_AHEAD);
+    }
+
+    /**
+     * Indexes a folder of frames.
+     *
+     * @param directory Folder containing images to import.
+     * @param budget Maximum bytes of decoded frames to keep cached. At least the most recently used frame is always kept.
+     * @param readAhead Number of frames to decode ahead of each requested frame. <i>0</i> disables read-ahead.
+     * @throws IllegalStateException if the folder is not a valid import, see {@link #validateImport(File)}
+     */
+    public LazyFrameBuffer(File directory, long budget, int readAhead) throws IllegalStateException {
+        this.budget = budget;
+        this.readAhead = Math.max(0, readAhead);
+        if (!validateImport(directory))
+            throw new IllegalStateException("Invalid folder structure passed. Must contain at least two images, and no sub-folders.");
+    }
+
+    /**
+     * Indexes a folder of frames, resampling every frame to a target resolution as it is decoded.
+     *
+     * @param directory Folder containing images to import.
+     * @param budget Maximum bytes of decoded frames to keep cached. At least the most recently used frame is always kept.
+     * @param readAhead Number of frames to decode ahead of each requested frame. <i>0</i> disables read-ahead.
+     * @param width width to resample every frame to.
+     * @param height height to resample every frame to.
+     * @throws IllegalStateException if the folder is not a valid import, see {@link #validateImport(File)}
+     * @throws IllegalArgumentException if <i>width</i> or <i>height</i> is less than 1.
+     */
+    public LazyFrameBuffer(File directory, long budget, int readAhead, int width, int height) throws IllegalStateException {
+        this.budget = budget;
+        this.readAhead = Math.max(0, readAhead);
+        setTargetResolution(width, height);
+        if (!validateImport(directory))
+            throw new IllegalStateException("Invalid folder structure passed. Must contain at least two images, and no sub-folders.");
+    }
+
+    /**
+     * Indexes a folder containing video frames of the same resolution, without decoding them.
+     *
+     * Only the header of each file is read, to determine whether ImageIO is able to decode it,
+     * and of the first image, to determine the resolution, if there is no target.
+     *
+     * @implNote SIDE EFFECT: Clears frame buffer and cache before importing.
+     * @param directory Folder containing images to import.
+     * @return <i>false</i> if directory is contains less than two children,
+                is not a directory, contains a sub-folder, contains files that cannot be read, or contains less than two valid images.
+                Otherwise <i>true</i>
+     */
+    @Override
+    public boolean validateImport(File directory) {
+        synchronized (cache) {
+            generation++;
+            frames.clear();
+            cache.clear();
+            cachedBytes = 0;
+            abandon(new ArrayList<>(pending.values()));                                                                 // Decodes of the last folder are never cached under this one.
+        }
+
+        File[] files = listImport(directory);
+        if (files == null) return false;
+
+        ArrayList<File> images = new ArrayList<File>(files.length);
+        for (File file : files)
+            try {
+                if (isImage(file)) images.add(file);                                                                    // Non-images are skipped, as an eager import would.
+            } catch (IOException e) {
+                return false;                                                                                           // Failed to read a file.
+            }
+
+        synchronized (cache) {
+            frames.addAll(images);
+        }
+
+        if (images.size() < MIN_VALID_IMAGES) return false;
+        if (targetWidth > 0) return true;
+
+        try {
+            Dimension first = readResolution(images.get(0));
+            width = first.width;
+            height = first.height;
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Fetches a frame, decoding it if it is not cached, and schedules the frames that follow it to be decoded.
+     *
+     * @param i index of the frame.
+     * @return The decoded frame.
+     * @throws UncheckedIOException if the frame can no longer be decoded.
+     */
+    @Override
+    public BufferedImage getFrame(int i) {
+        while (true) {
+            CompletableFuture<BufferedImage> decode;
+            File file = null;
+            int of;
+            synchronized (cache) {
+                if (i < 0 || i >= frames.size()) throw new IndexOutOfBoundsException("Frame " + i + " of " + frames.size());
+
+                BufferedImage cached = cache.get(i);
+                decode = pending.get(i);
+                of = generation;
+                if (cached != null) {
+                    scheduleReadAhead(i);
+                    return cached;
+                }
+
+                if (decode == null) {                                                                                   // Nobody is decoding it yet; decode it on this thread.
+                    decode = new CompletableFuture<>();
+                    pending.put(i, decode);
+                    file = frames.get(i);
+                }
+                scheduleReadAhead(i);
+            }
+
+            if (file != null) decode(i, file, of, decode, false);
+            BufferedImage image = await(decode);
+            if (image != null) return image;                                                                            // Otherwise abandoned; decode it here instead.
+        }
+    }
+
+    @Override
+    public int getBufferLength() {
+        synchronized (cache) {
+            return frames.size();
+        }
+    }
+
+    /**
+     * Compares both frames pixel for pixel, decoding either if it is not cached. Frames that differ usually do so
+     * within their first row, so this costs far less than a blend.
+     *
+     * @implNote Content is not tracked at import, so {@link #getDuplicateRuns()} decodes every frame,
+     *           and duplicates are not stored once.
+     */
+    @Override
+    public boolean isDuplicate(int i, int j) {
+        return i == j || getRaster(i).sameContent(getRaster(j));
+    }
+
+    /**
+     * @implNote Decodes every frame that is not cached. Prefer {@link #getFrame(int)}
+     */
+    @Override
+    public ArrayList<BufferedImage> getFrameBuffer() {
+        int length = getBufferLength();
+        ArrayList<BufferedImage> all = new ArrayList<BufferedImage>(length);
+        for (int i = 0; i < length; i++)
+            all.add(getFrame(i));
+
+        return all;
+    }
+
+    /**
+     * @return Estimated bytes of decoded frames currently cached.
+     */
+    public long getCachedBytes() {
+        synchronized (cache) {
+            return cachedBytes;
+        }
+    }
+
+    /**
+     * Stops reading ahead. Frames may still be fetched, but will be decoded on the calling thread,
+     * including any that were queued to be read ahead.
+     */
+    @Override
+    public void close() {
+        synchronized (cache) {
+            ArrayList<CompletableFuture<BufferedImage>> dropped = new ArrayList<>();
+            for (Runnable task : readAheadThread.shutdownNow())
+                dropped.add(((ReadAhead) task).decode);
+            abandon(dropped);
+        }
+    }
+
+    /**
+     * Queues the <i>readAhead</i> frames after <i>i</i> that are neither cached nor pending.
+     * Must be called whilst holding the lock on the cache.
+     */
+    private void scheduleReadAhead(int i) {
+        if (readAheadThread.isShutdown()) return;
+
+        for (int next = i + 1; next <= i + readAhead && next < frames.size(); next++) {
+            if (cache.containsKey(next) || pending.containsKey(next)) continue;
+
+            ReadAhead task = new ReadAhead(next, frames.get(next), generation);                                          // The path is taken now; never read from the worker.
+            pending.put(next, task.decode);
+            try {
+                readAheadThread.execute(task);
+            } catch (RejectedExecutionException e) {                                                                    // Closed since the check above.
+                pending.remove(next, task.decode);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Removes decodes from {@link #pending}, completing each with <i>null</i>, so that anything waiting on them decodes the frame itself.
+     * Must be called whilst holding the lock on the cache.
+     */
+    private void abandon(Iterable<CompletableFuture<BufferedImage>> decodes) {
+        pending.values().removeIf(decode -> {
+            for (CompletableFuture<BufferedImage> abandoned : decodes)
+                if (abandoned == decode) return true;
+            return false;
+        });
+        for (CompletableFuture<BufferedImage> decode : decodes)
+            decode.complete(null);
+    }
+
+    /**
+     * Decodes a frame of an import, completing <i>into</i> with it, and caching it if that import is still current.
+     *
+     * @param readAhead <i>true</i> if running on the read-ahead thread, which {@link #close()} may interrupt.
+     */
+    private void decode(int i, File file, int of, CompletableFuture<BufferedImage> into, boolean readAhead) {
+        try {
+            BufferedImage image = ImageIO.read(file);
+            if (image == null) throw new IOException("No longer a readable image: " + file);
+            image = Resampler.fit(image, width, height);
+            cache(i, image, of);
+            into.complete(image);
+        } catch (IOException | RuntimeException e) {
+            if (readAhead && readAheadThread.isShutdown()) into.complete(null);                                         // Interrupted by close(); waiters decode it themselves.
+            else into.completeExceptionally(e instanceof IOException ? new UncheckedIOException((IOException) e) : e);
+        } finally {
+            synchronized (cache) {
+                pending.remove(i, into);
+            }
+        }
+    }
+
+    /**
+     * A frame queued to be decoded ahead of time, kept whole so that {@link #close()} can abandon any it drops.
+     */
+    private final class ReadAhead implements Runnable {
+
+        private final int frame, of;
+        private final File file;
+        private final CompletableFuture<BufferedImage> decode = new CompletableFuture<>();
+
+        ReadAhead(int frame, File file, int of) {
+            this.frame = frame;
+            this.file = file;
+            this.of = of;
+        }
+
+        @Override
+        public void run() {
+            synchronized (cache) {
+                if (of != generation) return;                                                                           // Already abandoned by a new import.
+            }
+            decode(frame, file, of, decode, true);
+        }
+    }
+
+    /**
+     * Adds a decoded frame of an import to the cache, evicting the least recently used frames until it fits the budget.
+     */
+    private void cache(int i, BufferedImage image, int of) {
+        synchronized (cache) {
+            if (of != generation) return;                                                                               // Decoded from a folder that has since been replaced.
+
+            BufferedImage replaced = cache.put(i, image);
+            if (replaced != null) cachedBytes -= sizeOf(replaced);
+            cachedBytes += sizeOf(image);
+
+            Iterator<Map.Entry<Integer, BufferedImage>> eldest = cache.entrySet().iterator();
+            while (cachedBytes > budget && cache.size() > 1) {
+                Map.Entry<Integer, BufferedImage> evict = eldest.next();
+                cachedBytes -= sizeOf(evict.getValue());
+                eldest.remove();
+            }
+        }
+    }
+
+    /**
+     * @return Estimated size of a decoded image's pixel data, in bytes.
+     */
+    static long sizeOf(BufferedImage image) {
+        DataBuffer data = image.getRaster().getDataBuffer();
+        return (long) data.getSize() * data.getNumBanks() * DataBuffer.getDataTypeSize(data.getDataType()) / 8;
+    }
+
+    /**
+     * Waits for a decode, unwrapping any failure.
+     */
+    private static BufferedImage await(CompletableFuture<BufferedImage> decode) {
+        try {
+            return decode.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted whilst waiting for a frame to decode.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
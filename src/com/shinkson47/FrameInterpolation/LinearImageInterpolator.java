@@ -1,27 +1,212 @@
 package com.shinkson47.FrameInterpolation;
 
-import javafx.embed.swing.SwingFXUtils;
-import javafx.scene.image.Image;
-import javafx.scene.image.PixelReader;
-import javafx.scene.paint.Color;
-
 import java.awt.image.BufferedImage;
-import java.awt.image.WritableRaster;
-import java.util.ArrayList;
+import java.io.IOException;
+import java.nio.IntBuffer;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
 
 /**
  * A static utility class for interpolating images
  *
- * @apiNote The usage of this class REQUIRES the availability of JavaFX in the runtime.
-            This class operates on JavaFX Images, but a wrapper for an awt BufferedImage is implemented.
-            For converting a BufferedImage to a JFX Image, see SwingFXUtils#toFXImage()
+ * @apiNote This class does not depend on JavaFX, and may be used headless.
+            It operates on awt BufferedImages, which are read directly from their rasters, and on arrays of packed pixels.
+            For JavaFX Images, see the demo's FXImageInterpolator.
+ * @implNote Images of differing resolutions are interpolated at the resolution of <i>pre</i>,
+ *           with <i>post</i> resampled to fit by {@link Resampler}.
  * @version 1
  * @author <a href="https://www.shinkson47.in">Jordan T. Gray</a>
  */
 public final class LinearImageInterpolator {
 
     /**
-     * Buffered Image Wrapper.
+     * 8 bit channel values, scaled to <i>0.0 - 1.0</i> with the same float precision a JavaFX Color stores them in.
+     */
+    private static final double[] CHANNEL = new double[256];
+
+    static {
+        for (int i = 0; i < CHANNEL.length; i++)
+            CHANNEL[i] = (float) (i / 255.0);
+    }
+
+    /**
+     * Linear light of each 8 bit sRGB channel, in 16 bit fixed point; <i>0 - 65535</i>
+     */
+    private static final int[] SRGB_TO_LINEAR = new int[256];
+
+    /**
+     * 8 bit sRGB channel nearest to each 16 bit fixed point linear light value.
+     */
+    private static final byte[] LINEAR_TO_SRGB = new byte[65536];
+
+    static {
+        for (int i = 0; i < SRGB_TO_LINEAR.length; i++) {
+            double srgb = i / 255.0;
+            double linear = srgb <= 0.04045 ? srgb / 12.92 : Math.pow((srgb + 0.055) / 1.055, 2.4);
+            SRGB_TO_LINEAR[i] = (int) Math.round(linear * 65535);
+        }
+
+        for (int i = 0; i < LINEAR_TO_SRGB.length; i++) {
+            double linear = i / 65535.0;
+            double srgb = linear <= 0.0031308 ? linear * 12.92 : 1.055 * Math.pow(linear, 1 / 2.4) - 0.055;
+            LINEAR_TO_SRGB[i] = (byte) Math.round(srgb * 255);
+        }
+    }
+
+    /**
+     * Arithmetic used to blend channels.
+     */
+    private static volatile BlendMode blendMode = BlendMode.EXACT;
+
+    /**
+     * Sets the arithmetic used to blend channels, for all subsequent interpolations.
+     *
+     * @param mode {@link BlendMode#EXACT} (default), {@link BlendMode#FIXED} for throughput at the cost of precision,
+     *             or {@link BlendMode#LINEAR} for crossfades that blend in linear light.
+     */
+    public static void setBlendMode(BlendMode mode) {
+        if (mode == null) throw new IllegalArgumentException("Blend mode cannot be null.");
+        blendMode = mode;
+    }
+
+    /**
+     * @return Arithmetic currently used to blend channels.
+     */
+    public static BlendMode getBlendMode() {
+        return blendMode;
+    }
+
+    /**
+     * Pool used to blend large images in parallel. <i>null</i> for the common pool.
+     */
+    private static volatile ForkJoinPool pool;
+
+    /**
+     * Smallest image, in pixels, that is blended in parallel.
+     */
+    private static volatile long parallelThreshold = 1 << 18;
+
+    /**
+     * Sets the pool used to blend large images in parallel, so that it may be shared with an existing service.
+     *
+     * @param _pool Pool to use, or <i>null</i> to use {@link ForkJoinPool#commonPool()}
+     */
+    public static void setPool(ForkJoinPool _pool) {
+        pool = _pool;
+    }
+
+    /**
+     * @return Pool used to blend large images in parallel.
+     */
+    public static ForkJoinPool getPool() {
+        ForkJoinPool current = pool;
+        return current == null ? ForkJoinPool.commonPool() : current;
+    }
+
+    /**
+     * Sets the smallest image that will be split into row bands and blended across {@link #getPool()}.
+     * Anything smaller is blended on the calling thread, where the overhead of forking would outweigh the work.
+     *
+     * @param pixels Minimum <i>width * height</i> to blend in parallel. {@link Long#MAX_VALUE} disables parallel blending.
+     */
+    public static void setParallelThreshold(long pixels) {
+        parallelThreshold = pixels;
+    }
+
+    /**
+     * @return Smallest image, in pixels, that is blended in parallel.
+     */
+    public static long getParallelThreshold() {
+        return parallelThreshold;
+    }
+
+    /**
+     * Width, in pixels, of the tiles each row is divided into when skipping unchanged tiles.
+     * Wide enough to amortise the comparison, narrow enough to isolate small changes.
+     */
+    static final int TILE_WIDTH = 64;
+
+    /**
+     * Whether tiles that are identical in both sources are copied, rather than blended.
+     */
+    private static volatile boolean tileSkipping;
+
+    private static final LongAdder tilesSkipped = new LongAdder();
+    private static final LongAdder tilesBlended = new LongAdder();
+
+    /**
+     * Sets whether rows are divided into tiles of {@link #TILE_WIDTH} pixels, with any tile that is identical in both
+     * sources copied straight to the output instead of blended, for all subsequent interpolations.
+     *
+     * Every blend mode leaves identical pixels unchanged at any point, so output is the same either way.
+     * Worthwhile for footage with large static regions, such as screen recordings, UI captures or fixed camera shots,
+     * where it saves far more than the comparison costs.
+     *
+     * @param enabled <i>true</i> to skip unchanged tiles. Disabled by default.
+     * @see #getSkippedTileFraction()
+     */
+    public static void setTileSkipping(boolean enabled) {
+        tileSkipping = enabled;
+    }
+
+    /**
+     * @return <i>true</i> if tiles that are identical in both sources are copied, rather than blended.
+     */
+    public static boolean isTileSkipping() {
+        return tileSkipping;
+    }
+
+    /**
+     * @return Number of tiles copied unchanged, since statistics were last reset.
+     */
+    public static long getTilesSkipped() {
+        return tilesSkipped.sum();
+    }
+
+    /**
+     * @return Number of tiles that differed, and were blended, since statistics were last reset.
+     */
+    public static long getTilesBlended() {
+        return tilesBlended.sum();
+    }
+
+    /**
+     * @return Fraction of tiles copied unchanged, between <i>0.0 and 1.0</i>, since statistics were last reset.
+     */
+    public static double getSkippedTileFraction() {
+        long skipped = tilesSkipped.sum(), total = skipped + tilesBlended.sum();
+        return total == 0 ? 0 : (double) skipped / total;
+    }
+
+    /**
+     * Resets the tile statistics to <i>0</i>.
+     */
+    public static void resetTileStatistics() {
+        tilesSkipped.reset();
+        tilesBlended.reset();
+    }
+
+    /**
+     * Reusable row buffers for sources that cannot be read in place; pre, and post.
+     */
+    private static final ThreadLocal<int[][]> SCRATCH = ThreadLocal.withInitial(() -> new int[2][0]);
+
+    /**
+     * Number of recently used lerp tables kept, see {@link #cachedLerpTable(double)}
+     */
+    private static final int CACHED_LERP_TABLES = 8;
+
+    private static final double[] cachedLerpPoints = new double[CACHED_LERP_TABLES];
+    private static final byte[][] cachedLerpTables = new byte[CACHED_LERP_TABLES][];
+    private static int nextCachedLerpTable;
+
+    /**
+     * Buffered Image implementation.
+     *
+     * Reads packed pixels straight from the backing arrays of both images, row by row, with a loop specialised for
+     * each image's sample layout.
      *
      * Calculates an inter-image blended from an imagery spectrum between <i>0 and 1</i>, defined by two existing images,
      * where <i>pre</i> represents <i>interpol = 0</i>, and <i>post</i> represents <i>interpol = 1</i>
@@ -29,100 +214,647 @@ public final class LinearImageInterpolator {
      * @param pre awt BufferedImage picture that represents <i>interpol = 0</i>
      * @param post awt BufferedImage picture that represents <i>interpol = 1</i>
      * @param interpol Blend value between <i>0.0 and 1.0</i>
-     * @return Blended image, as found as <i>interpol</i> percents between <i>pre</i> and <i>post</i>
+     * @return Blended image, as found as <i>interpol</i> percents between <i>pre</i> and <i>post</i>.
+     *         TYPE_INT_ARGB if either source has alpha, otherwise TYPE_INT_RGB.
      */
     public static BufferedImage InterpolateImage(BufferedImage pre, BufferedImage post, double interpol) {
-        return InterpolateImage(SwingFXUtils.toFXImage(pre, null), SwingFXUtils.toFXImage(post,null), interpol);
+        PackedRaster preRaster = new PackedRaster(pre);
+        PackedRaster postRaster = new PackedRaster(post);
+        BufferedImage out = new BufferedImage(preRaster.width, preRaster.height, outputType(preRaster, postRaster));
+        interpolateInto(out, preRaster, postRaster, interpol);
+        return out;
     }
 
     /**
-     * Calculates an inter-image blended from an imagery spectrum between <i>0 and 1</i>, defined by two existing images,
-     * where <i>pre</i> represents <i>interpol = 0</i>, and <i>post</i> represents <i>interpol = 1</i>
+     * Buffered Image implementation, into an existing image.
+     *
+     * Writes the blend into the backing array of <i>dest</i>, so that repeated interpolation, such as whilst scrubbing or
+     * playing back, allocates no images. Destinations may be recycled with a {@link FramePool}.
+     *
+     * @param dest TYPE_INT_RGB or TYPE_INT_ARGB image of the same size as <i>pre</i>, that has not been sub-imaged.
+     *             TYPE_INT_ARGB destinations receive blended alpha, with any source that has no alpha treated as opaque.
+     *             Otherwise, the top byte of each pixel is written as <i>0</i>.
      * @param pre awt BufferedImage picture that represents <i>interpol = 0</i>
      * @param post awt BufferedImage picture that represents <i>interpol = 1</i>
      * @param interpol Blend value between <i>0.0 and 1.0</i>
-     * @return Blended image, as found as <i>interpol</i> percents between <i>pre</i> and <i>post</i>
+     * @throws IllegalArgumentException if <i>dest</i> cannot be written to directly.
      */
-    public static BufferedImage InterpolateImage(Image pre, Image post, double interpol) {
-        return InterpolateImage((int)pre.getWidth(), (int)pre.getHeight(), pre.getPixelReader(), post.getPixelReader(), interpol);
+    public static void interpolateInto(BufferedImage dest, BufferedImage pre, BufferedImage post, double interpol) {
+        interpolateInto(dest, new PackedRaster(pre), new PackedRaster(post), interpol);                                 // Read both images straight from their backing arrays.
     }
 
     /**
-     * Volatile wrapper.
+     * Packed raster implementation, into an existing image.
      *
-     * Keeps final instances of the images.
-     *
-     * @implNote This method will only work for one image set, and is intended for repeating interpols on the same image set,
-     *           such as the demonstration program this was developed with.
+     * @see #interpolateInto(BufferedImage, BufferedImage, BufferedImage, double)
+     */
+    static void interpolateInto(BufferedImage dest, PackedRaster preRaster, PackedRaster postRaster, double interpol) {
+        postRaster = Resampler.fit(postRaster, preRaster.width, preRaster.height);
+
+        int[] out = PackedRaster.writablePixels(dest, preRaster.width, preRaster.height);
+        boolean alpha = dest.getType() == BufferedImage.TYPE_INT_ARGB;
+        blend(preRaster, postRaster, new int[][]{out}, MultiRowBlender.of(alpha ? blendMode.alphaBlender(interpol) : blendMode.blender(interpol)), alpha);
+    }
+
+    /**
+     * Buffered Image implementation, into existing images at multiple points.
      *
-     * Calculates an inter-image blended from an imagery spectrum between <i>0 and 1</i>, defined by two existing images,
-     * where <i>pre</i> represents <i>interpol = 0</i>, and <i>post</i> represents <i>interpol = 1</i>
+     * @param dest one image per point of <i>interpol</i>, see {@link #interpolateInto(BufferedImage, BufferedImage, BufferedImage, double)}.
+     *             If any is TYPE_INT_ARGB, the top byte of every destination is written with blended alpha.
      * @param pre awt BufferedImage picture that represents <i>interpol = 0</i>
      * @param post awt BufferedImage picture that represents <i>interpol = 1</i>
-     * @param interpol Blend value between <i>0.0 and 1.0</i>
-     * @return Blended image, as found as <i>interpol</i> percents between <i>pre</i> and <i>post</i>
+     * @param interpol Blend values, each between <i>0.0 and 1.0</i>
+     * @throws IllegalArgumentException if there is not one destination per point, or any cannot be written to directly.
      */
-    public static BufferedImage VolatileInterpolateImage(final Image pre, final Image post, double interpol) {
-        return InterpolateImage((int)pre.getWidth(), (int)pre.getHeight(), pre.getPixelReader(), post.getPixelReader(), interpol);
+    public static void interpolateInto(BufferedImage[] dest, BufferedImage pre, BufferedImage post, double[] interpol) {
+        if (dest.length != interpol.length) throw new IllegalArgumentException("One destination is required per point of interpolation.");
+
+        PackedRaster preRaster = new PackedRaster(pre);
+        PackedRaster postRaster = Resampler.fit(new PackedRaster(post), preRaster.width, preRaster.height);
+
+        int[][] out = new int[dest.length][];
+        boolean alpha = false;
+        for (int i = 0; i < out.length; i++) {
+            out[i] = PackedRaster.writablePixels(dest[i], preRaster.width, preRaster.height);
+            alpha |= dest[i].getType() == BufferedImage.TYPE_INT_ARGB;
+        }
+
+        blend(preRaster, postRaster, out, alpha ? blendMode.alphaBlender(interpol) : blendMode.blender(interpol), alpha);
     }
 
     /**
-     * Interpolates between two images at multiple points.
+     * Buffered Image implementation, at multiple points.
      *
-     * Calculates an inter-image blended from an imagery spectrum between <i>0 and 1</i>, defined by two existing images,
-     * where <i>pre</i> represents <i>interpol = 0</i>, and <i>post</i> represents <i>interpol = 1</i>
+     * Both images are read only once, with every point blended from each row while it is still in cache.
      *
      * @param pre awt BufferedImage picture that represents <i>interpol = 0</i>
      * @param post awt BufferedImage picture that represents <i>interpol = 1</i>
+     * @param interpol Blend values, each between <i>0.0 and 1.0</i>
+     * @return Array of blended images found at all provided <i>interpol</i>s percents between <i>pre</i> and <i>post</i>.
+     *         TYPE_INT_ARGB if either source has alpha, otherwise TYPE_INT_RGB.
+     */
+    public static BufferedImage[] InterpolateImage(BufferedImage pre, BufferedImage post, double[] interpol) {
+        return InterpolateImage(new PackedRaster(pre), new PackedRaster(post), interpol, null);
+    }
+
+    /**
+     * Packed raster implementation, at multiple points.
+     *
+     * @param pool pool to borrow TYPE_INT_RGB output frames from, or <i>null</i> to create them. TYPE_INT_ARGB frames are always created.
+     * @see #InterpolateImage(BufferedImage, BufferedImage, double[])
+     */
+    static BufferedImage[] InterpolateImage(PackedRaster preRaster, PackedRaster postRaster, double[] interpol, FramePool pool) {
+        postRaster = Resampler.fit(postRaster, preRaster.width, preRaster.height);
+
+        boolean alpha = outputType(preRaster, postRaster) == BufferedImage.TYPE_INT_ARGB;
+        BufferedImage[] out = outputFrames(preRaster, postRaster, interpol.length, pool);
+        int[][] outPixels = new int[out.length][];
+        for (int i = 0; i < out.length; i++)
+            outPixels[i] = PackedRaster.pixels(out[i]);
+
+        blend(preRaster, postRaster, outPixels, alpha ? blendMode.alphaBlender(interpol) : blendMode.blender(interpol), alpha);
+        return out;
+    }
+
+    /**
+     * Packed raster implementation, at multiple points, that may be abandoned part way through, such as by a newer request.
+     *
+     * Every point is still blended from each row whilst it is in cache; <i>cancelled</i> is checked between runs of rows
+     * within each band, so that a cancelled blend stops after a few thousand pixels per thread, rather than at the end of the image.
+     *
+     * @param cancelled <i>true</i> once the frames are no longer wanted. Called from every thread of the blend.
+     * @return The blended frames, or <i>null</i> if cancelled, having released any that were borrowed back to <i>pool</i>.
+     * @see #InterpolateImage(PackedRaster, PackedRaster, double[], FramePool)
+     */
+    static BufferedImage[] InterpolateImage(PackedRaster preRaster, PackedRaster postRaster, double[] interpol, FramePool pool, BooleanSupplier cancelled) {
+        final PackedRaster pre = preRaster, post = Resampler.fit(postRaster, preRaster.width, preRaster.height);
+
+        final boolean alpha = outputType(pre, post) == BufferedImage.TYPE_INT_ARGB;
+        final MultiRowBlender blender = alpha ? blendMode.alphaBlender(interpol) : blendMode.blender(interpol);
+        BufferedImage[] out = outputFrames(pre, post, interpol.length, pool);
+        final int[][] outPixels = new int[out.length][];
+        for (int i = 0; i < out.length; i++)
+            outPixels[i] = PackedRaster.pixels(out[i]);
+
+        final int step = Math.max(1, Bands.MIN_BAND_PIXELS / Math.max(1, pre.width));                                        // Rows blended between each check.
+        Bands.run(pre.height, (long) pre.width * pre.height, (from, to) -> {
+            for (int y = from; y < to && !cancelled.getAsBoolean(); y += step)
+                blendRows(pre, post, outPixels, blender, alpha, y, Math.min(to, y + step));
+        });
+
+        if (!cancelled.getAsBoolean()) return out;
+        if (pool != null) pool.release(out);
+        return null;
+    }
+
+    /**
+     * @param pool pool to borrow TYPE_INT_RGB frames from, or <i>null</i> to create them. TYPE_INT_ARGB frames are always created.
+     * @return Frames to blend <i>count</i> points of a pair into, of the size of <i>pre</i>, and type of {@link #outputType(PackedRaster, PackedRaster)}
+     */
+    private static BufferedImage[] outputFrames(PackedRaster pre, PackedRaster post, int count, FramePool pool) {
+        int type = outputType(pre, post);
+        BufferedImage[] out = new BufferedImage[count];
+        for (int i = 0; i < out.length; i++)
+            out[i] = pool == null || type == BufferedImage.TYPE_INT_ARGB ? new BufferedImage(pre.width, pre.height, type)
+                                                                         : pool.borrow(pre.width, pre.height);
+        return out;
+    }
+
+    /**
+     * Provides the output of a pair of identical frames, which is the same frame at every point, without blending.
+     *
+     * @param frame either frame of the pair.
+     * @param points number of points the pair is interpolated at.
+     * @param pool pool to borrow TYPE_INT_RGB output frames from, or <i>null</i> to create them.
+     * @return One frame per point. Without a pool, every point refers to a single copy; with one, each point is its own
+     *         copy, so that each may be released independently.
+     */
+    static BufferedImage[] copies(PackedRaster frame, int points, FramePool pool) {
+        int type = outputType(frame, frame);
+        boolean shared = pool == null || type == BufferedImage.TYPE_INT_ARGB;                                         // Nothing could release a shared frame back to the pool.
+
+        BufferedImage[] out = new BufferedImage[points];
+        out[0] = shared ? new BufferedImage(frame.width, frame.height, type) : pool.borrow(frame.width, frame.height);
+        copyInto(out[0], frame);
+
+        for (int i = 1; i < points; i++) {
+            if (shared) {
+                out[i] = out[0];
+                continue;
+            }
+            out[i] = pool.borrow(frame.width, frame.height);
+            System.arraycopy(PackedRaster.pixels(out[0]), 0, PackedRaster.pixels(out[i]), 0, frame.width * frame.height);
+        }
+        return out;
+    }
+
+    /**
+     * Copies a frame into an existing image, as blending it with itself would, at any point.
+     *
+     * @param dest TYPE_INT_RGB or TYPE_INT_ARGB image of the same size as <i>frame</i>, that has not been sub-imaged.
+     * @param frame frame to copy.
+     * @throws IllegalArgumentException if <i>dest</i> cannot be written to directly.
+     */
+    static void copyInto(BufferedImage dest, PackedRaster frame) {
+        int[] out = PackedRaster.writablePixels(dest, frame.width, frame.height);
+        int[] scratch = scratch(frame.width, 0)[0];
+
+        if (dest.getType() == BufferedImage.TYPE_INT_ARGB)
+            for (int y = 0; y < frame.height; y++)
+                System.arraycopy(frame.argbRow(y, scratch), frame.argbRowOffset(y), out, y * frame.width, frame.width);
+        else
+            for (int y = 0; y < frame.height; y++) {
+                int[] row = frame.row(y, scratch);
+                for (int x = 0, i = frame.rowOffset(y), o = y * frame.width; x < frame.width; x++)                    // Top byte cleared, as any blend writes it.
+                    out[o + x] = row[i + x] & 0xFFFFFF;
+            }
+    }
+
+    /**
+     * @return TYPE_INT_ARGB if either source has alpha, otherwise TYPE_INT_RGB.
+     */
+    private static int outputType(PackedRaster pre, PackedRaster post) {
+        return pre.hasAlpha || post.hasAlpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+    }
+
+    /**
+     * Packed pixel implementation.
+     *
+     * Blends two arrays of packed <i>0xRRGGBB</i> pixels, row after row, into a third. The top byte of each source pixel
+     * is ignored, and the top byte of each output pixel is <i>0</i>.
+     *
+     * @param width width of the images, and the stride of each row.
+     * @param height height of the images.
+     * @param pre pixels of the image that represents <i>interpol = 0</i>
+     * @param post pixels of the image that represents <i>interpol = 1</i>
+     * @param out array to write the blended pixels to. May be <i>pre</i> or <i>post</i>.
      * @param interpol Blend value between <i>0.0 and 1.0</i>
-     * @return Array of blended images found at all provided <i>interpol</i>s percents between <i>pre</i> and <i>post</i>
+     * @throws IndexOutOfBoundsException if any array holds fewer than <i>width * height</i> pixels.
      */
-    public static BufferedImage[] InterpolateImage(Image pre, Image post, double[] interpol) {
-        ArrayList<BufferedImage> OutputBuffer = new ArrayList<BufferedImage>();
+    public static void InterpolatePixels(int width, int height, int[] pre, int[] post, int[] out, double interpol) {
+        InterpolatePixels(width, height, pre, post, new int[][]{out}, new double[]{interpol});
+    }
 
-        for (int i = 0; i <= interpol.length -1; i++)
-            OutputBuffer.add(InterpolateImage(pre,post,interpol[i]));
+    /**
+     * Packed pixel implementation, at multiple points.
+     *
+     * @param out arrays to write the blended pixels to, one per point of <i>interpol</i>.
+     * @param interpol Blend values, each between <i>0.0 and 1.0</i>
+     * @throws IndexOutOfBoundsException if any array holds fewer than <i>width * height</i> pixels.
+     * @see #InterpolatePixels(int, int, int[], int[], int[], double)
+     */
+    public static void InterpolatePixels(int width, int height, int[] pre, int[] post, int[][] out, double[] interpol) {
+        if (out.length != interpol.length) throw new IllegalArgumentException("One output is required per point of interpolation.");
+        assertHolds(pre, width, height);
+        assertHolds(post, width, height);
+        for (int[] pixels : out)
+            assertHolds(pixels, width, height);
 
-        BufferedImage[] ReturnArray = new BufferedImage[interpol.length];
-        OutputBuffer.toArray(ReturnArray);
-        return ReturnArray;
+        MultiRowBlender blender = interpol.length == 1 ? MultiRowBlender.of(blendMode.blender(interpol[0]))           // Single points may use the mode's own kernel.
+                                                       : blendMode.blender(interpol);
+        blend(new PackedRaster(pre, width, height), new PackedRaster(post, width, height), out, blender, false);
     }
 
     /**
-     * Calculates an inter-image blended from an imagery spectrum between <i>0 and 1</i>, defined by two existing images,
-     * where <i>pre</i> represents <i>interpol = 0</i>, and <i>post</i> represents <i>interpol = 1</i>
+     * Blends every row of two rasters, across {@link #getPool()} if the image is at least
+     * {@link #getParallelThreshold()} pixels, otherwise on the calling thread.
      *
-     * @implSpec width & height MUST NOT exceed the dimensions of the smallest image.
-     * @implNote For best results, interpolate between two images of the same resolution.
+     * @param pre raster that represents <i>interpol = 0</i>
+     * @param post raster that represents <i>interpol = 1</i>
+     * @param out packed pixels of every destination, <i>pre.width</i> pixels per row.
+     * @param blender kernel used to blend each row.
+     * @param alpha <i>true</i> to provide the blender with rows whose top byte is alpha, see {@link PackedRaster#argbRow(int, int[])}
+     */
+    static void blend(PackedRaster pre, PackedRaster post, int[][] out, MultiRowBlender blender, boolean alpha) {
+        Bands.run(pre.height, (long) pre.width * pre.height, (from, to) -> blendRows(pre, post, out, blender, alpha, from, to));
+    }
+
+    /**
+     * Blends a band of rows of two rasters on the calling thread.
      *
-     * @param width width of the image to extract
-     * @param height height of the image to extract
-     * @param preReader Pixel reader of the first image
-     * @param postReader Pixel reader of the second image
-     * @param interpol Point of image interpolation, between <i>0.0 and 1.0<i/>.
-     * @throws IndexOutOfBoundsException if width or height are larger than the images found in either of the pixel readers.
-     * @return Blended image, as found as <i>interpol</i> percents between <i>pre</i> and <i>post</i>
+     * @param fromRow first row to blend, inclusive.
+     * @param toRow last row to blend, exclusive.
+     * @see #blend(PackedRaster, PackedRaster, int[][], MultiRowBlender, boolean)
      */
-    public static BufferedImage InterpolateImage(int width, int height, PixelReader preReader, PixelReader postReader, double interpol) {
-        BufferedImage out = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);                               // Image buffer to write calculation results to.
-        WritableRaster outRaster = out.getRaster();                                                                     // Create a better reference to the raster used in writing pixels.
+    static void blendRows(PackedRaster pre, PackedRaster post, int[][] out, MultiRowBlender blender, boolean alpha, int fromRow, int toRow) {
+        int[][] scratch = scratch(pre.width, post.width);                                                               // Row buffers for layouts that cannot be read in place.
+        int[] preScratch = scratch[0], postScratch = scratch[1];
 
-        for(int pixelX = 0; pixelX <= out.getWidth()-1; pixelX++)                                                       // For every row,
-            for(int pixelY = 0; pixelY <= out.getHeight()-1; pixelY++){                                                 // and every column,
+        if (tileSkipping) {
+            long skipped = 0;
+            for (int y = fromRow; y < toRow; y++)
+                skipped += alpha ? blendTiles(pre.argbRow(y, preScratch), pre.argbRowOffset(y), post.argbRow(y, postScratch), post.argbRowOffset(y),
+                                              out, y * pre.width, pre.width, blender, true)
+                                 : blendTiles(pre.row(y, preScratch), pre.rowOffset(y), post.row(y, postScratch), post.rowOffset(y),
+                                              out, y * pre.width, pre.width, blender, false);
 
-                Color preCurrentPixel = preReader.getColor(pixelX, pixelY);                                             // Get the color of the current pixel on both images.
-                Color postCurrentPixel = postReader.getColor(pixelX, pixelY);
+            long tiles = (long) (toRow - fromRow) * ((pre.width + TILE_WIDTH - 1) / TILE_WIDTH);                       // Counted once per band; never per tile.
+            tilesSkipped.add(skipped);
+            tilesBlended.add(tiles - skipped);
+        } else if (alpha)
+            for (int y = fromRow; y < toRow; y++)
+                blender.blendRow(pre.argbRow(y, preScratch), pre.argbRowOffset(y),
+                                 post.argbRow(y, postScratch), post.argbRowOffset(y),
+                                 out, y * pre.width, pre.width);
+        else
+            for (int y = fromRow; y < toRow; y++)                                                                       // Row by row, in memory order.
+                blender.blendRow(pre.row(y, preScratch), pre.rowOffset(y),
+                                 post.row(y, postScratch), post.rowOffset(y),
+                                 out, y * pre.width, pre.width);
+    }
 
-                outRaster.setPixel(pixelX,pixelY, new int[]{                                                            // Write to out;
-                        lerpPixel255(preCurrentPixel.getRed(), postCurrentPixel.getRed(), interpol),                    // lerped value between pre and post R, G, and B, according to interpol.
-                        lerpPixel255(preCurrentPixel.getGreen(), postCurrentPixel.getGreen(), interpol),
-                        lerpPixel255(preCurrentPixel.getBlue(), postCurrentPixel.getBlue(), interpol),
-                });
+    /**
+     * Blends every row of two rasters straight into packed pixels held outside of the heap, such as the frames of a
+     * {@link MappedFrameBuffer}. Each row is blended into a scratch row whilst it is still in cache, then stored into
+     * every destination, so no output frame is ever staged on the heap.
+     *
+     * @param out one destination per point of <i>interpol</i>, of <i>pre.width * pre.height</i> packed <i>0xRRGGBB</i> pixels.
+     *            Their positions are not moved.
+     * @param pre raster that represents <i>interpol = 0</i>
+     * @param post raster that represents <i>interpol = 1</i>, resampled if it is not the size of <i>pre</i>
+     * @param interpol Blend values, each between <i>0.0 and 1.0</i>
+     */
+    static void blendInto(IntBuffer[] out, PackedRaster pre, PackedRaster post, double[] interpol) {
+        final PackedRaster postRaster = Resampler.fit(post, pre.width, pre.height);
+        final MultiRowBlender blender = interpol.length == 1 ? MultiRowBlender.of(blendMode.blender(interpol[0]))
+                                                             : blendMode.blender(interpol);
+        final boolean skipTiles = tileSkipping;
+        final int width = pre.width;
+
+        Bands.run(pre.height, (long) width * pre.height * interpol.length, (from, to) -> {
+            int[][] scratch = scratch(width, width);
+            int[][] rows = new int[out.length][width];
+            IntBuffer[] views = new IntBuffer[out.length];
+            for (int i = 0; i < out.length; i++)
+                views[i] = out[i].duplicate();                                                                          // Own positions, as other bands write the same buffers.
+
+            long skipped = 0;
+            for (int y = from; y < to; y++) {
+                int[] preRow = pre.row(y, scratch[0]), postRow = postRaster.row(y, scratch[1]);
+                if (skipTiles) skipped += blendTiles(preRow, pre.rowOffset(y), postRow, postRaster.rowOffset(y), rows, 0, width, blender, false);
+                else           blender.blendRow(preRow, pre.rowOffset(y), postRow, postRaster.rowOffset(y), rows, 0, width);
+
+                for (int i = 0; i < views.length; i++) {
+                    views[i].position(y * width);
+                    views[i].put(rows[i], 0, width);
+                }
             }
 
-        return out;
+            if (skipTiles) {
+                long tiles = (long) (to - from) * ((width + TILE_WIDTH - 1) / TILE_WIDTH);
+                tilesSkipped.add(skipped);
+                tilesBlended.add(tiles - skipped);
+            }
+        });
+    }
+
+    /**
+     * Blends a row tile by tile, copying every tile that is identical in both sources instead of blending it.
+     *
+     * Each tile is compared by OR-ing the XOR of every pair of pixels, which has no early exit, so the JIT can vectorise it.
+     * Consecutive tiles that differ are handed to the blender as one run.
+     *
+     * @param alpha <i>true</i> if the top byte of each pixel is alpha, and must match too; otherwise it is ignored, and written as <i>0</i>.
+     * @return Number of tiles copied.
+     * @see #setTileSkipping(boolean)
+     */
+    static int blendTiles(int[] pre, int preOffset, int[] post, int postOffset, int[][] out, int outOffset, int length, MultiRowBlender blender, boolean alpha) {
+        final int mask = alpha ? 0xFFFFFFFF : 0xFFFFFF;
+        int skipped = 0, dirtyFrom = -1;                                                                                // Start of the current run of differing tiles.
+
+        for (int x = 0; x < length; x += TILE_WIDTH) {
+            int tile = Math.min(TILE_WIDTH, length - x);
+            int difference = 0;
+            for (int i = 0; i < tile; i++)
+                difference |= pre[preOffset + x + i] ^ post[postOffset + x + i];
+
+            if ((difference & mask) != 0) {
+                if (dirtyFrom < 0) dirtyFrom = x;
+                continue;
+            }
+
+            if (dirtyFrom >= 0) {
+                blender.blendRow(pre, preOffset + dirtyFrom, post, postOffset + dirtyFrom, out, outOffset + dirtyFrom, x - dirtyFrom);
+                dirtyFrom = -1;
+            }
+            for (int[] frame : out)
+                if (alpha)
+                    System.arraycopy(pre, preOffset + x, frame, outOffset + x, tile);
+                else
+                    for (int i = 0; i < tile; i++)                                                                      // Copied with the top byte cleared, as any blend writes it.
+                        frame[outOffset + x + i] = pre[preOffset + x + i] & 0xFFFFFF;
+            skipped++;
+        }
+
+        if (dirtyFrom >= 0)
+            blender.blendRow(pre, preOffset + dirtyFrom, post, postOffset + dirtyFrom, out, outOffset + dirtyFrom, length - dirtyFrom);
+        return skipped;
     }
 
+    /**
+     * @return This thread's {@link #SCRATCH} row buffers, grown to hold rows of the given widths.
+     */
+    private static int[][] scratch(int preWidth, int postWidth) {
+        int[][] scratch = SCRATCH.get();
+        if (scratch[0].length < preWidth || scratch[1].length < postWidth) {
+            scratch = new int[][]{new int[Math.max(preWidth, scratch[0].length)], new int[Math.max(postWidth, scratch[1].length)]};
+            SCRATCH.set(scratch);
+        }
+        return scratch;
+    }
+
+    /**
+     * Lerps a row of packed <i>0xAARRGGBB</i> pixels, in premultiplied alpha.
+     *
+     * Each colour is weighted by its alpha before blending, then divided by the blended alpha, so the colour of a
+     * transparent pixel, which is meaningless, never bleeds into its neighbour in time.
+     * Runs of pixels that are opaque in both rows, by far the most common case, are handed to <i>opaque</i> whole.
+     *
+     * @param weight Point of image interpolation, between <i>0 and 256<i/>, see {@link #fixedWeight(double)}
+     * @param opaque kernel for pixels that are opaque in both rows, at the same point.
+     * @see #blendRow(int[], int, int[], int, int[], int, int, byte[])
+     */
+    static void blendRowAlpha(int[] pre, int preOffset, int[] post, int postOffset, int[] out, int outOffset, int length, int weight, RowBlender opaque) {
+        final int inverse = 256 - weight;
+        int i = 0;
+        while (i < length) {
+            int run = i;
+            while (run < length && (pre[preOffset + run] & post[postOffset + run]) >>> 24 == 0xFF)
+                run++;
+
+            if (run > i) {
+                opaque.blendRow(pre, preOffset + i, post, postOffset + i, out, outOffset + i, run - i);
+                for (; i < run; i++)
+                    out[outOffset + i] |= 0xFF000000;
+                continue;
+            }
+
+            int prePixel = pre[preOffset + i];
+            int postPixel = post[postOffset + i];
+            int preWeight = (prePixel >>> 24) * inverse;                                                                // Alpha in 1/256ths, so at most 255 * 256.
+            int postWeight = (postPixel >>> 24) * weight;
+            int alpha = preWeight + postWeight;
+
+            out[outOffset + i++] = alpha == 0 ? (weight < 128 ? prePixel : postPixel) :                                 // Fully transparent; the nearest source, which is too.
+                    (alpha >>> 8) << 24
+                  | ((prePixel >> 16 & 0xFF) * preWeight + (postPixel >> 16 & 0xFF) * postWeight) / alpha << 16
+                  | ((prePixel >> 8 & 0xFF) * preWeight + (postPixel >> 8 & 0xFF) * postWeight) / alpha << 8
+                  | ((prePixel & 0xFF) * preWeight + (postPixel & 0xFF) * postWeight) / alpha;
+        }
+    }
+
+    /**
+     * Lerps a row of packed <i>0xRRGGBB</i> pixels.
+     *
+     * @param pre array containing the row of the image that represents <i>interpol = 0</i>
+     * @param preOffset index of the first pixel of the row within <i>pre</i>
+     * @param post array containing the row of the image that represents <i>interpol = 1</i>
+     * @param postOffset index of the first pixel of the row within <i>post</i>
+     * @param out array to write the blended row to.
+     * @param outOffset index within <i>out</i> to write the first pixel to.
+     * @param length number of pixels in the row.
+     * @param lerpTable table of every channel lerp at the point of interpolation, see {@link #lerpTable(double)}
+     */
+    static void blendRow(int[] pre, int preOffset, int[] post, int postOffset, int[] out, int outOffset, int length, byte[] lerpTable) {
+        for (int i = 0; i < length; i++) {
+            int prePixel = pre[preOffset + i];
+            int postPixel = post[postOffset + i];
+
+            out[outOffset + i] =
+                    (lerpTable[(prePixel >> 8 & 0xFF00) | (postPixel >> 16 & 0xFF)] & 0xFF) << 16
+                  | (lerpTable[(prePixel & 0xFF00)      | (postPixel >> 8 & 0xFF)]  & 0xFF) << 8
+                  | (lerpTable[(prePixel << 8 & 0xFF00) | (postPixel & 0xFF)]       & 0xFF);
+        }
+    }
+
+    /**
+     * Lerps a row of packed <i>0xRRGGBB</i> pixels at several points at once.
+     *
+     * The table index of each channel pair is found once per pixel, then looked up in the table of every point.
+     * Output is identical to {@link #blendRow(int[], int, int[], int, int[], int, int, byte[])} at each point.
+     *
+     * @param lerpTables tables of every channel lerp, see {@link #lerpTable(double)}, one per array of <i>out</i>.
+     */
+    static void blendRow(int[] pre, int preOffset, int[] post, int postOffset, int[][] out, int outOffset, int length, byte[][] lerpTables) {
+        for (int i = 0; i < length; i++) {
+            int prePixel = pre[preOffset + i];
+            int postPixel = post[postOffset + i];
+
+            int red = (prePixel >> 8 & 0xFF00) | (postPixel >> 16 & 0xFF);
+            int green = (prePixel & 0xFF00) | (postPixel >> 8 & 0xFF);
+            int blue = (prePixel << 8 & 0xFF00) | (postPixel & 0xFF);
+
+            for (int frame = 0; frame < lerpTables.length; frame++) {
+                byte[] lerpTable = lerpTables[frame];
+                out[frame][outOffset + i] = (lerpTable[red] & 0xFF) << 16 | (lerpTable[green] & 0xFF) << 8 | (lerpTable[blue] & 0xFF);
+            }
+        }
+    }
+
+    /**
+     * Lerps a row of packed <i>0xRRGGBB</i> pixels in 8 bit fixed point.
+     *
+     * Red and blue are blended together in a single int, with green blended separately.
+     * Each channel field is wide enough to hold <i>255 * 256</i>, so neither field can carry into the other.
+     *
+     * @see BlendMode#FIXED
+     * @param weight Point of image interpolation, between <i>0 and 256<i/>, see {@link #fixedWeight(double)}
+     */
+    static void blendRowFixed(int[] pre, int preOffset, int[] post, int postOffset, int[] out, int outOffset, int length, int weight) {
+        final int inverse = 256 - weight;
+        for (int i = 0; i < length; i++) {
+            int prePixel = pre[preOffset + i];
+            int postPixel = post[postOffset + i];
+
+            int redBlue = (prePixel & 0xFF00FF) * inverse + (postPixel & 0xFF00FF) * weight;                            // 0x RRRR BBBB, after weighting.
+            int green = (prePixel & 0x00FF00) * inverse + (postPixel & 0x00FF00) * weight;                              // 0x00 GGGG 00, after weighting.
+
+            out[outOffset + i] = (redBlue >>> 8 & 0xFF00FF) | (green >>> 8 & 0x00FF00);
+        }
+    }
+
+    /**
+     * Lerps a row of packed <i>0xRRGGBB</i> pixels in 8 bit fixed point, at several points at once.
+     *
+     * The difference between each channel of <i>pre</i> and <i>post</i> is found once per pixel,
+     * then each output is <i>pre + ((post - pre) * weight >> 8)</i>, which is identical to {@link #blendRowFixed}.
+     *
+     * @param weights Points of image interpolation, between <i>0 and 256<i/>, one per array of <i>out</i>.
+     */
+    static void blendRowFixed(int[] pre, int preOffset, int[] post, int postOffset, int[][] out, int outOffset, int length, int[] weights) {
+        for (int i = 0; i < length; i++) {
+            int prePixel = pre[preOffset + i];
+            int postPixel = post[postOffset + i];
+
+            int red = prePixel >> 16 & 0xFF, green = prePixel >> 8 & 0xFF, blue = prePixel & 0xFF;
+            int redDelta = (postPixel >> 16 & 0xFF) - red;
+            int greenDelta = (postPixel >> 8 & 0xFF) - green;
+            int blueDelta = (postPixel & 0xFF) - blue;
+            red <<= 8;
+            green <<= 8;
+            blue <<= 8;
+
+            for (int frame = 0; frame < weights.length; frame++) {
+                int weight = weights[frame];
+                out[frame][outOffset + i] = (red + redDelta * weight) >> 8 << 16
+                                          | (green + greenDelta * weight) >> 8 << 8
+                                          | (blue + blueDelta * weight) >> 8;
+            }
+        }
+    }
+
+    /**
+     * Lerps a row of packed <i>0xRRGGBB</i> pixels in linear light.
+     *
+     * Each channel is decoded through {@link #SRGB_TO_LINEAR}, weighted in 16 bit fixed point,
+     * and re-encoded through {@link #LINEAR_TO_SRGB}.
+     *
+     * @see BlendMode#LINEAR
+     * @param weight Point of image interpolation, between <i>0 and 256<i/>, see {@link #fixedWeight(double)}
+     */
+    static void blendRowLinear(int[] pre, int preOffset, int[] post, int postOffset, int[] out, int outOffset, int length, int weight) {
+        final int inverse = 256 - weight;
+        final int[] decode = SRGB_TO_LINEAR;
+        final byte[] encode = LINEAR_TO_SRGB;
+        for (int i = 0; i < length; i++) {
+            int prePixel = pre[preOffset + i];
+            int postPixel = post[postOffset + i];
+
+            int red = decode[prePixel >> 16 & 0xFF] * inverse + decode[postPixel >> 16 & 0xFF] * weight + 128 >> 8;    // At most 65535 * 256; no overflow.
+            int green = decode[prePixel >> 8 & 0xFF] * inverse + decode[postPixel >> 8 & 0xFF] * weight + 128 >> 8;
+            int blue = decode[prePixel & 0xFF] * inverse + decode[postPixel & 0xFF] * weight + 128 >> 8;
+
+            out[outOffset + i] = (encode[red] & 0xFF) << 16 | (encode[green] & 0xFF) << 8 | (encode[blue] & 0xFF);
+        }
+    }
+
+    /**
+     * Lerps a row of packed <i>0xRRGGBB</i> pixels in linear light, at several points at once.
+     *
+     * Each pixel of <i>pre</i> and <i>post</i> is decoded only once, however many points are blended from it.
+     * Output is identical to {@link #blendRowLinear(int[], int, int[], int, int[], int, int, int)} at each point.
+     *
+     * @param weights Points of image interpolation, between <i>0 and 256<i/>, one per array of <i>out</i>.
+     */
+    static void blendRowLinear(int[] pre, int preOffset, int[] post, int postOffset, int[][] out, int outOffset, int length, int[] weights) {
+        final int[] decode = SRGB_TO_LINEAR;
+        final byte[] encode = LINEAR_TO_SRGB;
+        for (int i = 0; i < length; i++) {
+            int prePixel = pre[preOffset + i];
+            int postPixel = post[postOffset + i];
+
+            int preRed = decode[prePixel >> 16 & 0xFF], postRed = decode[postPixel >> 16 & 0xFF];
+            int preGreen = decode[prePixel >> 8 & 0xFF], postGreen = decode[postPixel >> 8 & 0xFF];
+            int preBlue = decode[prePixel & 0xFF], postBlue = decode[postPixel & 0xFF];
+
+            for (int frame = 0; frame < weights.length; frame++) {
+                int weight = weights[frame], inverse = 256 - weight;
+                out[frame][outOffset + i] = (encode[preRed * inverse + postRed * weight + 128 >> 8] & 0xFF) << 16
+                                          | (encode[preGreen * inverse + postGreen * weight + 128 >> 8] & 0xFF) << 8
+                                          | (encode[preBlue * inverse + postBlue * weight + 128 >> 8] & 0xFF);
+            }
+        }
+    }
+
+    /**
+     * Quantises a point of interpolation to the fixed point weight used by {@link #blendRowFixed}.
+     *
+     * @param interpol Point of image interpolation, between <i>0.0 and 1.0<i/>.
+     * @return <i>interpol</i> in 256ths, clamped to <i>0 - 256</i>
+     */
+    static int fixedWeight(double interpol) {
+        return (int) Math.max(0, Math.min(256, Math.round(interpol * 256)));
+    }
+
+    /**
+     * Pre-calculates every possible lerp between two 8 bit channels, at a single point of interpolation.
+     *
+     * @implNote Output is identical to {@link #lerpPixel255(double, double, double)} of both channels,
+     *           after scaling them to <i>0.0 - 1.0</i> exactly as a JavaFX Color would.
+     *
+     * @param interpol Point of image interpolation, between <i>0.0 and 1.0<i/>.
+     * @return Table of 65536 lerped channels, indexed by <i>(origin << 8) | target</i>
+     */
+    static byte[] lerpTable(double interpol) {
+        byte[] table = new byte[256 * 256];
+        for (int origin = 0; origin < 256; origin++)
+            for (int target = 0; target < 256; target++)
+                table[origin << 8 | target] = (byte) lerpPixel255(CHANNEL[origin], CHANNEL[target], interpol);
+
+        return table;
+    }
+
+    /**
+     * Provides the lerp table of a point of interpolation, re-using one of the last few built.
+     *
+     * Playback, scrubbing back and forth, and every pair of a sequence all blend at the same few points over and over,
+     * so this avoids rebuilding, and allocating, a 64K table for every frame.
+     *
+     * @param interpol Point of image interpolation, between <i>0.0 and 1.0<i/>.
+     * @return Table of 65536 lerped channels, see {@link #lerpTable(double)}. Must not be modified.
+     */
+    static byte[] cachedLerpTable(double interpol) {
+        synchronized (cachedLerpTables) {
+            for (int i = 0; i < CACHED_LERP_TABLES; i++)
+                if (cachedLerpTables[i] != null && Double.compare(cachedLerpPoints[i], interpol) == 0) return cachedLerpTables[i];
+        }
+
+        byte[] table = lerpTable(interpol);                                                                             // Built outside the lock; a race only builds a table twice.
+        synchronized (cachedLerpTables) {
+            cachedLerpPoints[nextCachedLerpTable] = interpol;
+            cachedLerpTables[nextCachedLerpTable] = table;
+            nextCachedLerpTable = (nextCachedLerpTable + 1) % CACHED_LERP_TABLES;
+        }
+        return table;
+    }
+
+    /**
+     * @throws IndexOutOfBoundsException if <i>pixels</i> cannot hold an image of the given size.
+     */
+    private static void assertHolds(int[] pixels, int width, int height) {
+        if (pixels.length < (long) width * height)
+            throw new IndexOutOfBoundsException("Cannot hold a " + width + "x" + height + " image in " + pixels.length + " pixels.");
+    }
 
     /**
      * Lerps an RGB luminosity provided from <i>0.0 to 1.0</i> based on
@@ -174,16 +906,120 @@ public final class LinearImageInterpolator {
         return (origin * interpol) + (target * (1-interpol));
     }
 
+    /**
+     * Interpolates between every pair of consecutive frames in a buffer.
+     *
+     * @implNote The entire output sequence is held in memory. For long sequences, stream the output
+     *           through an {@link InterpolationPipeline} instead.
+     *
+     * @param frameBuffer source sequence.
+     * @param exponent number of steps between each pair of frames.
+     * @return Every pair blended at {@link InterpolationPipeline#points(int)}, in order.
+     *         Every point of a pair of identical frames is the same, unblended, image.
+     */
     public static BufferedImage[] forAll(FrameBuffer frameBuffer, int exponent) {
-        BufferedImage[] InputBuffer = new BufferedImage[frameBuffer.getBufferLength()];
-        frameBuffer.getFrameBuffer().toArray(InputBuffer);
-        BufferedImage[] OutputBuffer = new BufferedImage[(frameBuffer.getBufferLength() * (exponent + 1)) + exponent + 1];
+        return forAll(frameBuffer, exponent, null);
+    }
+
+    /**
+     * Interpolates between every pair of consecutive frames in a buffer, into frames borrowed from a pool.
+     *
+     * Once the output is no longer needed, return it with {@link FramePool#release(BufferedImage[])} so that
+     * the next sequence of the same resolution re-uses its frames.
+     *
+     * @param frameBuffer source sequence.
+     * @param exponent number of steps between each pair of frames.
+     * @param pool pool to borrow output frames from, or <i>null</i> to create them.
+     * @return Every pair blended at {@link InterpolationPipeline#points(int)}, in order.
+     */
+    public static BufferedImage[] forAll(FrameBuffer frameBuffer, int exponent, FramePool pool) {
+        return forAll(frameBuffer, null, exponent, pool);
+    }
+
+    /**
+     * Interpolates between every pair of consecutive frames of a cached sequence,
+     * re-using any inter-frames already cached, and caching those that are not.
+     *
+     * @implNote Points are quantised by the cache, see {@link InterframeCache#quantise(double)}
+     *
+     * @param cache inter-frame cache of the source sequence.
+     * @param exponent number of steps between each pair of frames.
+     * @return Every pair blended at {@link InterpolationPipeline#points(int)}, in order.
+     *         Frames are shared with the cache, so must not be modified.
+     */
+    public static BufferedImage[] forAll(InterframeCache cache, int exponent) {
+        return forAll(cache.getFrames(), cache, exponent, null);
+    }
 
-        for(int currentFrame = 1; currentFrame <= InputBuffer.length - 1; currentFrame++){
-            for (int currentFrameInter = 0; currentFrameInter <= exponent; currentFrameInter++)
-                OutputBuffer[(currentFrame * (exponent + 1)) + currentFrameInter] = InterpolateImage(InputBuffer[currentFrame-1], InputBuffer[currentFrame], (double) currentFrameInter / (double) exponent);
+    /**
+     * Interpolates between every pair of consecutive frames in a buffer on an executor, without blocking.
+     *
+     * @param frameBuffer source sequence.
+     * @param exponent number of steps between each pair of frames.
+     * @param pool pool to borrow output frames from, or <i>null</i> to create them. If the job fails, or is cancelled,
+     *             the frames it had finished are returned to it.
+     * @param executor executor to run on, which is blocked for the length of the run, such as
+     *                 {@link java.util.concurrent.Executors#newSingleThreadExecutor()}. Never the UI thread.
+     * @param listener receives progress after each pair, or <i>null</i>.
+     * @return Job that completes with every pair blended at {@link InterpolationPipeline#points(int)}, in order.
+     * @see #forAll(FrameBuffer, int, FramePool)
+     */
+    public static InterpolationJob<BufferedImage[]> forAllAsync(FrameBuffer frameBuffer, int exponent, FramePool pool, Executor executor, InterpolationJob.ProgressListener listener) {
+        return forAllAsync(frameBuffer, null, exponent, pool, executor, listener);
+    }
+
+    /**
+     * Interpolates between every pair of consecutive frames of a cached sequence on an executor, without blocking.
+     *
+     * @param cache inter-frame cache of the source sequence.
+     * @param exponent number of steps between each pair of frames.
+     * @param executor executor to run on, which is blocked for the length of the run. Never the UI thread.
+     * @param listener receives progress after each pair, or <i>null</i>.
+     * @return Job that completes with every pair blended at {@link InterpolationPipeline#points(int)}, in order.
+     *         Frames are shared with the cache, so must not be modified.
+     * @see #forAll(InterframeCache, int)
+     */
+    public static InterpolationJob<BufferedImage[]> forAllAsync(InterframeCache cache, int exponent, Executor executor, InterpolationJob.ProgressListener listener) {
+        return forAllAsync(cache.getFrames(), cache, exponent, null, executor, listener);
+    }
+
+    private static InterpolationJob<BufferedImage[]> forAllAsync(FrameBuffer frameBuffer, InterframeCache cache, int exponent, FramePool pool, Executor executor, InterpolationJob.ProgressListener listener) {
+        InterpolationJob<BufferedImage[]> job = new InterpolationJob<>(Math.max(0, frameBuffer.getBufferLength() - 1), InterpolationPipeline.points(exponent).length, listener);
+        return job.start(executor, running -> {
+            BufferedImage[] OutputBuffer = new BufferedImage[InterpolationPipeline.outputLength(frameBuffer.getBufferLength(), exponent)];
+            try {
+                run(frameBuffer, cache, exponent, pool, OutputBuffer, running);
+            } catch (Exception | Error e) {
+                if (pool != null) pool.release(OutputBuffer);                                                           // Nothing else will see the partial sequence.
+                throw e;
+            }
+            return OutputBuffer;
+        });
+    }
+
+    private static BufferedImage[] forAll(FrameBuffer frameBuffer, InterframeCache cache, int exponent, FramePool pool) {
+        BufferedImage[] OutputBuffer = new BufferedImage[InterpolationPipeline.outputLength(frameBuffer.getBufferLength(), exponent)];
+
+        try {
+            run(frameBuffer, cache, exponent, pool, OutputBuffer, null);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while interpolating.", e);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);                                                                         // Unreachable; storing into an array cannot fail.
         }
 
         return OutputBuffer;
     }
+
+    /**
+     * Interpolates every pair into an array, on a pipeline of one worker per available processor.
+     */
+    private static void run(FrameBuffer frameBuffer, InterframeCache cache, int exponent, FramePool pool, BufferedImage[] OutputBuffer, InterpolationJob<?> job) throws IOException, InterruptedException {
+        int threads = Runtime.getRuntime().availableProcessors();
+
+        try (InterpolationPipeline pipeline = new InterpolationPipeline(threads, threads * InterpolationPipeline.PAIRS_PER_WORKER, pool)) {
+            pipeline.run(frameBuffer, cache, exponent, (index, frame) -> OutputBuffer[index] = frame, job);
+        }
+    }
 }
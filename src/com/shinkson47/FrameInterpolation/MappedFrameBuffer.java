@@ -0,0 +1,407 @@
+package com.shinkson47.FrameInterpolation;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.util.ArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * A frame buffer that keeps decoded frames in a memory mapped file, rather than on the heap.
+ *
+ * Every frame is stored as packed <i>0xRRGGBB</i> ints at a fixed stride, so the interpolation kernels read
+ * rows straight out of the mapping. Frame data does not count against the heap, is paged in and out by the OS,
+ * and its page cache is shared between any processes mapping the same store.
+ *
+ * Frames are normalised to a single resolution as they are imported, as {@link FrameBuffer} does;
+ * either a target resolution, or that of the first frame.
+ *
+ * A store records a fingerprint of the folder it was imported from, and of the target resolution. Importing the same, unchanged folder again
+ * maps the existing store instead of decoding anything.
+ *
+ * Processes coordinate through a lock on the store. Each buffer holds a shared lock for as long as it maps the store,
+ * and (re)importing, or {@link #create creating}, a store takes an exclusive lock, so that a store is never truncated
+ * or rewritten beneath another process's mapping; an import waits for every other process to close the store.
+ * Within a process, a store may only be open once at a time.
+ *
+ * <pre>
+ * Store layout, little endian:
+ *   0  int   MAGIC
+ *   4  int   VERSION
+ *   8  int   width
+ *   12 int   height
+ *   16 int   frame count
+ *   20 long  fingerprint of the source folder, or 0
+ *   64       frames; width * height ints each, row after row.
+ * </pre>
+ *
+ * A store may also be the destination of an interpolation; see {@link InterpolationPipeline#run(FrameBuffer, int, MappedFrameBuffer)},
+ * which blends each row of output straight into the mapping.
+ *
+ * @implNote {@link #getFrame(int)} copies the frame onto the heap, and {@link #setFrame(int, BufferedImage)}
+ *           copies a frame off of it. Interpolation via {@link InterpolationPipeline} reads the mapping directly.
+ *           Mappings cannot be unmapped explicitly; after {@link #close()}, they are released once they are collected.
+ * @version 1
+ * @author <a href="https://www.shinkson47.in">Jordan T. Gray</a>
+ */
+public class MappedFrameBuffer extends FrameBuffer implements AutoCloseable {
+
+    public static final int MAGIC = 0x464D5342;                                                                         // "FMSB"
+    public static final int VERSION = 1;
+    public static final int HEADER_BYTES = 64;
+
+    private final RandomAccessFile file;
+    private final FileChannel channel;
+    private FileLock lock;                                                                                              // Shared whilst mapped, exclusive whilst written.
+    private final ArrayList<IntBuffer> frames = new ArrayList<IntBuffer>();
+    private final ArrayList<MappedByteBuffer> mappings = new ArrayList<MappedByteBuffer>();                            // Of each frame; flushed on close.
+
+    /**
+     * Maps a store of the frames in a folder, importing the folder into the store first if the store
+     * does not exist, or was imported from a different version of the folder.
+     *
+     * @param directory Folder containing images to import.
+     * @param store File to store decoded frames in.
+     * @throws IllegalStateException if the folder is not a valid import.
+     * @throws IOException if the store cannot be read or written.
+     */
+    public MappedFrameBuffer(File directory, File store) throws IOException {
+        file = new RandomAccessFile(store, "rw");
+        channel = file.getChannel();
+        open(directory);
+    }
+
+    /**
+     * Maps a store of the frames in a folder, resampled to a target resolution, importing the folder into the store first
+     * if the store does not exist, or was imported from a different version of the folder, or at a different resolution.
+     *
+     * @param directory Folder containing images to import.
+     * @param store File to store decoded frames in.
+     * @param width width to resample every frame to.
+     * @param height height to resample every frame to.
+     * @throws IllegalStateException if the folder is not a valid import.
+     * @throws IllegalArgumentException if <i>width</i> or <i>height</i> is less than 1.
+     * @throws IOException if the store cannot be read or written.
+     */
+    public MappedFrameBuffer(File directory, File store, int width, int height) throws IOException {
+        setTargetResolution(width, height);
+        file = new RandomAccessFile(store, "rw");
+        channel = file.getChannel();
+        open(directory);
+    }
+
+    private void open(File directory) throws IOException {
+        try {
+            if (!validateImport(directory))
+                throw new IllegalStateException("Invalid folder structure passed. Must contain at least two images, and no sub-folders.");
+        } catch (RuntimeException e) {
+            close();
+            throw e;
+        }
+    }
+
+    /**
+     * Creates an empty, writable store, to be filled by {@link InterpolationPipeline#run(FrameBuffer, int, MappedFrameBuffer)},
+     * or with {@link #setFrame(int, BufferedImage)}.
+     *
+     * @param store File to store frames in. Any existing content is replaced, once no other process has it open.
+     * @param width width of every frame.
+     * @param height height of every frame.
+     * @param length number of frames.
+     * @return The new store.
+     * @throws IOException if the store cannot be written.
+     */
+    public static MappedFrameBuffer create(File store, int width, int height, int length) throws IOException {
+        return new MappedFrameBuffer(store, width, height, length);
+    }
+
+    private MappedFrameBuffer(File store, int _width, int _height, int length) throws IOException {
+        file = new RandomAccessFile(store, "rw");
+        channel = file.getChannel();
+        try {
+            lock(false);                                                                                                // Held until closed; the store is being written.
+            file.setLength(0);
+            writeHeader(_width, _height, length, 0);
+            map(_width, _height, length);
+        } catch (IOException | RuntimeException e) {
+            close();
+            throw e;
+        }
+    }
+
+    /**
+     * Maps the store of a folder, importing it first if the store is missing or stale.
+     *
+     * @implNote SIDE EFFECT: Replaces the content of the store if it was not imported from this folder, as it is now.
+     * @param directory Folder containing images to import.
+     * @return <i>false</i> if directory is contains less than two children, is not a directory, contains a sub-folder,
+     *         contains files that could not be read, or contains less than two valid images.
+     *         Otherwise <i>true</i>
+     */
+    @Override
+    public boolean validateImport(File directory) {
+        frames.clear();
+        File[] listed = listImport(directory);
+        if (listed == null) return false;
+
+        try {
+            ArrayList<File> images = new ArrayList<File>();
+            for (File candidate : listed)
+                if (isImage(candidate)) images.add(candidate);                                                          // Non-images are skipped, as an eager import would.
+            if (images.size() < MIN_VALID_IMAGES) return false;
+
+            long fingerprint = fingerprint(images, targetWidth, targetHeight);
+            while (true) {
+                lock(true);
+                if (mapExisting(fingerprint, images.size())) return true;                                               // Keeps the shared lock, for as long as it is mapped.
+
+                frames.clear();
+                lock(false);
+                if (!mapExisting(fingerprint, images.size()))                                                           // Another process may have imported it whilst we waited.
+                    importFrames(images, fingerprint);
+                frames.clear();                                                                                         // Mapped again under a shared lock, in case the store changed in between.
+            }
+        } catch (IOException | IllegalStateException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public BufferedImage getFrame(int i) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        IntBuffer view = frames.get(i).duplicate();                                                                     // Private position, for thread safety.
+        view.get(PackedRaster.pixels(image));
+        return image;
+    }
+
+    @Override
+    PackedRaster getRaster(int i) {
+        return new PackedRaster(frames.get(i), width, height, false);
+    }
+
+    @Override
+    public int getBufferLength() {
+        return frames.size();
+    }
+
+    /**
+     * @implNote Copies every frame onto the heap. Prefer {@link #getFrame(int)}
+     */
+    @Override
+    public ArrayList<BufferedImage> getFrameBuffer() {
+        ArrayList<BufferedImage> all = new ArrayList<BufferedImage>(frames.size());
+        for (int i = 0; i < frames.size(); i++)
+            all.add(getFrame(i));
+
+        return all;
+    }
+
+    /**
+     * Stores a frame, replacing any frame already at the same index.
+     *
+     * @param i index of the frame.
+     * @param frame image of the same resolution as the store.
+     * @throws IllegalArgumentException if the image is not the resolution of the store.
+     */
+    public void setFrame(int i, BufferedImage frame) {
+        if (frame.getWidth() != width || frame.getHeight() != height)
+            throw new IllegalArgumentException("Frame is " + frame.getWidth() + "x" + frame.getHeight() + ", but store is " + width + "x" + height);
+        store(i, new PackedRaster(frame));
+    }
+
+    /**
+     * Blends a pair straight into consecutive frames of this store, without staging them on the heap.
+     *
+     * @param first index of the frame to store the first point at.
+     * @see LinearImageInterpolator#blendInto(IntBuffer[], PackedRaster, PackedRaster, double[])
+     */
+    void interpolateInto(int first, PackedRaster pre, PackedRaster post, double[] points) {
+        IntBuffer[] out = new IntBuffer[points.length];
+        for (int i = 0; i < out.length; i++)
+            out[i] = frames.get(first + i);
+        LinearImageInterpolator.blendInto(out, pre, post, points);
+    }
+
+    /**
+     * Stores a frame at consecutive indices, such as every point of a pair of identical frames.
+     *
+     * @param first index to store the first copy at.
+     * @param count number of copies.
+     */
+    void copyInto(int first, int count, PackedRaster frame) {
+        frame = Resampler.fit(frame, width, height);
+        for (int i = 0; i < count; i++)
+            store(first + i, frame);
+    }
+
+    /**
+     * Writes a frame of the resolution of the store into it.
+     */
+    private void store(int i, PackedRaster raster) {
+        IntBuffer view = frames.get(i).duplicate();
+        int[] scratch = new int[width];
+        for (int y = 0; y < height; y++) {
+            view.position(y * width);
+            view.put(raster.row(y, scratch), raster.rowOffset(y), width);
+        }
+    }
+
+    /**
+     * @return Sink storing each accepted frame at its index in this store. Frames are copied into the mapping;
+     *         prefer {@link InterpolationPipeline#run(FrameBuffer, int, MappedFrameBuffer)}, which blends straight into it.
+     */
+    public FrameSink asSink() {
+        return this::setFrame;
+    }
+
+    /**
+     * Flushes every frame to the store, and closes it. Frames may no longer be read, nor written.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            for (MappedByteBuffer mapping : mappings)
+                mapping.force();
+        } finally {
+            frames.clear();                                                                                             // Unreachable, so that the mappings may be released.
+            mappings.clear();
+            lock = null;
+            file.close();                                                                                               // Releases the lock.
+        }
+    }
+
+    /**
+     * Replaces any lock held on the whole store, waiting until it may be taken.
+     *
+     * @param shared <i>true</i> to read the store, alongside other processes. <i>false</i> to write it, alone.
+     * @throws IOException if the store cannot be locked.
+     * @throws UncheckedIOException if the store is already open elsewhere in this process; never a reason to re-import.
+     */
+    private void lock(boolean shared) throws IOException {
+        if (lock != null) lock.release();
+        lock = null;
+        try {
+            lock = channel.lock(0, Long.MAX_VALUE, shared);
+        } catch (OverlappingFileLockException e) {
+            throw new UncheckedIOException(new IOException("Store is already open in this process.", e));
+        }
+    }
+
+    /**
+     * Maps the existing store, if it was imported from the same folder. Must be called whilst holding a lock on it.
+     *
+     * @return <i>false</i> if the store is empty, not a store, or was imported from something else.
+     */
+    private boolean mapExisting(long fingerprint, int length) throws IOException {
+        if (channel.size() < HEADER_BYTES) return false;
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        channel.read(header, 0);
+        header.flip();
+        if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION ||
+            header.getInt(16) != length || header.getLong(20) != fingerprint) return false;
+
+        int storedWidth = header.getInt(8), storedHeight = header.getInt(12);
+        if (channel.size() < HEADER_BYTES + (long) storedWidth * storedHeight * 4 * length) return false;               // Truncated, such as by an interrupted import.
+
+        map(storedWidth, storedHeight, length);
+        return true;
+    }
+
+    /**
+     * Decodes every image into the store, on up to {@link #IMPORT_THREADS} threads, resampling any that are not
+     * the resolution of the store. The fingerprint is only written once every frame is stored, so an interrupted import
+     * is never mistaken for a complete one. Must be called whilst holding the exclusive lock.
+     */
+    private void importFrames(ArrayList<File> images, long fingerprint) throws IOException {
+        BufferedImage first = ImageIO.read(images.get(0));
+        if (first == null) throw new IOException("No longer a readable image: " + images.get(0));
+
+        int storeWidth = targetWidth > 0 ? targetWidth : first.getWidth(), storeHeight = targetWidth > 0 ? targetHeight : first.getHeight();
+        file.setLength(0);
+        writeHeader(storeWidth, storeHeight, images.size(), 0);
+        map(storeWidth, storeHeight, images.size());
+        store(0, new PackedRaster(Resampler.fit(first, width, height)));
+
+        ExecutorService decoders = Executors.newFixedThreadPool(Math.min(IMPORT_THREADS, images.size()));
+        try {
+            ArrayList<Future<?>> decodes = new ArrayList<Future<?>>();
+            for (int i = 1; i < images.size(); i++) {
+                final int index = i;
+                decodes.add(decoders.submit(() -> {
+                    BufferedImage image = ImageIO.read(images.get(index));
+                    if (image == null) throw new IOException("No longer a readable image: " + images.get(index));
+                    store(index, new PackedRaster(Resampler.fit(image, width, height)));                                // Each frame is its own mapping; no two threads share one.
+                    return null;
+                }));
+            }
+
+            for (Future<?> decode : decodes)
+                decode.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted whilst importing.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) throw (IOException) e.getCause();
+            if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+            throw new IOException(e.getCause());
+        } finally {
+            decoders.shutdownNow();
+        }
+
+        writeHeader(width, height, images.size(), fingerprint);
+    }
+
+    /**
+     * Maps every frame of the store.
+     */
+    private void map(int _width, int _height, int length) throws IOException {
+        width = _width;
+        height = _height;
+        frames.clear();
+        mappings.clear();
+
+        long frameBytes = (long) width * height * 4;
+        if (frameBytes > Integer.MAX_VALUE) throw new IOException("Frames larger than 2GB cannot be mapped.");
+
+        for (int i = 0; i < length; i++) {
+            MappedByteBuffer frame = channel.map(FileChannel.MapMode.READ_WRITE, HEADER_BYTES + frameBytes * i, frameBytes);
+            mappings.add(frame);
+            frames.add(frame.order(ByteOrder.LITTLE_ENDIAN).asIntBuffer());
+        }
+    }
+
+    private void writeHeader(int _width, int _height, int length, long fingerprint) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC).putInt(VERSION).putInt(_width).putInt(_height).putInt(length).putLong(fingerprint);
+        header.clear();
+        channel.write(header, 0);
+    }
+
+    /**
+     * @return Hash of the name, size, and modification time of every image, in order, and the resolution they are resampled to.
+     */
+    private static long fingerprint(ArrayList<File> images, int width, int height) {
+        long hash = 1125899906842597L;
+        if (width > 0) hash = 31 * (31 * hash + width) + height;                                                        // Stores of the first frame's resolution keep their fingerprint.
+        for (File image : images) {
+            hash = 31 * hash + image.getName().hashCode();
+            hash = 31 * hash + image.length();
+            hash = 31 * hash + image.lastModified();
+        }
+        return hash == 0 ? 1 : hash;                                                                                    // 0 marks an incomplete store.
+    }
+}
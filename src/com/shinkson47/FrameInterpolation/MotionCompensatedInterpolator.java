@@ -0,0 +1,512 @@
+package com.shinkson47.FrameInterpolation;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * A static utility class for interpolating images along the motion between them, rather than cross-fading them in place
+ * as {@link LinearImageInterpolator} does, so that moving content is not ghosted.
+ *
+ * Motion is estimated once per pair by hierarchical block matching. Both frames are reduced to pyramids of luma planes,
+ * halved in each dimension at every level. Every block of {@link #BLOCK_SIZE} pixels is matched by its sum of absolute
+ * differences (SAD): exhaustively within {@link #SEARCH_RADIUS} at the coarsest level, then at every finer level,
+ * around the doubled vectors of the block above it and its eight neighbours, and the vector of the block to its left.
+ * Blocks whose match would lie partly outside the frame are matched on the part within it. The resulting
+ * {@link MotionField} is median filtered, to remove lone mismatches.
+ *
+ * Each output pixel then samples <i>pre</i> back along its block's vector, and <i>post</i> forward along it, in proportion
+ * to the point of interpolation, and the two samples are blended by the current {@link LinearImageInterpolator#getBlendMode()}.
+ *
+ * Searching and warping are both split into bands of rows across {@link LinearImageInterpolator#getPool()}, for images
+ * of at least {@link LinearImageInterpolator#getParallelThreshold()} pixels. Planes and pyramids are kept per thread,
+ * and re-used for every pair of the same resolution, so a pair allocates only its field and output frames.
+ *
+ * Frames of differing resolutions are interpolated at the resolution of <i>pre</i>, with <i>post</i> resampled to fit
+ * by {@link Resampler}.
+ *
+ * @implNote Occlusions are not detected; content covered or revealed between the frames is blended from wherever its
+ *           block's vector points. Sources with alpha are blended in premultiplied alpha, as {@link BlendMode} does.
+ * @version 1
+ * @author <a href="https://www.shinkson47.in">Jordan T. Gray</a>
+ */
+public final class MotionCompensatedInterpolator {
+
+    /**
+     * Width and height of the blocks matched at every level of the pyramid, in pixels of that level.
+     */
+    public static final int BLOCK_SIZE = 8;
+
+    /**
+     * Furthest a block is searched at the coarsest level, in pixels of that level, in each direction.
+     */
+    public static final int SEARCH_RADIUS = 4;
+
+    /**
+     * Maximum levels of the pyramid, including the full resolution. Vectors of up to
+     * <i>SEARCH_RADIUS * 2^(MAX_LEVELS - 1)</i> pixels are found at full resolution.
+     */
+    public static final int MAX_LEVELS = 5;
+
+    /**
+     * Added to a candidate's SAD per pixel of its vector, so that flat or noisy blocks settle on small, consistent vectors.
+     */
+    private static final int VECTOR_COST = 4;
+
+    /**
+     * A candidate whose block lies partly outside the frame is matched on the part within it, if that is at least
+     * <i>1 / MIN_OVERLAP</i> of the block, so that content moving across the edges of the frame is still followed.
+     */
+    private static final int MIN_OVERLAP = 4;
+
+    /**
+     * Per thread work buffers, re-used for every pair of the same resolution.
+     */
+    private static final ThreadLocal<Workspace> WORKSPACE = ThreadLocal.withInitial(Workspace::new);
+
+    /**
+     * Reusable warped row buffers; pre, and post.
+     */
+    private static final ThreadLocal<int[][]> ROWS = ThreadLocal.withInitial(() -> new int[2][0]);
+
+    private MotionCompensatedInterpolator() {}
+
+    /**
+     * Estimates the motion between two frames.
+     *
+     * @param pre awt BufferedImage picture that represents <i>interpol = 0</i>
+     * @param post awt BufferedImage picture that represents <i>interpol = 1</i>
+     * @return The field, which may be re-used to interpolate the pair at any number of points.
+     */
+    public static MotionField estimate(BufferedImage pre, BufferedImage post) {
+        Workspace workspace = WORKSPACE.get();
+        workspace.unpack(new PackedRaster(pre), new PackedRaster(post), true);
+        return workspace.estimate();
+    }
+
+    /**
+     * Buffered Image implementation.
+     *
+     * @param pre awt BufferedImage picture that represents <i>interpol = 0</i>
+     * @param post awt BufferedImage picture that represents <i>interpol = 1</i>
+     * @param interpol Blend value between <i>0.0 and 1.0</i>
+     * @return Image found at <i>interpol</i> along the motion from <i>pre</i> to <i>post</i>.
+     *         TYPE_INT_ARGB if either source has alpha, otherwise TYPE_INT_RGB.
+     */
+    public static BufferedImage InterpolateImage(BufferedImage pre, BufferedImage post, double interpol) {
+        return InterpolateImage(pre, post, new double[]{interpol})[0];
+    }
+
+    /**
+     * Buffered Image implementation, at multiple points, from a single motion search.
+     *
+     * @param pre awt BufferedImage picture that represents <i>interpol = 0</i>
+     * @param post awt BufferedImage picture that represents <i>interpol = 1</i>
+     * @param interpol Blend values, each between <i>0.0 and 1.0</i>
+     * @return One image per point, see {@link #InterpolateImage(BufferedImage, BufferedImage, double)}
+     */
+    public static BufferedImage[] InterpolateImage(BufferedImage pre, BufferedImage post, double[] interpol) {
+        return InterpolateImage(new PackedRaster(pre), new PackedRaster(post), interpol, null);
+    }
+
+    /**
+     * Buffered Image implementation, into an existing image, along a motion field that has already been estimated.
+     *
+     * @param dest TYPE_INT_RGB or TYPE_INT_ARGB image of the same size as <i>pre</i>, that has not been sub-imaged.
+     *             TYPE_INT_ARGB destinations receive blended alpha.
+     * @param pre awt BufferedImage picture that represents <i>interpol = 0</i>
+     * @param post awt BufferedImage picture that represents <i>interpol = 1</i>
+     * @param field motion from <i>pre</i> to <i>post</i>, see {@link #estimate(BufferedImage, BufferedImage)}
+     * @param interpol Blend value between <i>0.0 and 1.0</i>
+     * @throws IllegalArgumentException if the field is not the size of <i>pre</i>, or <i>dest</i> cannot be written to directly.
+     */
+    public static void interpolateInto(BufferedImage dest, BufferedImage pre, BufferedImage post, MotionField field, double interpol) {
+        interpolateInto(new BufferedImage[]{dest}, pre, post, field, new double[]{interpol});
+    }
+
+    /**
+     * Buffered Image implementation, into existing images at multiple points, along a motion field that has already been
+     * estimated. Both frames are unpacked once for every point, and are not searched again.
+     *
+     * @param dest one image per point of <i>interpol</i>, see {@link #interpolateInto(BufferedImage, BufferedImage, BufferedImage, MotionField, double)}.
+     * @param pre awt BufferedImage picture that represents <i>interpol = 0</i>
+     * @param post awt BufferedImage picture that represents <i>interpol = 1</i>
+     * @param field motion from <i>pre</i> to <i>post</i>, see {@link #estimate(BufferedImage, BufferedImage)}
+     * @param interpol Blend values, each between <i>0.0 and 1.0</i>
+     * @throws IllegalArgumentException if there is not one destination per point, the field is not the size of <i>pre</i>,
+     *                                  or any destination cannot be written to directly.
+     */
+    public static void interpolateInto(BufferedImage[] dest, BufferedImage pre, BufferedImage post, MotionField field, double[] interpol) {
+        if (dest.length != interpol.length) throw new IllegalArgumentException("One destination is required per point of interpolation.");
+        if (field.width != pre.getWidth() || field.height != pre.getHeight())
+            throw new IllegalArgumentException("Motion field is " + field.width + "x" + field.height + ", but frames are " + pre.getWidth() + "x" + pre.getHeight() + ".");
+
+        int[][] out = new int[dest.length][];
+        for (int i = 0; i < out.length; i++)
+            out[i] = PackedRaster.writablePixels(dest[i], field.width, field.height);
+
+        Workspace workspace = WORKSPACE.get();
+        workspace.unpack(new PackedRaster(pre), new PackedRaster(post), false);                                         // Warping reads only the planes.
+        for (int i = 0; i < out.length; i++)
+            workspace.warp(field, interpol[i], out[i], dest[i].getType() == BufferedImage.TYPE_INT_ARGB);
+    }
+
+    /**
+     * Packed raster implementation, at multiple points, from a single motion search.
+     *
+     * @param pool pool to borrow TYPE_INT_RGB output frames from, or <i>null</i> to create them. TYPE_INT_ARGB frames are always created.
+     * @see #InterpolateImage(BufferedImage, BufferedImage, double[])
+     */
+    static BufferedImage[] InterpolateImage(PackedRaster preRaster, PackedRaster postRaster, double[] interpol, FramePool pool) {
+        Workspace workspace = WORKSPACE.get();
+        workspace.unpack(preRaster, postRaster, true);
+        MotionField field = workspace.estimate();
+
+        int type = workspace.alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        BufferedImage[] out = new BufferedImage[interpol.length];
+        for (int i = 0; i < out.length; i++) {
+            out[i] = pool == null || workspace.alpha ? new BufferedImage(workspace.width, workspace.height, type)
+                                                     : pool.borrow(workspace.width, workspace.height);
+            workspace.warp(field, interpol[i], PackedRaster.pixels(out[i]), workspace.alpha);
+        }
+        return out;
+    }
+
+    /**
+     * Interpolates along the motion between every pair of consecutive frames in a buffer, searching each pair only once.
+     *
+     * @implNote The entire output sequence is held in memory. For long sequences, stream the output through an
+     *           {@link InterpolationPipeline} created with motion compensation instead.
+     *
+     * @param frameBuffer source sequence.
+     * @param exponent number of steps between each pair of frames.
+     * @return Every pair interpolated at {@link InterpolationPipeline#points(int)}, in order.
+     *         Every point of a pair of identical frames is the same, unblended, image.
+     */
+    public static BufferedImage[] forAll(FrameBuffer frameBuffer, int exponent) {
+        return forAll(frameBuffer, exponent, null);
+    }
+
+    /**
+     * Interpolates along the motion between every pair of consecutive frames in a buffer, into frames borrowed from a pool.
+     *
+     * @param frameBuffer source sequence.
+     * @param exponent number of steps between each pair of frames.
+     * @param pool pool to borrow output frames from, or <i>null</i> to create them.
+     * @return Every pair interpolated at {@link InterpolationPipeline#points(int)}, in order.
+     * @see LinearImageInterpolator#forAll(FrameBuffer, int, FramePool)
+     */
+    public static BufferedImage[] forAll(FrameBuffer frameBuffer, int exponent, FramePool pool) {
+        BufferedImage[] OutputBuffer = new BufferedImage[InterpolationPipeline.outputLength(frameBuffer.getBufferLength(), exponent)];
+        int threads = Runtime.getRuntime().availableProcessors();
+
+        try (InterpolationPipeline pipeline = new InterpolationPipeline(threads, threads * InterpolationPipeline.PAIRS_PER_WORKER, pool, true)) {
+            pipeline.run(frameBuffer, exponent, (index, frame) -> OutputBuffer[index] = frame);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while interpolating.", e);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);                                                                         // Unreachable; storing into an array cannot fail.
+        }
+
+        return OutputBuffer;
+    }
+
+    /**
+     * Sum of absolute differences between two blocks of luma, that gives up once it reaches <i>limit</i>.
+     *
+     * @param stride width of both planes.
+     * @param limit cost of the best match so far; any block that reaches it cannot be a better match.
+     * @return The SAD, or a value of at least <i>limit</i>.
+     */
+    static int sad(byte[] a, int aIndex, byte[] b, int bIndex, int stride, int width, int height, int limit) {
+        int sum = 0;
+        for (int y = 0; y < height; y++, aIndex += stride, bIndex += stride) {
+            for (int x = 0; x < width; x++)
+                sum += Math.abs((a[aIndex + x] & 0xFF) - (b[bIndex + x] & 0xFF));
+            if (sum >= limit) return sum;                                                                               // Checked per row, so the inner loop stays branch free.
+        }
+        return sum;
+    }
+
+    private static int clamp(int value, int max) {
+        return value < 0 ? 0 : value > max ? max : value;
+    }
+
+    /**
+     * Planes, pyramids and vectors of the pair a thread is currently interpolating.
+     */
+    private static final class Workspace {
+
+        int width, height, levels;
+        boolean alpha;                                                                                                  // Either source has alpha; planes hold 0xAARRGGBB.
+
+        int[] prePixels = new int[0], postPixels = new int[0];
+        final int[] levelWidth = new int[MAX_LEVELS], levelHeight = new int[MAX_LEVELS];
+        final byte[][] preLuma = new byte[MAX_LEVELS][0], postLuma = new byte[MAX_LEVELS][0];
+        final int[][] vectorX = new int[MAX_LEVELS][0], vectorY = new int[MAX_LEVELS][0];                              // Vectors of each level's blocks, in that level's pixels.
+
+        /**
+         * Unpacks both sources into planes.
+         *
+         * @param luma whether to also build their luma pyramids, to {@link #estimate()} their motion.
+         */
+        void unpack(PackedRaster pre, PackedRaster source, boolean luma) {
+            PackedRaster post = Resampler.fit(source, pre.width, pre.height);                                          // Motion is followed at the resolution of pre.
+            resize(pre.width, pre.height);
+            alpha = pre.hasAlpha || post.hasAlpha;
+
+            Bands.run(height, (long) width * height, (from, to) -> {
+                int[][] rows = rows(width);
+                for (int y = from; y < to; y++) {
+                    unpack(pre, y, rows[0], prePixels, luma ? preLuma[0] : null);
+                    unpack(post, y, rows[1], postPixels, luma ? postLuma[0] : null);
+                }
+            });
+            if (luma) pyramid();
+        }
+
+        /**
+         * Builds every coarser level of both luma pyramids from level 0.
+         */
+        private void pyramid() {
+            for (int level = 1; level < levels; level++) {
+                downsample(preLuma[level - 1], levelWidth[level - 1], preLuma[level], levelWidth[level], levelHeight[level]);
+                downsample(postLuma[level - 1], levelWidth[level - 1], postLuma[level], levelWidth[level], levelHeight[level]);
+            }
+        }
+
+        /**
+         * Copies a row of a source into its plane, and its luma into level 0 of its pyramid, unless that is <i>null</i>.
+         */
+        private void unpack(PackedRaster source, int y, int[] scratch, int[] pixels, byte[] luma) {
+            int[] row = alpha ? source.argbRow(y, scratch) : source.row(y, scratch);
+            int offset = alpha ? source.argbRowOffset(y) : source.rowOffset(y);
+            System.arraycopy(row, offset, pixels, y * width, width);
+            if (luma == null) return;
+
+            for (int x = 0, i = y * width; x < width; x++, i++) {
+                int pixel = pixels[i];
+                luma[i] = (byte) (((pixel >> 16 & 0xFF) * 77 + (pixel >> 8 & 0xFF) * 150 + (pixel & 0xFF) * 29) >> 8);   // Rec. 601 weights, in 256ths.
+            }
+        }
+
+        /**
+         * Halves a luma plane in each dimension, averaging each 2x2 square. An odd last row or column is dropped.
+         */
+        private static void downsample(byte[] source, int sourceWidth, byte[] target, int width, int height) {
+            for (int y = 0; y < height; y++)
+                for (int x = 0, i = 2 * y * sourceWidth; x < width; x++, i += 2)
+                    target[y * width + x] = (byte) (((source[i] & 0xFF) + (source[i + 1] & 0xFF)
+                                                   + (source[i + sourceWidth] & 0xFF) + (source[i + sourceWidth + 1] & 0xFF) + 2) >> 2);
+        }
+
+        /**
+         * Grows every buffer to fit a resolution, if it has changed since the last pair.
+         */
+        private void resize(int width, int height) {
+            if (width == this.width && height == this.height) return;
+            this.width = width;
+            this.height = height;
+
+            prePixels = new int[width * height];
+            postPixels = new int[width * height];
+            levels = 1;
+            while (levels < MAX_LEVELS && (width >> levels) >= 4 * BLOCK_SIZE && (height >> levels) >= 4 * BLOCK_SIZE)
+                levels++;
+
+            for (int level = 0; level < levels; level++) {
+                levelWidth[level] = width >> level;
+                levelHeight[level] = height >> level;
+                preLuma[level] = new byte[levelWidth[level] * levelHeight[level]];
+                postLuma[level] = new byte[levelWidth[level] * levelHeight[level]];
+
+                int blocks = blocks(levelWidth[level]) * blocks(levelHeight[level]);
+                vectorX[level] = new int[blocks];
+                vectorY[level] = new int[blocks];
+            }
+        }
+
+        /**
+         * Matches every block of every level, from the coarsest to full resolution.
+         *
+         * @return The median filtered vectors of the full resolution blocks.
+         */
+        MotionField estimate() {
+            for (int level = levels - 1; level >= 0; level--) {
+                final int current = level;
+                int blocksY = blocks(levelHeight[level]);
+                Bands.run(blocksY, (long) levelWidth[level] * levelHeight[level] * (level == levels - 1 ? 9 : 3), (from, to) -> {
+                    for (int blockY = from; blockY < to; blockY++)
+                        for (int blockX = 0; blockX < blocks(levelWidth[current]); blockX++)
+                            search(current, blockX, blockY);
+                });
+            }
+
+            int[] x = new int[vectorX[0].length], y = new int[vectorY[0].length];
+            median(vectorX[0], x, blocks(width), blocks(height));
+            median(vectorY[0], y, blocks(width), blocks(height));
+            return new MotionField(width, height, BLOCK_SIZE, x, y);
+        }
+
+        /**
+         * Finds the vector of a single block of a level.
+         */
+        private void search(int level, int blockX, int blockY) {
+            int stride = levelWidth[level], rows = levelHeight[level];
+            int x = blockX * BLOCK_SIZE, y = blockY * BLOCK_SIZE;
+            int blockWidth = Math.min(BLOCK_SIZE, stride - x), blockHeight = Math.min(BLOCK_SIZE, rows - y);
+            byte[] pre = preLuma[level], post = postLuma[level];
+            int origin = y * stride + x;
+
+            int bestX = 0, bestY = 0;
+            int best = sad(pre, origin, post, origin, stride, blockWidth, blockHeight, Integer.MAX_VALUE);              // Still content is always a candidate.
+
+            if (level == levels - 1) {
+                for (int dy = -SEARCH_RADIUS; dy <= SEARCH_RADIUS; dy++)                                                // Exhaustively, at the coarsest level.
+                    for (int dx = -SEARCH_RADIUS; dx <= SEARCH_RADIUS; dx++) {
+                        int cost = cost(pre, post, origin, x, y, dx, dy, stride, rows, blockWidth, blockHeight, best);
+                        if (cost < best) {
+                            best = cost;
+                            bestX = dx;
+                            bestY = dy;
+                        }
+                    }
+            } else {
+                int parentBlocksX = blocks(levelWidth[level + 1]), parentBlocksY = blocks(levelHeight[level + 1]);
+                int parentX = Math.min(blockX >> 1, parentBlocksX - 1), parentY = Math.min(blockY >> 1, parentBlocksY - 1);
+                int[] parentVectorX = vectorX[level + 1], parentVectorY = vectorY[level + 1];
+
+                for (int candidate = 0; candidate < 10; candidate++) {                                                  // The parent's vector, its neighbours',
+                    int dx, dy;                                                                                         // and that of the block to the left,
+                    if (candidate < 9) {                                                                                // which this band has already matched.
+                        int parent = clamp(parentY + candidate / 3 - 1, parentBlocksY - 1) * parentBlocksX
+                                   + clamp(parentX + candidate % 3 - 1, parentBlocksX - 1);
+                        dx = parentVectorX[parent] * 2;
+                        dy = parentVectorY[parent] * 2;
+                    } else if (blockX > 0) {
+                        int left = blockY * blocks(stride) + blockX - 1;
+                        dx = vectorX[level][left];
+                        dy = vectorY[level][left];
+                    } else break;
+
+                    int cost = cost(pre, post, origin, x, y, dx, dy, stride, rows, blockWidth, blockHeight, best);
+                    if (cost < best) {
+                        best = cost;
+                        bestX = dx;
+                        bestY = dy;
+                    }
+                }
+
+                int centreX = bestX, centreY = bestY;
+                for (int dy = centreY - 1; dy <= centreY + 1; dy++)                                                     // Then refine to within a pixel of this level.
+                    for (int dx = centreX - 1; dx <= centreX + 1; dx++) {
+                        int cost = cost(pre, post, origin, x, y, dx, dy, stride, rows, blockWidth, blockHeight, best);
+                        if (cost < best) {
+                            best = cost;
+                            bestX = dx;
+                            bestY = dy;
+                        }
+                    }
+            }
+
+            int block = blockY * blocks(stride) + blockX;
+            vectorX[level][block] = bestX;
+            vectorY[level][block] = bestY;
+        }
+
+        /**
+         * @return SAD of a block against <i>post</i> offset by a vector, plus {@link #VECTOR_COST} per pixel of the vector.
+         *         Blocks offset partly outside the frame are compared where they overlap it, scaled to the whole block.
+         *         {@link Integer#MAX_VALUE} if less than {@link #MIN_OVERLAP} of the offset block would lie within the frame.
+         */
+        private static int cost(byte[] pre, byte[] post, int origin, int x, int y, int dx, int dy, int stride, int rows, int blockWidth, int blockHeight, int limit) {
+            int penalty = (Math.abs(dx) + Math.abs(dy)) * VECTOR_COST;
+            if (penalty >= limit) return Integer.MAX_VALUE;
+
+            int left = Math.max(0, -(x + dx)), right = Math.min(blockWidth, stride - (x + dx));                        // Of the block, the columns and rows
+            int top = Math.max(0, -(y + dy)), bottom = Math.min(blockHeight, rows - (y + dy));                          // whose match lies within the frame.
+            int overlap = Math.max(0, right - left) * Math.max(0, bottom - top), area = blockWidth * blockHeight;
+            if (overlap == area)
+                return penalty + sad(pre, origin, post, origin + dy * stride + dx, stride, blockWidth, blockHeight, limit - penalty);
+            if (overlap * MIN_OVERLAP < area) return Integer.MAX_VALUE;
+
+            int start = origin + top * stride + left;
+            int partial = sad(pre, start, post, start + dy * stride + dx, stride, right - left, bottom - top,
+                              (int) ((long) (limit - penalty) * overlap / area) + 1);
+            return (int) Math.min(Integer.MAX_VALUE, penalty + (long) partial * area / overlap);
+        }
+
+        /**
+         * 3x3 median of one component of a block vector field, to remove vectors that disagree with all their neighbours.
+         */
+        private static void median(int[] source, int[] target, int blocksX, int blocksY) {
+            int[] window = new int[9];
+            for (int y = 0; y < blocksY; y++)
+                for (int x = 0; x < blocksX; x++) {
+                    int n = 0;
+                    for (int wy = Math.max(0, y - 1); wy <= Math.min(blocksY - 1, y + 1); wy++)
+                        for (int wx = Math.max(0, x - 1); wx <= Math.min(blocksX - 1, x + 1); wx++)
+                            window[n++] = source[wy * blocksX + wx];
+
+                    Arrays.sort(window, 0, n);
+                    target[y * blocksX + x] = window[n >> 1];
+                }
+        }
+
+        /**
+         * Interpolates the pair at a single point, along a field.
+         *
+         * @param out packed pixels of the destination, <i>width</i> pixels per row.
+         * @param alphaOut <i>true</i> to blend alpha into the top byte of <i>out</i>.
+         */
+        void warp(MotionField field, double interpol, int[] out, boolean alphaOut) {
+            BlendMode mode = LinearImageInterpolator.getBlendMode();
+            RowBlender blender = alphaOut ? mode.alphaBlender(interpol) : mode.blender(interpol);
+            boolean opaque = alphaOut && !alpha;                                                                        // Planes hold no alpha, but the blend needs it.
+
+            Bands.run(height, (long) width * height, (from, to) -> {
+                int[][] rows = rows(width);
+                int[] preRow = rows[0], postRow = rows[1];
+
+                for (int y = from; y < to; y++) {
+                    int blockRow = (y / field.blockSize) * field.blocksX;
+                    for (int blockX = 0; blockX < field.blocksX; blockX++) {
+                        int vx = field.vectorX[blockRow + blockX], vy = field.vectorY[blockRow + blockX];
+                        int preX = (int) Math.round(-interpol * vx), preY = (int) Math.round(-interpol * vy);           // Back along the vector, to where the content was,
+                        int postX = vx + preX, postY = vy + preY;                                                       // and forward, to where it will be.
+                        int preBase = clamp(y + preY, height - 1) * width, postBase = clamp(y + postY, height - 1) * width;
+
+                        for (int x = blockX * field.blockSize, end = Math.min(width, x + field.blockSize); x < end; x++) {
+                            preRow[x] = prePixels[preBase + clamp(x + preX, width - 1)];
+                            postRow[x] = postPixels[postBase + clamp(x + postX, width - 1)];
+                        }
+                    }
+
+                    if (opaque)
+                        for (int x = 0; x < width; x++) {
+                            preRow[x] |= 0xFF000000;
+                            postRow[x] |= 0xFF000000;
+                        }
+                    blender.blendRow(preRow, 0, postRow, 0, out, y * width, width);
+                }
+            });
+        }
+
+        private static int blocks(int pixels) {
+            return (pixels + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        }
+
+        /**
+         * @return This thread's {@link #ROWS}, grown to hold rows of <i>width</i> pixels.
+         */
+        private static int[][] rows(int width) {
+            int[][] rows = ROWS.get();
+            if (rows[0].length < width) {
+                rows = new int[][]{new int[width], new int[width]};
+                ROWS.set(rows);
+            }
+            return rows;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.shinkson47.FrameInterpolation;
+
+/**
+ * Motion between a pair of frames, as one vector per block of {@link MotionCompensatedInterpolator#BLOCK_SIZE} pixels.
+ *
+ * The vector of a block is the offset, in whole pixels, from where its content lies in the frame that represents
+ * <i>interpol = 0</i> to where it lies in the frame that represents <i>interpol = 1</i>.
+ * A field is estimated once per pair, see {@link MotionCompensatedInterpolator#estimate}, and may then be re-used
+ * to interpolate that pair at any number of points.
+ *
+ * @implNote Immutable, and so safe to share between threads.
+ * @version 1
+ * @author <a href="https://www.shinkson47.in">Jordan T. Gray</a>
+ */
+public final class MotionField {
+
+    final int width, height;
+    final int blockSize;
+    final int blocksX, blocksY;
+    final int[] vectorX, vectorY;                                                                                       // Row after row of blocks.
+
+    MotionField(int width, int height, int blockSize, int[] vectorX, int[] vectorY) {
+        this.width = width;
+        this.height = height;
+        this.blockSize = blockSize;
+        blocksX = (width + blockSize - 1) / blockSize;
+        blocksY = (height + blockSize - 1) / blockSize;
+        this.vectorX = vectorX;
+        this.vectorY = vectorY;
+    }
+
+    /**
+     * @return Width of the frames the field was estimated between.
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * @return Height of the frames the field was estimated between.
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * @return Width and height of each block, in pixels. Blocks on the right and bottom edges may be smaller.
+     */
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    /**
+     * @return Number of blocks across each row.
+     */
+    public int getBlocksX() {
+        return blocksX;
+    }
+
+    /**
+     * @return Number of rows of blocks.
+     */
+    public int getBlocksY() {
+        return blocksY;
+    }
+
+    /**
+     * @param blockX column of the block.
+     * @param blockY row of the block.
+     * @return Horizontal motion of the block, in pixels.
+     */
+    public int getVectorX(int blockX, int blockY) {
+        return vectorX[blockY * blocksX + blockX];
+    }
+
+    /**
+     * @param blockX column of the block.
+     * @param blockY row of the block.
+     * @return Vertical motion of the block, in pixels.
+     */
+    public int getVectorY(int blockX, int blockY) {
+        return vectorY[blockY * blocksX + blockX];
+    }
+
+    /**
+     * @return Mean length of every block's vector, in pixels; <i>0</i> for a still pair.
+     */
+    public double getMeanMotion() {
+        double total = 0;
+        for (int i = 0; i < vectorX.length; i++)
+            total += Math.sqrt((double) vectorX[i] * vectorX[i] + (double) vectorY[i] * vectorY[i]);
+        return vectorX.length == 0 ? 0 : total / vectorX.length;
+    }
+}
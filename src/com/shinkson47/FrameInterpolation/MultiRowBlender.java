@@ -0,0 +1,34 @@
+package com.shinkson47.FrameInterpolation;
+
+/**
+ * Blends rows of packed <i>0xRRGGBB</i> pixels at several pre-determined points of interpolation at once,
+ * so that each source row is read only once, no matter how many frames are produced from it.
+ *
+ * @see RowBlender
+ * @version 1
+ * @author <a href="https://www.shinkson47.in">Jordan T. Gray</a>
+ */
+interface MultiRowBlender {
+
+    /**
+     * Lerps a row of packed <i>0xRRGGBB</i> pixels at every point of interpolation.
+     *
+     * @param pre array containing the row of the image that represents <i>interpol = 0</i>
+     * @param preOffset index of the first pixel of the row within <i>pre</i>
+     * @param post array containing the row of the image that represents <i>interpol = 1</i>
+     * @param postOffset index of the first pixel of the row within <i>post</i>
+     * @param out arrays to write the blended rows to, one per point of interpolation.
+     * @param outOffset index within each of <i>out</i> to write the first pixel to.
+     * @param length number of pixels in the row.
+     */
+    void blendRow(int[] pre, int preOffset, int[] post, int postOffset, int[][] out, int outOffset, int length);
+
+    /**
+     * @param blender kernel for a single point of interpolation.
+     * @return <i>blender</i>, writing to the first of the output arrays.
+     */
+    static MultiRowBlender of(RowBlender blender) {
+        return (pre, preOffset, post, postOffset, out, outOffset, length) ->
+                blender.blendRow(pre, preOffset, post, postOffset, out[0], outOffset, length);
+    }
+}
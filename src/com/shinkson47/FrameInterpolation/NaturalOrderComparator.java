@@ -0,0 +1,67 @@
+package com.shinkson47.FrameInterpolation;
+
+import java.io.File;
+import java.util.Comparator;
+
+/**
+ * Orders files by name the way a person would, so that <i>frame_2</i> comes before <i>frame_10</i>.
+ *
+ * Names are compared as runs of digits and runs of anything else. Runs of digits are compared by numeric value,
+ * of any length, and everything else case-insensitively. Names that are still equal are compared exactly,
+ * so that the order is total, and the same on every machine.
+ *
+ * @version 1
+ * @author <a href="https://www.shinkson47.in">Jordan T. Gray</a>
+ */
+public final class NaturalOrderComparator implements Comparator<File> {
+
+    public static final NaturalOrderComparator INSTANCE = new NaturalOrderComparator();
+
+    private NaturalOrderComparator() {}
+
+    @Override
+    public int compare(File a, File b) {
+        return compare(a.getName(), b.getName());
+    }
+
+    /**
+     * Compares two names in natural order.
+     *
+     * @return negative if <i>a</i> comes first, positive if <i>b</i> does, or <i>0</i> if they are identical.
+     */
+    public static int compare(String a, String b) {
+        int i = 0, j = 0;
+        while (i < a.length() && j < b.length()) {
+            char ca = a.charAt(i), cb = b.charAt(j);
+
+            if (Character.isDigit(ca) && Character.isDigit(cb)) {
+                int startA = i, startB = j;
+                while (i < a.length() && a.charAt(i) == '0') i++;                                                     // Leading zeros carry no value.
+                while (j < b.length() && b.charAt(j) == '0') j++;
+                int digitsA = i, digitsB = j;
+                while (i < a.length() && Character.isDigit(a.charAt(i))) i++;
+                while (j < b.length() && Character.isDigit(b.charAt(j))) j++;
+
+                int lengthA = i - digitsA, lengthB = j - digitsB;
+                if (lengthA != lengthB) return lengthA - lengthB;                                                       // More significant digits, larger number.
+
+                for (int k = 0; k < lengthA; k++) {
+                    int digit = a.charAt(digitsA + k) - b.charAt(digitsB + k);
+                    if (digit != 0) return digit;
+                }
+
+                int zeros = (digitsA - startA) - (digitsB - startB);                                                   // Same value; fewer leading zeros first.
+                if (zeros != 0) return zeros;
+                continue;
+            }
+
+            int character = Character.compare(Character.toLowerCase(ca), Character.toLowerCase(cb));
+            if (character != 0) return character;
+            i++;
+            j++;
+        }
+
+        int remaining = (a.length() - i) - (b.length() - j);
+        return remaining != 0 ? remaining : a.compareTo(b);
+    }
+}
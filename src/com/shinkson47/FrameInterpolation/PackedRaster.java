@@ -0,0 +1,398 @@
+package com.shinkson47.FrameInterpolation;
+
+import java.awt.color.ColorSpace;
+import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+import java.awt.image.ComponentSampleModel;
+import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
+import java.awt.image.DataBufferUShort;
+import java.awt.image.DirectColorModel;
+import java.awt.image.IndexColorModel;
+import java.awt.image.MultiPixelPackedSampleModel;
+import java.awt.image.SampleModel;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.awt.image.WritableRaster;
+import java.nio.IntBuffer;
+
+/**
+ * Row-wise view of a BufferedImage as packed <i>0xAARRGGBB</i> integers.
+ *
+ * The layout of the backing samples is recognised once, from the image's sample model and colour model rather than its
+ * type, so the custom types ImageIO produces for some PNGs are read directly too. Each row is then unpacked straight
+ * from the backing DataBufferInt / DataBufferByte / DataBufferUShort array by a loop specialised for that layout,
+ * without going through a ColorModel, and without allocating per pixel:
+ * <ul>
+ *     <li>packed ints, as TYPE_INT_RGB and TYPE_INT_ARGB, which are served in place;</li>
+ *     <li>interleaved 8 or 16 bit sRGB samples, with or without alpha, as TYPE_3BYTE_BGR and TYPE_4BYTE_ABGR;</li>
+ *     <li>8 or 16 bit gray samples, with or without alpha, as TYPE_BYTE_GRAY and TYPE_USHORT_GRAY;</li>
+ *     <li>palette indices of 1 to 8 bits, as TYPE_BYTE_INDEXED and TYPE_BYTE_BINARY, looked up in a copy of the palette.</li>
+ * </ul>
+ * 16 bit samples are truncated to their top 8 bits. Gray samples are expanded to equal red, green and blue as stored,
+ * rather than through the linear gray colour space that BufferedImage#getRGB assumes.
+ *
+ * @implNote Layouts that are not understood, including premultiplied alpha, fall back to BufferedImage#getRGB, one row at a time.
+ * @version 1
+ * @author <a href="https://www.shinkson47.in">Jordan T. Gray</a>
+ */
+final class PackedRaster {
+
+    /**
+     * Backing array layouts that can be read directly.
+     */
+    private enum Layout { INT_RGB, BYTE_INTERLEAVED, BYTE_GRAY, USHORT_INTERLEAVED, USHORT_GRAY, BYTE_INDEXED, BIT_INDEXED, INT_BUFFER, FALLBACK }
+
+    final int width;
+    final int height;
+
+    /**
+     * <i>true</i> if the top byte of each pixel is its alpha, rather than undefined.
+     */
+    final boolean hasAlpha;
+
+    private final BufferedImage image;
+    private final Layout layout;
+
+    private final int[] ints;
+    private final byte[] bytes;
+    private final short[] shorts;
+    private final IntBuffer buffer;
+    private final int[] palette;                                                                                        // 0xAARRGGBB of each index, for indexed layouts.
+    private final int offset;                                                                                           // Array index of pixel (0,0); for bit indexed layouts, of row 0.
+    private final int scanlineStride;
+    private final int pixelStride;                                                                                      // In elements; for bit indexed layouts, in bits.
+    private final int bitOffset;                                                                                        // Bit of pixel (0,0) within row 0, for bit indexed layouts.
+    private final int redOffset, greenOffset, blueOffset, alphaOffset;                                                  // Band offsets within a pixel, for interleaved samples. Gray is red.
+
+    PackedRaster(BufferedImage image) {
+        this.image = image;
+        width = image.getWidth();
+        height = image.getHeight();
+
+        WritableRaster raster = image.getRaster();
+        ColorModel colorModel = image.getColorModel();
+        SampleModel sampleModel = raster.getSampleModel();
+        DataBuffer dataBuffer = raster.getDataBuffer();
+        int translateX = raster.getSampleModelTranslateX(), translateY = raster.getSampleModelTranslateY();
+
+        int translate = 0, stride = 0, pxStride = 1, bits = 0, r = 0, g = 0, b = 0, a = -1;
+        int[] intData = null, lookup = null;
+        byte[] byteData = null;
+        short[] shortData = null;
+        Layout found = Layout.FALLBACK;
+
+        boolean straight = !colorModel.isAlphaPremultiplied();                                                         // Un-premultiplying is left to getRGB.
+        if (straight && colorModel instanceof IndexColorModel && dataBuffer instanceof DataBufferByte) {
+            IndexColorModel indexed = (IndexColorModel) colorModel;
+            lookup = new int[256];                                                                                      // Any byte is a safe index, even beyond the palette.
+            indexed.getRGBs(lookup);
+            byteData = ((DataBufferByte) dataBuffer).getData();
+
+            if (sampleModel instanceof ComponentSampleModel && sampleModel.getNumBands() == 1) {                        // TYPE_BYTE_INDEXED
+                ComponentSampleModel model = (ComponentSampleModel) sampleModel;
+                stride = model.getScanlineStride();
+                pxStride = model.getPixelStride();
+                translate = dataBuffer.getOffset() + model.getBandOffsets()[0] - translateY * stride - translateX * pxStride;
+                found = Layout.BYTE_INDEXED;
+            } else if (sampleModel instanceof MultiPixelPackedSampleModel) {                                            // TYPE_BYTE_BINARY, 1, 2 or 4 bits per pixel.
+                MultiPixelPackedSampleModel model = (MultiPixelPackedSampleModel) sampleModel;
+                stride = model.getScanlineStride();
+                pxStride = model.getPixelBitStride();
+                bits = model.getDataBitOffset() - translateX * pxStride;
+                translate = dataBuffer.getOffset() - translateY * stride;
+                found = Layout.BIT_INDEXED;
+            }
+        } else if (straight && colorModel instanceof DirectColorModel && dataBuffer instanceof DataBufferInt
+                && sampleModel instanceof SinglePixelPackedSampleModel) {
+            DirectColorModel direct = (DirectColorModel) colorModel;
+            if (direct.getRedMask() == 0xFF0000 && direct.getGreenMask() == 0xFF00 && direct.getBlueMask() == 0xFF
+                    && (direct.getAlphaMask() == 0 || direct.getAlphaMask() == 0xFF000000)) {                           // TYPE_INT_RGB, TYPE_INT_ARGB
+                stride = ((SinglePixelPackedSampleModel) sampleModel).getScanlineStride();
+                translate = dataBuffer.getOffset() - translateY * stride - translateX;
+                intData = ((DataBufferInt) dataBuffer).getData();
+                found = Layout.INT_RGB;
+            }
+        } else if (straight && sampleModel instanceof ComponentSampleModel && !(colorModel instanceof IndexColorModel)
+                && (dataBuffer instanceof DataBufferByte || dataBuffer instanceof DataBufferUShort)) {
+            ComponentSampleModel model = (ComponentSampleModel) sampleModel;
+            ColorSpace space = colorModel.getColorSpace();
+            int bands = model.getNumBands();
+            boolean wide = dataBuffer instanceof DataBufferUShort;
+            boolean rgb = space.isCS_sRGB() && bands == (colorModel.hasAlpha() ? 4 : 3);
+            boolean gray = space.getType() == ColorSpace.TYPE_GRAY && bands == (colorModel.hasAlpha() ? 2 : 1);
+
+            boolean singleBank = true, fullDepth = true;                                                                // Banded layouts keep each band in its own array.
+            for (int band = 0; band < bands; band++) {
+                singleBank &= model.getBankIndices()[band] == 0;
+                fullDepth &= model.getSampleSize(band) == (wide ? 16 : 8);
+            }
+
+            if ((rgb || gray) && singleBank && fullDepth) {
+                stride = model.getScanlineStride();
+                pxStride = model.getPixelStride();
+                int[] bandOffsets = model.getBandOffsets();                                                             // Bands are ordered R, G, B(, A), or Y(, A), whatever their position in memory.
+                r = bandOffsets[0];
+                if (rgb) {
+                    g = bandOffsets[1];
+                    b = bandOffsets[2];
+                }
+                if (colorModel.hasAlpha()) a = bandOffsets[bands - 1];
+                translate = dataBuffer.getOffset() - translateY * stride - translateX * pxStride;
+
+                if (wide) shortData = ((DataBufferUShort) dataBuffer).getData();
+                else byteData = ((DataBufferByte) dataBuffer).getData();
+                found = wide ? (rgb ? Layout.USHORT_INTERLEAVED : Layout.USHORT_GRAY)
+                             : (rgb ? Layout.BYTE_INTERLEAVED : Layout.BYTE_GRAY);
+            }
+        }
+
+        layout = found;
+        hasAlpha = colorModel.hasAlpha();
+        ints = intData;
+        bytes = byteData;
+        shorts = shortData;
+        buffer = null;
+        palette = lookup;
+        offset = translate;
+        scanlineStride = stride;
+        pixelStride = pxStride;
+        bitOffset = bits;
+        redOffset = r;
+        greenOffset = g;
+        blueOffset = b;
+        alphaOffset = a;
+    }
+
+    /**
+     * Views an array of packed pixels.
+     *
+     * @param pixels packed <i>0xRRGGBB</i> pixels, row after row, starting at index <i>0</i>
+     * @param width width of the frame, and the stride of each row.
+     * @param height height of the frame.
+     */
+    PackedRaster(int[] pixels, int width, int height) {
+        this.width = width;
+        this.height = height;
+        hasAlpha = false;
+        image = null;
+        layout = Layout.INT_RGB;
+        ints = pixels;
+        bytes = null;
+        shorts = null;
+        buffer = null;
+        palette = null;
+        offset = 0;
+        scanlineStride = width;
+        pixelStride = 1;
+        bitOffset = 0;
+        redOffset = greenOffset = blueOffset = 0;
+        alphaOffset = -1;
+    }
+
+    /**
+     * Views packed pixels held outside of the heap, such as a memory mapped frame.
+     *
+     * @param pixels packed <i>0xRRGGBB</i> pixels, row after row, starting at index <i>0</i>
+     * @param width width of the frame, and the stride of each row.
+     * @param height height of the frame.
+     * @param hasAlpha <i>true</i> if the top byte of each pixel is its alpha.
+     */
+    PackedRaster(IntBuffer pixels, int width, int height, boolean hasAlpha) {
+        this.width = width;
+        this.height = height;
+        this.hasAlpha = hasAlpha;
+        image = null;
+        layout = Layout.INT_BUFFER;
+        ints = null;
+        bytes = null;
+        shorts = null;
+        buffer = pixels;
+        palette = null;
+        offset = 0;
+        scanlineStride = width;
+        pixelStride = 1;
+        bitOffset = 0;
+        redOffset = greenOffset = blueOffset = 0;
+        alphaOffset = -1;
+    }
+
+    /**
+     * @return <i>true</i> if rows are served straight from the image's own int array, rather than copied.
+     */
+    boolean isDirect() {
+        return layout == Layout.INT_RGB;
+    }
+
+    /**
+     * Provides a single row of packed pixels.
+     *
+     * @implNote Only bits 0-23 of each element are meaningful, unless {@link #hasAlpha}; the top byte may otherwise contain garbage.
+     * @param y row to read.
+     * @param scratch buffer of at least <i>width</i> elements, used when the row cannot be served directly.
+     * @return array containing the row, starting at {@link #rowOffset(int)}.
+     */
+    int[] row(int y, int[] scratch) {
+        int i = offset + y * scanlineStride;
+        switch (layout) {
+            case INT_RGB:
+                return ints;
+
+            case BYTE_INTERLEAVED:
+                if (alphaOffset < 0)
+                    for (int x = 0; x < width; x++, i += pixelStride)
+                        scratch[x] = (bytes[i + redOffset] & 0xFF) << 16
+                                   | (bytes[i + greenOffset] & 0xFF) << 8
+                                   | (bytes[i + blueOffset] & 0xFF);
+                else
+                    for (int x = 0; x < width; x++, i += pixelStride)
+                        scratch[x] = (bytes[i + alphaOffset] & 0xFF) << 24
+                                   | (bytes[i + redOffset] & 0xFF) << 16
+                                   | (bytes[i + greenOffset] & 0xFF) << 8
+                                   | (bytes[i + blueOffset] & 0xFF);
+                return scratch;
+
+            case BYTE_GRAY:
+                if (alphaOffset < 0)
+                    for (int x = 0; x < width; x++, i += pixelStride)
+                        scratch[x] = (bytes[i + redOffset] & 0xFF) * 0x010101;
+                else
+                    for (int x = 0; x < width; x++, i += pixelStride)
+                        scratch[x] = (bytes[i + alphaOffset] & 0xFF) << 24 | (bytes[i + redOffset] & 0xFF) * 0x010101;
+                return scratch;
+
+            case USHORT_INTERLEAVED:
+                for (int x = 0; x < width; x++, i += pixelStride)
+                    scratch[x] = (alphaOffset < 0 ? 0 : (shorts[i + alphaOffset] & 0xFF00) << 16)
+                               | (shorts[i + redOffset] & 0xFF00) << 8
+                               | (shorts[i + greenOffset] & 0xFF00)
+                               | (shorts[i + blueOffset] & 0xFF00) >>> 8;
+                return scratch;
+
+            case USHORT_GRAY:
+                for (int x = 0; x < width; x++, i += pixelStride)
+                    scratch[x] = (alphaOffset < 0 ? 0 : (shorts[i + alphaOffset] & 0xFF00) << 16)
+                               | (shorts[i + redOffset] >>> 8 & 0xFF) * 0x010101;
+                return scratch;
+
+            case BYTE_INDEXED:
+                for (int x = 0; x < width; x++, i += pixelStride)
+                    scratch[x] = palette[bytes[i] & 0xFF];
+                return scratch;
+
+            case BIT_INDEXED:
+                int mask = (1 << pixelStride) - 1;
+                for (int x = 0, bit = bitOffset; x < width; x++, bit += pixelStride)                                   // Pixels are packed from the most significant bit.
+                    scratch[x] = palette[bytes[i + (bit >>> 3)] >> (8 - pixelStride - (bit & 7)) & mask];
+                return scratch;
+
+            case INT_BUFFER:
+                for (int x = 0; x < width; x++, i++)                                                                    // Absolute gets; safe for bands on several threads.
+                    scratch[x] = buffer.get(i);
+                return scratch;
+
+            default:
+                image.getRGB(0, y, width, 1, scratch, 0, width);
+                return scratch;
+        }
+    }
+
+    /**
+     * Provides a single row of packed <i>0xAARRGGBB</i> pixels, whose top byte is always alpha.
+     *
+     * @param y row to read.
+     * @param scratch buffer of at least <i>width</i> elements, used when the row cannot be served directly.
+     * @return array containing the row, starting at {@link #argbRowOffset(int)}.
+     */
+    int[] argbRow(int y, int[] scratch) {
+        int[] row = row(y, scratch);
+        if (hasAlpha || layout == Layout.FALLBACK) return row;                                                          // getRGB always provides alpha.
+
+        for (int x = 0, i = rowOffset(y); x < width; x++, i++)                                                          // Opaque; copied, so that a direct row is never written to.
+            scratch[x] = row[i] | 0xFF000000;
+        return scratch;
+    }
+
+    /**
+     * @param y row being read.
+     * @return index of the first pixel of row <i>y</i> within the array returned by {@link #argbRow(int, int[])}.
+     */
+    int argbRowOffset(int y) {
+        return hasAlpha ? rowOffset(y) : 0;
+    }
+
+    /**
+     * @param y row being read.
+     * @return index of the first pixel of row <i>y</i> within the array returned by {@link #row(int, int[])}.
+     */
+    int rowOffset(int y) {
+        return isDirect() ? offset + y * scanlineStride : 0;
+    }
+
+    /**
+     * Hashes every pixel, as read by {@link #argbRow(int, int[])}, so that frames of any layout with the same content
+     * hash the same.
+     *
+     * @return 64 bit FNV-1a hash of the frame's size, and pixels.
+     */
+    long contentHash() {
+        int[] scratch = new int[width];
+        long hash = 0xCBF29CE484222325L ^ ((long) width << 32 | height);
+        for (int y = 0; y < height; y++) {
+            int[] row = argbRow(y, scratch);
+            for (int x = 0, i = argbRowOffset(y); x < width; x++, i++)
+                hash = (hash ^ row[i]) * 0x100000001B3L;
+        }
+        return hash;
+    }
+
+    /**
+     * @param other frame to compare to.
+     * @return <i>true</i> if both frames are the same size, and every pixel, including alpha, is identical.
+     */
+    boolean sameContent(PackedRaster other) {
+        if (width != other.width || height != other.height) return false;
+
+        int[] scratch = new int[width], otherScratch = new int[width];
+        for (int y = 0; y < height; y++) {
+            int[] row = argbRow(y, scratch), otherRow = other.argbRow(y, otherScratch);
+            for (int x = 0, i = argbRowOffset(y), j = other.argbRowOffset(y); x < width; x++, i++, j++)
+                if (row[i] != otherRow[j]) return false;                                                               // Frames that differ almost always differ early.
+        }
+        return true;
+    }
+
+    /**
+     * @param image image created with TYPE_INT_RGB or TYPE_INT_ARGB, that has not been sub-imaged.
+     * @return the image's backing pixel array, for writing into directly.
+     */
+    static int[] pixels(BufferedImage image) {
+        return ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+    }
+
+    /**
+     * Provides the backing array of a caller supplied destination, after checking that packed rows can be written to it.
+     *
+     * @param image destination image.
+     * @param width width the destination must have.
+     * @param height height the destination must have.
+     * @return the image's backing pixel array, holding row <i>y</i> from index <i>y * width</i>
+     * @throws IllegalArgumentException if the image is not TYPE_INT_RGB or TYPE_INT_ARGB, is not <i>width</i> x <i>height</i>,
+     *                                  or is a sub-image of a larger raster.
+     */
+    static int[] writablePixels(BufferedImage image, int width, int height) {
+        int type = image.getType();
+        if (type != BufferedImage.TYPE_INT_RGB && type != BufferedImage.TYPE_INT_ARGB)
+            throw new IllegalArgumentException("Destination must be TYPE_INT_RGB or TYPE_INT_ARGB.");
+        if (image.getWidth() != width || image.getHeight() != height)
+            throw new IllegalArgumentException("Destination is " + image.getWidth() + "x" + image.getHeight() + ", but must be " + width + "x" + height + ".");
+
+        WritableRaster raster = image.getRaster();
+        if (((SinglePixelPackedSampleModel) raster.getSampleModel()).getScanlineStride() != width
+                || raster.getSampleModelTranslateX() != 0 || raster.getSampleModelTranslateY() != 0
+                || raster.getDataBuffer().getOffset() != 0)
+            throw new IllegalArgumentException("Destination cannot be a sub-image.");
+
+        return pixels(image);
+    }
+}
@@ -0,0 +1,401 @@
+package com.shinkson47.FrameInterpolation;
+
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Plays back the interpolated sequence of a {@link FrameBuffer} in real time, rendering frames ahead of the playhead.
+ *
+ * Producer threads blend output frames into a ring buffer of <i>lookAhead</i> slots, up to <i>lookAhead</i> frames
+ * ahead of the playhead, whether or not playback is running. A fixed rate scheduler decides which frame is due
+ * from the clock alone; if that frame is ready it is handed to the {@link Display} on the display executor,
+ * such as <i>Platform::runLater</i>. Frames that are not ready when due are dropped, not delayed, so one slow blend
+ * never pushes back every frame after it.
+ *
+ * Output frame <i>i</i> is the same frame as <i>i</i> of {@link InterpolationPipeline#run}.
+ *
+ * @version 1
+ * @author <a href="https://www.shinkson47.in">Jordan T. Gray</a>
+ */
+public class PlaybackEngine implements AutoCloseable {
+
+    /**
+     * Default number of frames rendered ahead of the playhead.
+     */
+    public static final int DEFAULT_LOOK_AHEAD = 8;
+
+    /**
+     * Receives frames as they become due. Called only on the display executor.
+     */
+    public interface Display {
+
+        /**
+         * @param index position of the frame within the output sequence.
+         * @param frame the frame. Only valid until this method returns; copy it to keep it.
+         */
+        void show(int index, BufferedImage frame);
+
+        /**
+         * Called once playback reaches the end of the sequence, after the last frame has been shown or dropped.
+         */
+        default void ended() {}
+    }
+
+    private final FrameBuffer frames;
+    private final double[] points;
+    private final int length;
+    private final int width, height;                                                                                    // Of every frame; read once, so that no frame is touched under the lock.
+    private final int lookAhead;
+    private final FramePool pool;
+    private final Executor displayExecutor;
+    private final Display display;
+
+    private final Object lock = new Object();
+    private final BufferedImage[] slots;                                                                                // Ring buffer; output frame i lives in slot i % lookAhead.
+    private final int[] slotIndex;                                                                                      // Output frame each slot holds, or -1.
+    private final boolean[] slotReady;                                                                                  // Slot holds a finished render of slotIndex.
+    private final boolean[] slotBusy;                                                                                   // Slot is being rendered into, or shown.
+    private final Thread[] producers;
+    private final ScheduledExecutorService scheduler;
+
+    private ScheduledFuture<?> ticks;
+    private boolean playing, closed;
+    private int playhead;                                                                                               // Next frame that has been neither shown nor dropped.
+    private int nextToRender;
+    private int clockIndex;                                                                                             // Frame due at clockStart.
+    private long clockStart, period;
+    private long framesShown, framesDropped;
+
+    /**
+     * Creates an engine with {@link #DEFAULT_LOOK_AHEAD} slots, and one producer per available processor.
+     *
+     * @see #PlaybackEngine(FrameBuffer, int, int, int, FramePool, Executor, Display)
+     */
+    public PlaybackEngine(FrameBuffer frames, int exponent, Executor displayExecutor, Display display) {
+        this(frames, exponent, DEFAULT_LOOK_AHEAD, Runtime.getRuntime().availableProcessors(), new FramePool(), displayExecutor, display);
+    }
+
+    /**
+     * @param frames source sequence.
+     * @param exponent number of steps between each pair of frames, see {@link InterpolationPipeline#points(int)}
+     * @param lookAhead number of frames rendered ahead of the playhead.
+     * @param producers number of threads rendering frames.
+     * @param pool pool to borrow the ring buffer's frames from, and return them to on {@link #close()}.
+     * @param displayExecutor executor that frames are displayed on, such as the UI thread.
+     * @param display receives each frame as it becomes due.
+     * @throws IllegalArgumentException if <i>lookAhead</i> or <i>producers</i> is less than 1.
+     */
+    public PlaybackEngine(FrameBuffer frames, int exponent, int lookAhead, int producers, FramePool pool, Executor displayExecutor, Display display) {
+        if (lookAhead < 1 || producers < 1) throw new IllegalArgumentException("Playback requires at least one slot, and one producer.");
+
+        this.frames = frames;
+        this.points = InterpolationPipeline.points(exponent);
+        this.length = InterpolationPipeline.outputLength(frames.getBufferLength(), exponent);
+        this.width = frames.getWidth();
+        this.height = frames.getHeight();
+        this.lookAhead = lookAhead;
+        this.pool = pool;
+        this.displayExecutor = displayExecutor;
+        this.display = display;
+
+        slots = new BufferedImage[lookAhead];
+        slotIndex = new int[lookAhead];
+        slotReady = new boolean[lookAhead];
+        slotBusy = new boolean[lookAhead];
+        Arrays.fill(slotIndex, -1);
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "Playback scheduler");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MAX_PRIORITY);
+            return thread;
+        });
+
+        this.producers = new Thread[producers];
+        for (int i = 0; i < producers; i++) {
+            this.producers[i] = new Thread(this::produce, "Playback producer " + i);
+            this.producers[i].setDaemon(true);
+            this.producers[i].start();
+        }
+    }
+
+    /**
+     * Starts, or resumes, playback from the playhead.
+     *
+     * @param framesPerSecond rate to show output frames at.
+     * @throws IllegalArgumentException if <i>framesPerSecond</i> is not positive.
+     */
+    public void play(double framesPerSecond) {
+        if (!(framesPerSecond > 0)) throw new IllegalArgumentException("Frames per second must be positive.");
+
+        synchronized (lock) {
+            if (closed) throw new IllegalStateException("Playback engine has been closed.");
+            period = Math.max(1, (long) (1e9 / framesPerSecond));
+            playing = true;
+            restartClock();
+        }
+    }
+
+    /**
+     * Changes the rate of playback, continuing from the playhead.
+     *
+     * @param framesPerSecond rate to show output frames at.
+     * @throws IllegalArgumentException if <i>framesPerSecond</i> is not positive.
+     */
+    public void setFramesPerSecond(double framesPerSecond) {
+        if (!(framesPerSecond > 0)) throw new IllegalArgumentException("Frames per second must be positive.");
+
+        synchronized (lock) {
+            if (playing) play(framesPerSecond);
+            else period = Math.max(1, (long) (1e9 / framesPerSecond));
+        }
+    }
+
+    /**
+     * Stops playback at the playhead. Producers continue to fill the buffer ahead of it.
+     */
+    public void pause() {
+        synchronized (lock) {
+            playing = false;
+            if (ticks != null) ticks.cancel(false);
+            ticks = null;
+        }
+    }
+
+    /**
+     * Moves the playhead, discarding frames rendered ahead of the old position.
+     *
+     * @param index output frame to show next, clamped to the sequence.
+     */
+    public void seek(int index) {
+        synchronized (lock) {
+            playhead = nextToRender = Math.max(0, Math.min(length, index));
+            if (playing) restartClock();
+            lock.notifyAll();
+        }
+    }
+
+    /**
+     * @return <i>true</i> if playback is running.
+     */
+    public boolean isPlaying() {
+        synchronized (lock) {
+            return playing;
+        }
+    }
+
+    /**
+     * @return next output frame to be shown.
+     */
+    public int getPosition() {
+        synchronized (lock) {
+            return playhead;
+        }
+    }
+
+    /**
+     * @return number of frames in the output sequence.
+     */
+    public int getLength() {
+        return length;
+    }
+
+    /**
+     * @return number of frames handed to the display so far.
+     */
+    public long getFramesShown() {
+        synchronized (lock) {
+            return framesShown;
+        }
+    }
+
+    /**
+     * @return number of frames skipped so far, because they were not rendered by the time they were due.
+     */
+    public long getFramesDropped() {
+        synchronized (lock) {
+            return framesDropped;
+        }
+    }
+
+    /**
+     * @return number of frames at, or ahead of, the playhead that are rendered and waiting to be shown.
+     */
+    public int getBufferDepth() {
+        synchronized (lock) {
+            int depth = 0;
+            for (int i = 0; i < lookAhead; i++)
+                if (slotReady[i] && slotIndex[i] >= playhead) depth++;
+            return depth;
+        }
+    }
+
+    /**
+     * Stops playback and the producers, returning idle frames to the pool.
+     */
+    @Override
+    public void close() {
+        synchronized (lock) {
+            if (closed) return;
+            closed = true;
+            playing = false;
+            lock.notifyAll();
+        }
+        scheduler.shutdownNow();
+        for (Thread producer : producers)
+            producer.interrupt();
+
+        synchronized (lock) {
+            for (int i = 0; i < lookAhead; i++)
+                if (!slotBusy[i]) pool.release(slots[i]);                                                               // Busy slots are still in use by a producer, or the display.
+        }
+    }
+
+    private boolean isClosed() {
+        synchronized (lock) {
+            return closed;
+        }
+    }
+
+    /**
+     * Re-anchors the clock at the playhead, and (re)schedules ticks at the current period.
+     */
+    private void restartClock() {
+        if (ticks != null) ticks.cancel(false);
+        clockIndex = playhead;
+        clockStart = System.nanoTime();
+        ticks = scheduler.scheduleAtFixedRate(this::tick, 0, period, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Shows the frame that is due now, if it is ready, dropping any frames that have been passed over.
+     */
+    private void tick() {
+        final int index, slot;
+        synchronized (lock) {
+            if (!playing) return;
+
+            long due = clockIndex + (System.nanoTime() - clockStart) / period;                                          // From the clock, never from the number of ticks run.
+            if (due >= length) {
+                framesDropped += length - playhead;
+                playhead = length;
+                pause();
+                displayExecutor.execute(() -> {
+                    if (!isClosed()) display.ended();
+                });
+                return;
+            }
+            if (due < playhead) return;                                                                                 // Already shown.
+
+            framesDropped += due - playhead;                                                                            // Frames passed over since the last tick.
+            playhead = (int) due;
+            lock.notifyAll();
+
+            slot = playhead % lookAhead;
+            if (slotIndex[slot] != playhead || !slotReady[slot]) return;                                                // Late; dropped once the next frame is due.
+
+            index = playhead++;
+            framesShown++;
+            slotReady[slot] = false;
+            slotBusy[slot] = true;                                                                                      // Not to be rendered over until it has been shown.
+        }
+
+        boolean handedOver = false;
+        try {
+            displayExecutor.execute(() -> {
+                try {
+                    if (!isClosed()) display.show(index, slots[slot]);                                                 // Nothing is shown once closed.
+                } finally {
+                    release(slot);
+                }
+            });
+            handedOver = true;
+        } catch (RejectedExecutionException e) {                                                                        // Such as a display that is shutting down.
+            Logger.getLogger(PlaybackEngine.class.getName()).log(Level.WARNING, "Display rejected frame " + index, e);
+        } finally {
+            if (!handedOver) {                                                                                          // Otherwise the slot stays busy, and is never rendered again.
+                synchronized (lock) {
+                    framesShown--;
+                    framesDropped++;
+                }
+                release(slot);
+            }
+        }
+    }
+
+    /**
+     * Frees a slot that was being shown, so that it may be rendered into again.
+     */
+    private void release(int slot) {
+        synchronized (lock) {
+            slotBusy[slot] = false;
+            lock.notifyAll();
+        }
+    }
+
+    /**
+     * Producer loop; renders the next frame at, or ahead of, the playhead into its slot.
+     */
+    private void produce() {
+        try {
+            while (true) {
+                final int index, slot;
+                BufferedImage target;
+                synchronized (lock) {
+                    while (!closed && !canRender())
+                        lock.wait();
+                    if (closed) return;
+
+                    nextToRender = Math.max(nextToRender, playhead);                                                    // Never render frames that have already been passed.
+                    index = nextToRender++;
+                    slot = index % lookAhead;
+                    slotIndex[slot] = index;
+                    slotReady[slot] = false;
+                    slotBusy[slot] = true;
+                    target = slots[slot];
+                }
+
+                boolean rendered = false;
+                try {
+                    if (target == null) target = pool.borrow(width, height);                                            // First use of the slot; never borrowed whilst holding the lock.
+                    int pair = index / points.length + 1;
+                    if (frames.isDuplicate(pair - 1, pair))
+                        LinearImageInterpolator.copyInto(target, frames.getRaster(pair - 1));                           // Held frames need no blending.
+                    else
+                        LinearImageInterpolator.interpolateInto(target, frames.getRaster(pair - 1), frames.getRaster(pair), points[index % points.length]);
+                    rendered = true;
+                } catch (RuntimeException e) {                                                                          // Such as a frame that failed to decode; it is dropped when due.
+                    Logger.getLogger(PlaybackEngine.class.getName()).log(Level.WARNING, "Could not render frame " + index, e);
+                } finally {
+                    synchronized (lock) {
+                        slots[slot] = target;
+                        slotBusy[slot] = false;
+                        slotReady[slot] = rendered && slotIndex[slot] == index;
+                        lock.notifyAll();
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();                                                                         // Closed.
+        }
+    }
+
+    /**
+     * @return <i>true</i> if there is a frame within the look ahead window that has not been rendered,
+     *         and its slot is not in use.
+     */
+    private boolean canRender() {
+        int next = Math.max(nextToRender, playhead);
+        return next < length
+            && next < playhead + lookAhead
+            && !slotBusy[next % lookAhead];
+    }
+}
@@ -0,0 +1,358 @@
+package com.shinkson47.FrameInterpolation;
+
+import java.awt.image.BufferedImage;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Previews the inter-frames of a pair whilst their point is being scrubbed, such as by a slider,
+ * without the interface waiting on full resolution blends.
+ *
+ * Every request is first blended from reduced proxies of the pair, on the calling thread, and shown at once.
+ * Proxies are found by halving each frame until it is within <i>previewPixels</i>, once per frame on a background thread.
+ * Only the last level is cached, so that a request costs a blend of at most <i>previewPixels</i> pixels per point,
+ * however large the sources are, and each cached frame holds no more than a single proxy.
+ * Until the proxies of a new pair are ready, the last preview stays shown; the latest request is then previewed on the
+ * display executor. Once requests stop arriving for <i>settle</i> milliseconds, the same points are refined at full
+ * resolution on the background thread, and shown on the display executor. A newer request cancels any refinement that
+ * has not finished, part way through its blend if need be; stale refinements are never shown.
+ *
+ * @version 1
+ * @author <a href="https://www.shinkson47.in">Jordan T. Gray</a>
+ */
+public class ProgressivePreview implements AutoCloseable {
+
+    /**
+     * Default maximum pixels of each preview frame; about 512 x 512.
+     */
+    public static final long DEFAULT_PREVIEW_PIXELS = 1 << 18;
+
+    /**
+     * Default milliseconds without a request before refining at full resolution.
+     */
+    public static final long DEFAULT_SETTLE_MILLIS = 150;
+
+    /**
+     * Maximum frames to keep the proxies of, so that scrubbing back and forth between nearby pairs re-uses them.
+     */
+    public static final int CACHED_FRAMES = 8;
+
+    /**
+     * Receives previews, and their refinements.
+     */
+    public interface Display {
+
+        /**
+         * @param frames one frame per requested point. Only valid until this method returns; copy them to keep them.
+         * @param refined <i>false</i> for a reduced preview, shown on the thread that requested it,
+         *                or on the display executor once the proxies it waited on are ready.
+         *                <i>true</i> for the full resolution refinement, shown on the display executor.
+         * @param nanos time taken to blend the frames.
+         */
+        void show(BufferedImage[] frames, boolean refined, long nanos);
+    }
+
+    /**
+     * Blends the full resolution frames of a refinement, in place of {@link LinearImageInterpolator}, such as to take
+     * them from an {@link InterframeCache}.
+     */
+    public interface Refiner {
+
+        /**
+         * Called on the refinement thread.
+         *
+         * @param points points of interpolation, each between <i>0.0 and 1.0</i>
+         * @return One frame per point. They are shown, but never modified nor released.
+         */
+        BufferedImage[] refine(double[] points);
+    }
+
+    private final Executor displayExecutor;
+    private final Display display;
+    private final long previewPixels;
+    private final long settleMillis;
+    private final FramePool pool = new FramePool();
+
+    /**
+     * Proxies of recently previewed frames, least recently used first.
+     */
+    private final LinkedHashMap<BufferedImage, BufferedImage> proxies = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final ScheduledExecutorService refinement = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "Preview refinement");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Object lock = new Object();
+    private BufferedImage pre, post;
+    private Refiner refiner;
+    private BufferedImage[] previewFrames = new BufferedImage[0];                                                       // Re-used by every preview; only touched by the requesting thread.
+    private ScheduledFuture<?> pending;
+    private long generation;                                                                                            // Of the latest request; refinements of any other are stale.
+    private double[] awaiting;                                                                                          // Points of the latest request, if it is waiting on proxies.
+    private long awaitingGeneration;
+    private boolean building;                                                                                           // Proxies are being built, and will preview whatever is awaiting.
+    private boolean closed;
+
+    /**
+     * Creates a preview of at most {@link #DEFAULT_PREVIEW_PIXELS}, refined after {@link #DEFAULT_SETTLE_MILLIS}.
+     *
+     * @see #ProgressivePreview(Executor, Display, long, long)
+     */
+    public ProgressivePreview(Executor displayExecutor, Display display) {
+        this(displayExecutor, display, DEFAULT_PREVIEW_PIXELS, DEFAULT_SETTLE_MILLIS);
+    }
+
+    /**
+     * @param displayExecutor executor that refinements are shown on, such as the UI thread.
+     * @param display receives previews and refinements.
+     * @param previewPixels maximum pixels of each preview frame.
+     * @param settleMillis milliseconds without a request before refining at full resolution.
+     * @throws IllegalArgumentException if <i>previewPixels</i> is less than 1, or <i>settleMillis</i> is negative.
+     */
+    public ProgressivePreview(Executor displayExecutor, Display display, long previewPixels, long settleMillis) {
+        if (previewPixels < 1 || settleMillis < 0) throw new IllegalArgumentException("Previews require at least one pixel, and a settle time of at least 0.");
+
+        this.displayExecutor = displayExecutor;
+        this.display = display;
+        this.previewPixels = previewPixels;
+        this.settleMillis = settleMillis;
+    }
+
+    /**
+     * Sets the pair to preview, refined by {@link LinearImageInterpolator}.
+     *
+     * @param pre frame that represents <i>interpol = 0</i>
+     * @param post frame that represents <i>interpol = 1</i>
+     */
+    public void setFrames(BufferedImage pre, BufferedImage post) {
+        setFrames(pre, post, null);
+    }
+
+    /**
+     * Sets the pair to preview, cancelling any refinement of the last pair.
+     *
+     * @param pre frame that represents <i>interpol = 0</i>
+     * @param post frame that represents <i>interpol = 1</i>
+     * @param refiner blends refinements of this pair, or <i>null</i> to blend them with {@link LinearImageInterpolator}.
+     */
+    public void setFrames(BufferedImage pre, BufferedImage post, Refiner refiner) {
+        synchronized (lock) {
+            this.pre = pre;
+            this.post = post;
+            this.refiner = refiner;
+            awaiting = null;
+            cancel();
+        }
+    }
+
+    /**
+     * Shows a preview of the current pair at some points, and schedules its refinement.
+     * Must be called on the display thread, which the preview is shown on before this returns,
+     * unless the proxies of the pair are yet to be built.
+     *
+     * @param points points of interpolation, each between <i>0.0 and 1.0</i>
+     * @throws IllegalStateException if no pair has been set, or the preview has been closed.
+     */
+    public void request(double[] points) {
+        final BufferedImage pre, post;
+        final long current;
+        synchronized (lock) {
+            if (closed) throw new IllegalStateException("Preview has been closed.");
+            if (this.pre == null) throw new IllegalStateException("No frames to preview.");
+
+            pre = this.pre;
+            post = this.post;
+            cancel();
+            current = generation;
+        }
+
+        long start = System.nanoTime();
+        BufferedImage preProxy = proxy(pre), postProxy = proxy(post);
+        if (preProxy == null || postProxy == null) {
+            await(current, pre, post, points.clone());                                                                 // The last preview stays until they are ready.
+            return;
+        }
+
+        if (previewFrames.length != points.length) {
+            pool.release(previewFrames);
+            previewFrames = new BufferedImage[points.length];
+        }
+        int width = preProxy.getWidth(), height = preProxy.getHeight();
+        int type = preProxy.getColorModel().hasAlpha() || postProxy.getColorModel().hasAlpha() ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        for (int i = 0; i < points.length; i++) {
+            BufferedImage frame = previewFrames[i];
+            if (frame == null || frame.getWidth() != width || frame.getHeight() != height || frame.getType() != type) {
+                pool.release(frame);
+                previewFrames[i] = type == BufferedImage.TYPE_INT_RGB ? pool.borrow(width, height) : new BufferedImage(width, height, type);
+            }
+        }
+        LinearImageInterpolator.interpolateInto(previewFrames, preProxy, postProxy, points);
+        display.show(previewFrames, preProxy == pre, System.nanoTime() - start);
+
+        if (preProxy == pre) return;                                                                                    // Small enough to preview at full resolution; nothing to refine.
+
+        final double[] refinePoints = points.clone();
+        synchronized (lock) {
+            if (generation == current && !closed)
+                pending = refinement.schedule(() -> refine(current, pre, post, refinePoints), settleMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * @return <i>true</i> if a refinement is scheduled or running, that has not been superseded.
+     */
+    public boolean isRefining() {
+        synchronized (lock) {
+            return pending != null && !pending.isDone();
+        }
+    }
+
+    /**
+     * Cancels any refinement, and stops the refinement thread. Previews may no longer be requested.
+     */
+    @Override
+    public void close() {
+        synchronized (lock) {
+            if (closed) return;
+            closed = true;
+            cancel();
+        }
+        refinement.shutdownNow();
+    }
+
+    /**
+     * Supersedes the latest request, cancelling its refinement if it has not started.
+     * Must be called whilst holding the lock.
+     */
+    private void cancel() {
+        generation++;
+        if (pending != null) pending.cancel(false);                                                                     // A running refinement sees the new generation, and stops.
+        pending = null;
+    }
+
+    private boolean isStale(long of) {
+        synchronized (lock) {
+            return closed || generation != of;
+        }
+    }
+
+    /**
+     * Blends a request at full resolution, every point at once, giving up as soon as a newer request arrives.
+     */
+    private void refine(long of, BufferedImage pre, BufferedImage post, double[] points) {
+        Refiner custom;
+        synchronized (lock) {
+            custom = refiner;
+        }
+
+        BufferedImage[] frames = new BufferedImage[points.length];
+        boolean shown = false;
+        try {
+            long start = System.nanoTime();
+            if (custom != null) {
+                if (isStale(of)) return;
+                frames = custom.refine(points);
+            } else {
+                frames = LinearImageInterpolator.InterpolateImage(new PackedRaster(pre), new PackedRaster(post), points, pool, () -> isStale(of));
+                if (frames == null) {                                                                                   // Superseded part way through; already released.
+                    frames = new BufferedImage[0];
+                    return;
+                }
+            }
+            long nanos = System.nanoTime() - start;
+
+            final BufferedImage[] refined = frames;
+            displayExecutor.execute(() -> {
+                try {
+                    if (!isStale(of)) display.show(refined, true, nanos);
+                } finally {
+                    if (custom == null) pool.release(refined);
+                }
+            });
+            shown = true;
+        } catch (RuntimeException e) {                                                                                  // Such as a frame that failed to decode; the preview stays.
+            Logger.getLogger(ProgressivePreview.class.getName()).log(Level.WARNING, "Could not refine preview", e);
+        } finally {
+            if (!shown && custom == null) pool.release(frames);
+        }
+    }
+
+    /**
+     * Builds the proxies of a pair on the refinement thread, then previews the latest request that waited on them.
+     */
+    private void await(long of, BufferedImage pre, BufferedImage post, double[] points) {
+        synchronized (lock) {
+            if (closed || generation != of) return;
+            awaiting = points;
+            awaitingGeneration = of;
+            if (building) return;                                                                                       // Whatever is building will preview these points when done.
+            building = true;
+        }
+
+        refinement.execute(() -> {
+            try {
+                buildProxy(pre);
+                buildProxy(post);
+            } catch (RuntimeException e) {                                                                              // Such as a frame that failed to decode; keep the last preview.
+                Logger.getLogger(ProgressivePreview.class.getName()).log(Level.WARNING, "Could not build preview proxies", e);
+            }
+
+            final double[] waiting;
+            synchronized (lock) {
+                building = false;
+                waiting = awaiting != null && awaitingGeneration == generation && !closed ? awaiting : null;
+                awaiting = null;
+            }
+            if (waiting != null)
+                displayExecutor.execute(() -> {
+                    synchronized (lock) {
+                        if (closed || awaitingGeneration != generation) return;                                         // Superseded whilst queued.
+                    }
+                    request(waiting);
+                });
+        });
+    }
+
+    /**
+     * @return The largest mip level of a frame within {@link #previewPixels}, or <i>null</i> if it is yet to be built.
+     */
+    private BufferedImage proxy(BufferedImage frame) {
+        if ((long) frame.getWidth() * frame.getHeight() <= previewPixels) return frame;                                 // Its own proxy; nothing to build.
+
+        synchronized (proxies) {
+            return proxies.get(frame);
+        }
+    }
+
+    /**
+     * Builds and caches the proxy of a frame, if it is not already cached. Called on the refinement thread.
+     */
+    private void buildProxy(BufferedImage frame) {
+        synchronized (proxies) {
+            if (proxies.containsKey(frame)) return;
+        }
+
+        BufferedImage level = frame;
+        while ((long) level.getWidth() * level.getHeight() > previewPixels && (level.getWidth() > 1 || level.getHeight() > 1))
+            level = Resampler.resample(level, Math.max(1, level.getWidth() / 2), Math.max(1, level.getHeight() / 2));   // Each halving reads only the level before it, then drops it.
+
+        synchronized (proxies) {
+            proxies.put(frame, level);
+            Iterator<Map.Entry<BufferedImage, BufferedImage>> eldest = proxies.entrySet().iterator();
+            while (proxies.size() > CACHED_FRAMES) {
+                eldest.next();
+                eldest.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,341 @@
+package com.shinkson47.FrameInterpolation;
+
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A static utility class for scaling frames to another resolution, so that sequences of mixed resolutions may be
+ * interpolated, and large sources may be reduced before blending to keep throughput predictable.
+ *
+ * Scaling is separable: each row is first scaled horizontally, then each column vertically. Along each axis,
+ * reductions average the area of source pixels each target pixel covers, and enlargements are bilinear.
+ * The weights of every target pixel along an axis are calculated once per pair of sizes, in fixed point, and cached,
+ * so the kernels only multiply and add.
+ *
+ * Rows are read directly from the source's packed raster, and both passes are split into bands of rows across
+ * {@link LinearImageInterpolator#getPool()}, for images of at least {@link LinearImageInterpolator#getParallelThreshold()} pixels.
+ *
+ * @implNote Sources with alpha are scaled in premultiplied alpha, so that transparent pixels do not bleed their colour
+ *           into their neighbours. Horizontally scaled rows are rounded to 8 bits per channel before the vertical pass.
+ * @version 1
+ * @author <a href="https://www.shinkson47.in">Jordan T. Gray</a>
+ */
+public final class Resampler {
+
+    /**
+     * Fraction bits of every weight.
+     */
+    private static final int WEIGHT_BITS = 14;
+    private static final int ONE = 1 << WEIGHT_BITS;
+    private static final int HALF = ONE >> 1;
+
+    /**
+     * Maximum pairs of sizes to keep the weights of.
+     */
+    private static final int CACHED_WEIGHTS = 16;
+
+    private static final ConcurrentHashMap<Long, Weights> weights = new ConcurrentHashMap<>();
+
+    /**
+     * Largest horizontally scaled plane kept between calls, in pixels. Larger planes are allocated per call, so that
+     * a single large resample does not pin its plane to every thread that has run one.
+     */
+    private static final int RETAINED_PLANE_PIXELS = 1 << 20;
+
+    /**
+     * Reusable horizontally scaled plane, of the thread that is resampling, of at most {@link #RETAINED_PLANE_PIXELS}
+     */
+    private static final ThreadLocal<int[]> PLANE = ThreadLocal.withInitial(() -> new int[0]);
+
+    /**
+     * Reusable source row buffer, for layouts that cannot be read in place.
+     */
+    private static final ThreadLocal<int[]> SCRATCH = ThreadLocal.withInitial(() -> new int[0]);
+
+    private Resampler() {}
+
+    /**
+     * Buffered Image implementation.
+     *
+     * @param source image to scale.
+     * @param width width to scale to.
+     * @param height height to scale to.
+     * @return A new image of <i>width</i> x <i>height</i>, even if <i>source</i> is already that size.
+     *         TYPE_INT_ARGB if <i>source</i> has alpha, otherwise TYPE_INT_RGB.
+     * @throws IllegalArgumentException if <i>width</i> or <i>height</i> is less than 1.
+     */
+    public static BufferedImage resample(BufferedImage source, int width, int height) {
+        return resample(new PackedRaster(source), width, height);
+    }
+
+    /**
+     * Packed raster implementation.
+     *
+     * @see #resample(BufferedImage, int, int)
+     */
+    static BufferedImage resample(PackedRaster source, int width, int height) {
+        if (width < 1 || height < 1) throw new IllegalArgumentException("Cannot resample to " + width + "x" + height + ".");
+
+        BufferedImage out = new BufferedImage(width, height, source.hasAlpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        resampleInto(PackedRaster.pixels(out), source, width, height);
+        return out;
+    }
+
+    /**
+     * Provides a raster of a frame at a given resolution, scaling it only if it is not that resolution already.
+     *
+     * @param source frame to fit.
+     * @param width width to fit to.
+     * @param height height to fit to.
+     * @return <i>source</i> if it is <i>width</i> x <i>height</i>, otherwise a raster of it resampled to that size.
+     */
+    static PackedRaster fit(PackedRaster source, int width, int height) {
+        if (source.width == width && source.height == height) return source;
+        return new PackedRaster(resample(source, width, height));
+    }
+
+    /**
+     * Provides a frame at a given resolution, scaling it only if it is not that resolution already.
+     *
+     * @return <i>source</i> if it is <i>width</i> x <i>height</i>, otherwise a copy resampled to that size.
+     * @see #fit(PackedRaster, int, int)
+     */
+    static BufferedImage fit(BufferedImage source, int width, int height) {
+        if (source.getWidth() == width && source.getHeight() == height) return source;
+        return resample(source, width, height);
+    }
+
+    /**
+     * Scales a raster into packed pixels.
+     *
+     * @param out <i>width * height</i> packed pixels; <i>0xAARRGGBB</i> if the source has alpha, otherwise <i>0xRRGGBB</i>
+     */
+    private static void resampleInto(int[] out, PackedRaster source, int width, int height) {
+        Weights horizontal = weights(source.width, width), vertical = weights(source.height, height);
+        boolean alpha = source.hasAlpha;
+
+        int pixels = width * source.height;
+        int[] plane = PLANE.get();                                                                                      // Shared by every band, but only for this call.
+        if (plane.length < pixels) {
+            plane = new int[pixels];
+            if (pixels <= RETAINED_PLANE_PIXELS) PLANE.set(plane);
+        }
+        final int[] rows = plane;
+
+        Bands.run(source.height, (long) width * source.height * horizontal.taps, (from, to) -> {
+            int[] scratch = SCRATCH.get();
+            if (scratch.length < source.width) SCRATCH.set(scratch = new int[source.width]);
+
+            for (int y = from; y < to; y++)
+                if (alpha) scaleAlpha(source.argbRow(y, scratch), source.argbRowOffset(y), horizontal, rows, y * width, width);
+                else       scale(source.row(y, scratch), source.rowOffset(y), horizontal, rows, y * width, width);
+        });
+
+        Bands.run(height, (long) width * height * vertical.taps, (from, to) -> {
+            for (int y = from; y < to; y++) {
+                int first = vertical.first[y] * width;
+                if (alpha) scaleColumnsAlpha(rows, first, width, vertical, y, out, y * width, width);
+                else       scaleColumns(rows, first, width, vertical, y, out, y * width, width);
+            }
+        });
+    }
+
+    /**
+     * Scales a line of opaque pixels along its length.
+     *
+     * @param in source line.
+     * @param inOffset index of the first pixel of the line within <i>in</i>
+     * @param weights weights of the axis the line runs along.
+     * @param out target line.
+     * @param outOffset index of the first pixel of the target line within <i>out</i>
+     * @param length number of target pixels.
+     */
+    private static void scale(int[] in, int inOffset, Weights weights, int[] out, int outOffset, int length) {
+        int taps = weights.taps;
+        int[] w = weights.weights;
+        if (taps == 2) {                                                                                                // Every enlargement, and halving; unrolled.
+            for (int x = 0, o = outOffset, k = 0; x < length; x++, o++, k += 2)
+                out[o] = mix(in[inOffset + weights.first[x]], w[k], in[inOffset + weights.first[x] + 1], w[k + 1]);
+            return;
+        }
+
+        for (int x = 0, o = outOffset; x < length; x++, o++) {
+            int r = HALF, g = HALF, b = HALF;
+            for (int t = 0, i = inOffset + weights.first[x], k = x * taps; t < taps; t++, i++, k++) {
+                int pixel = in[i], weight = w[k];
+                r += weight * (pixel >> 16 & 0xFF);
+                g += weight * (pixel >> 8 & 0xFF);
+                b += weight * (pixel & 0xFF);
+            }
+            out[o] = (r >> WEIGHT_BITS) << 16 | (g >> WEIGHT_BITS) << 8 | b >> WEIGHT_BITS;                             // Weights sum to ONE, so no channel exceeds 255.
+        }
+    }
+
+    /**
+     * Scales a line of <i>0xAARRGGBB</i> pixels along its length, weighting each pixel's colour by its alpha.
+     *
+     * @see #scale(int[], int, Weights, int[], int, int)
+     */
+    private static void scaleAlpha(int[] in, int inOffset, Weights weights, int[] out, int outOffset, int length) {
+        int taps = weights.taps;
+        int[] w = weights.weights;
+        for (int x = 0, o = outOffset; x < length; x++, o++) {
+            int a = 0, r = 0, g = 0, b = 0;                                                                             // At most ONE * 255 * 255; within an int.
+            for (int t = 0, i = inOffset + weights.first[x], k = x * taps; t < taps; t++, i++, k++) {
+                int pixel = in[i], weight = w[k] * (pixel >>> 24);
+                a += weight;
+                r += weight * (pixel >> 16 & 0xFF);
+                g += weight * (pixel >> 8 & 0xFF);
+                b += weight * (pixel & 0xFF);
+            }
+            out[o] = unpremultiply(a, r, g, b);
+        }
+    }
+
+    /**
+     * Scales a row of target pixels from the columns of a horizontally scaled plane of opaque pixels.
+     *
+     * @param plane horizontally scaled rows, <i>width</i> pixels each.
+     * @param first index of the first row of the plane that contributes to this target row.
+     * @param y target row.
+     */
+    private static void scaleColumns(int[] plane, int first, int width, Weights weights, int y, int[] out, int outOffset, int length) {
+        int taps = weights.taps;
+        int[] w = weights.weights;
+        if (taps == 2) {                                                                                                // Both weights are the same across the whole row.
+            int top = w[y * 2], bottom = w[y * 2 + 1];
+            for (int x = 0; x < length; x++)
+                out[outOffset + x] = mix(plane[first + x], top, plane[first + width + x], bottom);
+            return;
+        }
+
+        for (int x = 0; x < length; x++) {
+            int r = HALF, g = HALF, b = HALF;
+            for (int t = 0, i = first + x, k = y * taps; t < taps; t++, i += width, k++) {
+                int pixel = plane[i], weight = w[k];
+                r += weight * (pixel >> 16 & 0xFF);
+                g += weight * (pixel >> 8 & 0xFF);
+                b += weight * (pixel & 0xFF);
+            }
+            out[outOffset + x] = (r >> WEIGHT_BITS) << 16 | (g >> WEIGHT_BITS) << 8 | b >> WEIGHT_BITS;
+        }
+    }
+
+    /**
+     * @see #scaleColumns(int[], int, int, Weights, int, int[], int, int)
+     * @see #scaleAlpha(int[], int, Weights, int[], int, int)
+     */
+    private static void scaleColumnsAlpha(int[] plane, int first, int width, Weights weights, int y, int[] out, int outOffset, int length) {
+        int taps = weights.taps;
+        int[] w = weights.weights;
+        for (int x = 0; x < length; x++) {
+            int a = 0, r = 0, g = 0, b = 0;
+            for (int t = 0, i = first + x, k = y * taps; t < taps; t++, i += width, k++) {
+                int pixel = plane[i], weight = w[k] * (pixel >>> 24);
+                a += weight;
+                r += weight * (pixel >> 16 & 0xFF);
+                g += weight * (pixel >> 8 & 0xFF);
+                b += weight * (pixel & 0xFF);
+            }
+            out[outOffset + x] = unpremultiply(a, r, g, b);
+        }
+    }
+
+    /**
+     * @return Two opaque pixels, mixed by weights that sum to {@link #ONE}
+     */
+    private static int mix(int p, int pWeight, int q, int qWeight) {
+        return ((HALF + pWeight * (p >> 16 & 0xFF) + qWeight * (q >> 16 & 0xFF)) >> WEIGHT_BITS) << 16
+             | ((HALF + pWeight * (p >> 8 & 0xFF) + qWeight * (q >> 8 & 0xFF)) >> WEIGHT_BITS) << 8
+             | (HALF + pWeight * (p & 0xFF) + qWeight * (q & 0xFF)) >> WEIGHT_BITS;
+    }
+
+    /**
+     * @param a sum of weight * alpha.
+     * @return The alpha weighted mean colour, with the mean alpha.
+     */
+    private static int unpremultiply(int a, int r, int g, int b) {
+        if (a == 0) return 0;                                                                                           // Wholly transparent.
+        int half = a >> 1;
+        return ((a + HALF) >> WEIGHT_BITS) << 24                                                                        // Weights sum to ONE, so a / ONE is the mean alpha.
+             | ((r + half) / a) << 16 | ((g + half) / a) << 8 | (b + half) / a;
+    }
+
+    /**
+     * @param source number of pixels along an axis of the source.
+     * @param target number of pixels along the same axis of the target.
+     * @return Weights scaling the axis, from the cache if they have been used recently.
+     */
+    static Weights weights(int source, int target) {
+        long key = (long) source << 32 | target;
+        Weights cached = weights.get(key);
+        if (cached != null) return cached;
+
+        if (weights.size() >= CACHED_WEIGHTS) weights.clear();                                                         // Resolutions rarely change; no need for LRU.
+        Weights computed = new Weights(source, target);
+        weights.put(key, computed);
+        return computed;
+    }
+
+    /**
+     * Fixed point weights of every source pixel that contributes to each target pixel, along one axis.
+     */
+    static final class Weights {
+
+        /**
+         * Source pixels that contribute to each target pixel.
+         */
+        final int taps;
+
+        /**
+         * First source pixel that contributes to each target pixel. Every tap lies within the source.
+         */
+        final int[] first;
+
+        /**
+         * <i>taps</i> weights per target pixel, each summing to {@link #ONE}
+         */
+        final int[] weights;
+
+        Weights(int source, int target) {
+            double scale = (double) source / target;
+            boolean area = scale > 1;
+            int span = 2;
+            if (area)                                                                                                   // Widest run of source pixels any target pixel overlaps.
+                for (int i = 0; i < target; i++)
+                    span = Math.max(span, (int) Math.ceil(Math.min(source, (i + 1) * scale) - 1e-9) - (int) (i * scale));
+            taps = Math.min(source, span);
+            first = new int[target];
+            weights = new int[target * taps];
+
+            double[] exact = new double[taps];
+            for (int i = 0; i < target; i++) {
+                Arrays.fill(exact, 0);
+                if (area) {                                                                                             // Overlap of each source pixel with [left, right)
+                    double left = i * scale, right = Math.min(source, (i + 1) * scale);
+                    int from = (int) left;
+                    first[i] = Math.min(from, source - taps);
+                    for (int p = from; p < right - 1e-9; p++)
+                        exact[p - first[i]] += (Math.min(right, p + 1) - Math.max(left, p)) / scale;
+                } else {                                                                                                // Between the two nearest pixel centres.
+                    double centre = Math.max(0, (i + 0.5) * scale - 0.5);
+                    int from = Math.min((int) centre, source - 1);
+                    double fraction = centre - from;
+                    first[i] = Math.min(from, source - taps);
+                    exact[from - first[i]] += 1 - fraction;
+                    if (fraction > 0) exact[Math.min(from + 1, source - 1) - first[i]] += fraction;
+                }
+
+                int sum = 0, largest = 0;
+                for (int t = 0; t < taps; t++) {
+                    int weight = (int) Math.round(exact[t] * ONE);
+                    weights[i * taps + t] = weight;
+                    sum += weight;
+                    if (weight > weights[i * taps + largest]) largest = t;
+                }
+                weights[i * taps + largest] += ONE - sum;                                                               // Rounding error, so that flat areas stay flat.
+            }
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.shinkson47.FrameInterpolation;
+
+/**
+ * Blends rows of packed <i>0xRRGGBB</i> pixels at a single, pre-determined point of interpolation.
+ *
+ * Obtained once per frame from a {@link BlendMode}, so that any per-frame set up is kept out of the per-pixel loop.
+ *
+ * @version 1
+ * @author <a href="https://www.shinkson47.in">Jordan T. Gray</a>
+ */
+interface RowBlender {
+
+    /**
+     * Lerps a row of packed <i>0xRRGGBB</i> pixels.
+     *
+     * @param pre array containing the row of the image that represents <i>interpol = 0</i>
+     * @param preOffset index of the first pixel of the row within <i>pre</i>
+     * @param post array containing the row of the image that represents <i>interpol = 1</i>
+     * @param postOffset index of the first pixel of the row within <i>post</i>
+     * @param out array to write the blended row to.
+     * @param outOffset index within <i>out</i> to write the first pixel to.
+     * @param length number of pixels in the row.
+     */
+    void blendRow(int[] pre, int preOffset, int[] post, int postOffset, int[] out, int outOffset, int length);
+}
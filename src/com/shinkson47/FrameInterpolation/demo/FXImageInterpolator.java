@@ -0,0 +1,166 @@
+package com.shinkson47.FrameInterpolation.demo;
+
+import com.shinkson47.FrameInterpolation.LinearImageInterpolator;
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.PixelReader;
+import javafx.scene.image.PixelWriter;
+import javafx.scene.image.WritableImage;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.awt.image.WritableRaster;
+
+/**
+ * JavaFX adapters of {@link LinearImageInterpolator}, used by the demos.
+ *
+ * Each image is read into an array of packed pixels with a single PixelReader call, then blended by the headless core.
+ *
+ * @apiNote The usage of this class REQUIRES the availability of JavaFX in the runtime.
+            For converting a BufferedImage to a JFX Image, see SwingFXUtils#toFXImage()
+ * @version 1
+ * @author <a href="https://www.shinkson47.in">Jordan T. Gray</a>
+ */
+public final class FXImageInterpolator {
+
+    /**
+     * Reusable row buffer for {@link #toFXImage(BufferedImage, WritableImage)}
+     */
+    private static final ThreadLocal<int[]> ROW = ThreadLocal.withInitial(() -> new int[0]);
+
+    private FXImageInterpolator() {}
+
+    /**
+     * Copies a frame into a JFX image for display, re-using <i>target</i> if it is already the right size.
+     *
+     * Unlike SwingFXUtils#toFXImage, no intermediate image is created for TYPE_INT_RGB or TYPE_INT_ARGB frames,
+     * so displaying a new frame every pulse allocates nothing.
+     *
+     * @param frame frame to display.
+     * @param target image to copy into, or <i>null</i>.
+     * @return <i>target</i>, or a new image if it was <i>null</i> or the wrong size.
+     */
+    public static WritableImage toFXImage(BufferedImage frame, WritableImage target) {
+        int width = frame.getWidth(), height = frame.getHeight();
+        if (target == null || (int) target.getWidth() != width || (int) target.getHeight() != height)
+            target = new WritableImage(width, height);
+
+        int[] row = ROW.get();
+        if (row.length < width) ROW.set(row = new int[width]);
+
+        int[] packed = packedPixels(frame);
+        int opaque = frame.getType() == BufferedImage.TYPE_INT_ARGB ? 0 : 0xFF000000;                                  // Frames without alpha are shown opaque.
+        PixelWriter writer = target.getPixelWriter();
+        for (int y = 0; y < height; y++) {
+            if (packed != null)
+                for (int x = 0, i = y * width; x < width; x++, i++)
+                    row[x] = packed[i] | opaque;
+            else
+                frame.getRGB(0, y, width, 1, row, 0, width);
+
+            writer.setPixels(0, y, width, 1, PixelFormat.getIntArgbInstance(), row, 0, width);
+        }
+        return target;
+    }
+
+    /**
+     * Calculates an inter-image blended from an imagery spectrum between <i>0 and 1</i>, defined by two existing images,
+     * where <i>pre</i> represents <i>interpol = 0</i>, and <i>post</i> represents <i>interpol = 1</i>
+     * @param pre JFX image that represents <i>interpol = 0</i>
+     * @param post JFX image that represents <i>interpol = 1</i>
+     * @param interpol Blend value between <i>0.0 and 1.0</i>
+     * @return Blended image, as found as <i>interpol</i> percents between <i>pre</i> and <i>post</i>
+     */
+    public static BufferedImage InterpolateImage(Image pre, Image post, double interpol) {
+        return InterpolateImage((int)pre.getWidth(), (int)pre.getHeight(), pre.getPixelReader(), post.getPixelReader(), interpol);
+    }
+
+    /**
+     * Volatile wrapper.
+     *
+     * Keeps final instances of the images.
+     *
+     * @implNote This method will only work for one image set, and is intended for repeating interpols on the same image set,
+     *           such as the demonstration program this was developed with.
+     *
+     * @see #InterpolateImage(Image, Image, double)
+     */
+    public static BufferedImage VolatileInterpolateImage(final Image pre, final Image post, double interpol) {
+        return InterpolateImage((int)pre.getWidth(), (int)pre.getHeight(), pre.getPixelReader(), post.getPixelReader(), interpol);
+    }
+
+    /**
+     * Interpolates between two images at multiple points.
+     *
+     * @param pre JFX image that represents <i>interpol = 0</i>
+     * @param post JFX image that represents <i>interpol = 1</i>
+     * @param interpol Blend values, each between <i>0.0 and 1.0</i>
+     * @return Array of blended images found at all provided <i>interpol</i>s percents between <i>pre</i> and <i>post</i>
+     */
+    public static BufferedImage[] InterpolateImage(Image pre, Image post, double[] interpol) {
+        int width = (int) pre.getWidth(), height = (int) pre.getHeight();
+
+        BufferedImage[] out = new BufferedImage[interpol.length];
+        int[][] outPixels = new int[interpol.length][];
+        for (int i = 0; i < out.length; i++) {
+            out[i] = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            outPixels[i] = pixels(out[i]);
+        }
+
+        LinearImageInterpolator.InterpolatePixels(width, height,
+                read(pre.getPixelReader(), width, height), read(post.getPixelReader(), width, height), outPixels, interpol);
+        return out;
+    }
+
+    /**
+     * Calculates an inter-image blended from an imagery spectrum between <i>0 and 1</i>, defined by two existing images,
+     * where <i>pre</i> represents <i>interpol = 0</i>, and <i>post</i> represents <i>interpol = 1</i>
+     *
+     * @implSpec width & height MUST NOT exceed the dimensions of the smallest image.
+     * @implNote For best results, interpolate between two images of the same resolution.
+     *
+     * @param width width of the image to extract
+     * @param height height of the image to extract
+     * @param preReader Pixel reader of the first image
+     * @param postReader Pixel reader of the second image
+     * @param interpol Point of image interpolation, between <i>0.0 and 1.0<i/>.
+     * @throws IndexOutOfBoundsException if width or height are larger than the images found in either of the pixel readers.
+     * @return Blended image, as found as <i>interpol</i> percents between <i>pre</i> and <i>post</i>
+     */
+    public static BufferedImage InterpolateImage(int width, int height, PixelReader preReader, PixelReader postReader, double interpol) {
+        BufferedImage out = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);                               // Image buffer to write calculation results to.
+        LinearImageInterpolator.InterpolatePixels(width, height,
+                read(preReader, width, height), read(postReader, width, height), pixels(out), interpol);
+        return out;
+    }
+
+    /**
+     * @return every pixel within <i>width * height</i> of the reader, as packed <i>0xAARRGGBB</i>
+     */
+    private static int[] read(PixelReader reader, int width, int height) {
+        int[] pixels = new int[width * height];
+        reader.getPixels(0, 0, width, height, PixelFormat.getIntArgbInstance(), pixels, 0, width);
+        return pixels;
+    }
+
+    /**
+     * @return backing array of a TYPE_INT_RGB or TYPE_INT_ARGB frame that has not been sub-imaged, otherwise <i>null</i>.
+     */
+    private static int[] packedPixels(BufferedImage frame) {
+        if (frame.getType() != BufferedImage.TYPE_INT_RGB && frame.getType() != BufferedImage.TYPE_INT_ARGB) return null;
+
+        WritableRaster raster = frame.getRaster();
+        boolean whole = ((SinglePixelPackedSampleModel) raster.getSampleModel()).getScanlineStride() == frame.getWidth()
+                && raster.getSampleModelTranslateX() == 0 && raster.getSampleModelTranslateY() == 0
+                && raster.getDataBuffer().getOffset() == 0;
+        return whole ? pixels(frame) : null;
+    }
+
+    /**
+     * @return backing array of an image created with TYPE_INT_RGB or TYPE_INT_ARGB.
+     */
+    private static int[] pixels(BufferedImage image) {
+        return ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+    }
+}
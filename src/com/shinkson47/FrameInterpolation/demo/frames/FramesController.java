@@ -1,21 +1,29 @@
 package com.shinkson47.FrameInterpolation.demo.frames;
 
 import com.shinkson47.FrameInterpolation.FrameBuffer;
+import com.shinkson47.FrameInterpolation.FrameExporter;
+import com.shinkson47.FrameInterpolation.InterframeCache;
+import com.shinkson47.FrameInterpolation.InterpolationJob;
+import com.shinkson47.FrameInterpolation.InterpolationPipeline;
 import com.shinkson47.FrameInterpolation.LinearImageInterpolator;
+import com.shinkson47.FrameInterpolation.PlaybackEngine;
+import com.shinkson47.FrameInterpolation.ProgressivePreview;
+import com.shinkson47.FrameInterpolation.demo.FXImageInterpolator;
 import com.shinkson47.opex.backend.runtime.errormanagement.EMSHelper;
 import com.shinkson47.opex.frontend.fxml.FXMLController;
-import javafx.embed.swing.SwingFXUtils;
+import javafx.application.Platform;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
-import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
+import javafx.scene.image.WritableImage;
 import javafx.scene.input.MouseDragEvent;
 
 import javax.imageio.ImageIO;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
+import java.util.concurrent.CancellationException;
 
 /**
  * GUI controller for the Frame generation Prototype
@@ -47,13 +55,40 @@ public class FramesController extends FXMLController {
     public CheckBox chkPlayback;
     public Slider sldPlaybackFPS;
     public Label lblPlaybackFPS;
+    public Label lblPlaybackStats;
+    public Label lblCacheStats;
     //#endregion FXML
 
-    private Image pre;
-    private Image post;
+    private WritableImage pre;
+    private WritableImage post;
+
+    /**
+     * Bytes of inter-frames kept for scrubbing back over.
+     */
+    private static final long CACHE_BUDGET = Runtime.getRuntime().maxMemory() / 4;
+
+    /**
+     * Inter-frames of the current buffer, so that positions that have been seen before are not blended again.
+     */
+    private InterframeCache interframeCache;
+
+    /**
+     * Shows reduced inter-frames whilst the sliders are dragged, and refines them from the cache once they settle.
+     */
+    private final ProgressivePreview preview = new ProgressivePreview(Platform::runLater, this::showInter);
+
+    /**
+     * Displays of the inter-frames, re-used for every calculation. Previews and refinements are kept apart,
+     * as they differ in size, and would otherwise re-allocate on every alternation.
+     */
+    private final WritableImage[] previewViews = new WritableImage[3];
+    private final WritableImage[] refinedViews = new WritableImage[3];
+    private final double[] interPoints = new double[3];
+
     private FrameBuffer frameBuffer;
-    private PlaybackThread playbackController;
-    private Thread playbackThread;
+    private InterpolationJob<BufferedImage[]> processing;                                                               // Batch in progress, or null.
+    private PlaybackEngine playback;
+    private WritableImage playbackView;
 
     public FramesController() {
         super(SLIDER_FXML);
@@ -61,6 +96,7 @@ public class FramesController extends FXMLController {
 
     public void setFrameBuffer(com.shinkson47.FrameInterpolation.FrameBuffer buffer){
         frameBuffer = buffer;
+        interframeCache = new InterframeCache(buffer, CACHE_BUDGET);
         sld_seek.setMax(frameBuffer.getBufferLength());
         lblBufferSize.setText(String.valueOf(frameBuffer.getBufferLength() - 1));
 
@@ -73,9 +109,13 @@ public class FramesController extends FXMLController {
         setPreImage(frameBuffer.getFrame((int) sld_seek.getValue()));
 
         try {
-            setPostImage(frameBuffer.getFrame(
-                    (int) ((playbackController != null && playbackController.isRunning()) ? sld_seek.getValue() * (sld_fps.getValue() + 1) : sld_seek.getValue() + 1)));
+            setPostImage(frameBuffer.getFrame((int) sld_seek.getValue() + 1));
         } catch (IndexOutOfBoundsException ignored) {}
+
+        if (frameBuffer.getBufferLength() < 2) return;
+        InterframeCache cache = interframeCache;
+        int frame = Math.min((int) sld_seek.getValue(), frameBuffer.getBufferLength() - 2);                            // The last frame has nothing after it.
+        preview.setFrames(frameBuffer.getFrame(frame), frameBuffer.getFrame(frame + 1), points -> cache.interpolate(frame, points));
     }
 
     /**
@@ -83,7 +123,7 @@ public class FramesController extends FXMLController {
      * @param _pre Buffered image to set.
      */
     public void setPreImage(BufferedImage _pre){
-        pre = SwingFXUtils.toFXImage(_pre, null);
+        pre = FXImageInterpolator.toFXImage(_pre, pre);
         img_pre.setImage(pre);
     }
 
@@ -92,28 +132,37 @@ public class FramesController extends FXMLController {
      * @param _post Buffered image to set.
      */
     public void setPostImage(BufferedImage _post){
-        post = SwingFXUtils.toFXImage(_post, null);
+        post = FXImageInterpolator.toFXImage(_post, post);
         img_post.setImage(post);
     }
 
     /**
      * Demonstration view.
-     * Calculates and displays an inter-frame, then updates the time ui.
+     * Previews inter-frames at the sliders' position, which are refined once they settle.
      */
     public void calculateInter() {
-        long preInterTime = System.nanoTime();                                                                          // Nano time before the image generation call.
-        long totalTime = 0;                                                                                             // Store for time taken.
-
-        BufferedImage[] images = LinearImageInterpolator.InterpolateImage(pre, post, new double[]{
-                sld_pos.getValue() * 0.25, sld_pos.getValue() * 0.5, sld_pos.getValue() * 0.75
-        });
+        if (frameBuffer.getBufferLength() < 2) return;
 
-        img_inter1.setImage(SwingFXUtils.toFXImage(images[0], null));
-        img_inter.setImage(SwingFXUtils.toFXImage(images[1], null));
-        img_inter2.setImage(SwingFXUtils.toFXImage(images[2], null));
+        for (int i = 0; i < interPoints.length; i++)
+            interPoints[i] = sld_pos.getValue() * 0.25 * (i + 1);
+        preview.request(interPoints);
+    }
 
-        totalTime = System.nanoTime() - preInterTime;
-        writeTimeUI(totalTime);                                                                                         // Render time data
+    /**
+     * Displays previewed, or refined, inter-frames, then updates the time ui.
+     * @param frames one inter-frame per point of {@link #interPoints}
+     * @param refined <i>true</i> if the frames are full resolution.
+     * @param totalTime nano time taken to calculate the inter-frames.
+     */
+    private void showInter(BufferedImage[] frames, boolean refined, long totalTime) {
+        WritableImage[] views = refined ? refinedViews : previewViews;
+        for (int i = 0; i < frames.length; i++)
+            views[i] = FXImageInterpolator.toFXImage(frames[i], views[i]);
+        img_inter1.setImage(views[0]);
+        img_inter.setImage(views[1]);
+        img_inter2.setImage(views[2]);
+
+        if (refined) writeTimeUI(totalTime);                                                                            // Render time data, of full resolution blends only.
     }
 
     /**
@@ -126,6 +175,8 @@ public class FramesController extends FXMLController {
         double perMin = ((totalTime * (30 * 60))/1e+9) / 60;
         lblEstimated.setText(perMin + " mins per min");
         lblRT.setText((perMin < 1) ? "True!" : "Nah, slower m9");
+        lblCacheStats.setText(interframeCache.getHits() + " hits, " + interframeCache.getMisses() + " misses, "
+                + interframeCache.getEvictions() + " evicted, " + interframeCache.getCachedBytes() / (1 << 20) + " MB");
 
         double estTime = ((totalTime*sld_fps.getValue())/1e+9/60 * frameBuffer.getBufferLength() * sld_fps.getValue());
         lblEstTotal.setText(
@@ -138,15 +189,44 @@ public class FramesController extends FXMLController {
 
 
     /**
-     * Calculate button press event
+     * Calculate button press event.
+     * Interpolates the whole buffer in the background, with its progress shown on the button; pressing it again cancels.
      */
     public void btn_press() {
+        if (processing != null) {
+            processing.cancel(true);
+            return;
+        }
+
         autoTriggerInter();
-        new Alert(Alert.AlertType.INFORMATION, "Will begin processing, estimated completion time is " + lblEstTotal.getText()+ ". Be patient.").showAndWait();
+        new Alert(Alert.AlertType.INFORMATION, "Will begin processing, estimated completion time is " + lblEstTotal.getText()+ ". Press again to cancel.").showAndWait();
         long time = System.currentTimeMillis();
-        setFrameBuffer(new FrameBuffer(LinearImageInterpolator.forAll(frameBuffer, (int) sld_fps.getValue())));
-        time = (System.currentTimeMillis() - time) / 1000;
-        new Alert(Alert.AlertType.INFORMATION, "Task completed in " + time + " seconds. Result is now being shown in preview.").showAndWait();
+        processing = LinearImageInterpolator.forAllAsync(interframeCache, (int) sld_fps.getValue(), runnable -> {
+            Thread processThread = new Thread(runnable, "Demo processing");
+            processThread.setDaemon(true);
+            processThread.start();
+        }, progress -> Platform.runLater(() -> {
+            btn_prc.setText("Cancel (" + Math.round(progress.getFraction() * 100) + "%)");
+            long remaining = progress.getRemainingNanos();
+            lblEstTotal.setText(remaining < 0 ? "estimating" : Math.round(remaining / 1e9) + "s remaining, " + Math.round(progress.getFramesPerSecond()) + " fps");
+        }));
+        btn_prc.setText("Cancel");
+
+        processing.whenComplete((frames, e) -> Platform.runLater(() -> {
+            processing = null;
+            btn_prc.setText("Process");
+            long seconds = (System.currentTimeMillis() - time) / 1000;
+
+            if (e == null) {
+                setFrameBuffer(new FrameBuffer(frames));
+                new Alert(Alert.AlertType.INFORMATION, "Task completed in " + seconds + " seconds. Result is now being shown in preview.").show();
+            } else if (e instanceof CancellationException) {
+                new Alert(Alert.AlertType.INFORMATION, "Task cancelled after " + seconds + " seconds.").show();
+            } else {
+                EMSHelper.handleException(e);
+                new Alert(Alert.AlertType.ERROR, "Could not process! " + e.getMessage()).show();
+            }
+        }));
     }
 
     /**
@@ -156,20 +236,44 @@ public class FramesController extends FXMLController {
         calculateInter();
     }
 
+    /**
+     * Exports every frame in the buffer on a background thread, so that the UI remains responsive.
+     */
     public void exportAll(ActionEvent actionEvent) {
-        BufferedImage[] images = new BufferedImage[frameBuffer.getBufferLength()];
-        frameBuffer.getFrameBuffer().toArray(images);
-        try {
-            writeOutAll(images);
-        } catch (IOException e) {
-            EMSHelper.handleException(e);
-            new Alert(null, "Could not export! " + e.getMessage()).showAndWait();
+        assertExportLocation();
+        if (exportFolder == null) {
+            new Alert(Alert.AlertType.ERROR, "Could not export! The chosen folder must be empty.").showAndWait();
+            return;
         }
+
+        FrameBuffer toExport = frameBuffer;
+        Thread exportThread = new Thread(() -> {
+            FrameExporter exporter = new FrameExporter(exportFolder);
+            try {
+                try {
+                    for (int i = 0; i <= toExport.getBufferLength() - 1; i++)
+                        exporter.accept(i, toExport.getFrame(i));                                                       // Blocks only whilst the encoders are saturated.
+                } finally {
+                    exporter.close();
+                }
+
+                Platform.runLater(() -> new Alert(Alert.AlertType.INFORMATION,
+                        "Exported " + exporter.getFramesWritten() + " frames at " + Math.round(exporter.getFramesPerSecond()) + " fps.").show());
+            } catch (IOException e) {
+                EMSHelper.handleException(e);
+                Platform.runLater(() -> new Alert(Alert.AlertType.ERROR, "Could not export! " + e.getMessage()).show());
+            }
+        }, "Demo export");
+        exportThread.setDaemon(true);
+        exportThread.start();
     }
 
     public static void writeOutAll(BufferedImage[] images) throws IOException {
-        for (int i = 0; i <= images.length - 1; i++)
-            writeOut(images[i], String.valueOf(i));
+        assertExportLocation();
+        try (FrameExporter exporter = new FrameExporter(exportFolder)) {
+            for (int i = 0; i <= images.length - 1; i++)
+                exporter.accept(i, images[i]);
+        }
     }
 
     public static void writeOut(BufferedImage image, String name) throws IOException {
@@ -196,44 +300,59 @@ public class FramesController extends FXMLController {
 
 
 
-    public synchronized void stepFrame() {
-        if(sld_seek.getValue() >= frameBuffer.getBufferLength() - 2) {
-            stopPlayback();
-            return;
-        }
-        sld_seek.setValue(sld_seek.getValue() + 1);
-        updatePrePost();
-    }
-
     public void updatePlaybackFPS() {
-        assertPlaybackController();
-        playbackController.setFPS((int) sldPlaybackFPS.getValue());
+        if (playback != null)
+            playback.setFramesPerSecond(sldPlaybackFPS.getValue());
         lblPlaybackFPS.setText(String.valueOf(sldPlaybackFPS.getValue()));
     }
 
 
     public void updatePlaybackCheck() {
-        assertPlaybackController();
         if(chkPlayback.isSelected())
             startPlayback();
         else
             stopPlayback();
     }
 
+    /**
+     * Plays the interpolated sequence from the key frame under the seek slider,
+     * with inter-frames rendered ahead of the playhead, and displayed on the FX thread.
+     */
     private void startPlayback() {
-        playbackThread = new Thread(playbackController);
-        playbackThread.start();
+        stopPlayback();
+        chkPlayback.setSelected(true);
+
+        int exponent = (int) sld_fps.getValue();
+        int pointsPerPair = InterpolationPipeline.points(exponent).length;
+        playback = new PlaybackEngine(frameBuffer, exponent, Platform::runLater, new PlaybackEngine.Display() {
+            @Override
+            public void show(int index, BufferedImage frame) {
+                playbackView = FXImageInterpolator.toFXImage(frame, playbackView);
+                img_inter.setImage(playbackView);
+
+                int key = index / pointsPerPair;
+                if (key != (int) sld_seek.getValue()) {                                                                 // Key frames only change once per pair.
+                    sld_seek.setValue(key);
+                    updatePrePost();
+                }
+
+                if (playback != null)
+                    lblPlaybackStats.setText("Dropped " + playback.getFramesDropped() + ", buffered " + playback.getBufferDepth());
+            }
+
+            @Override
+            public void ended() {
+                stopPlayback();
+            }
+        });
+        playback.seek((int) sld_seek.getValue() * pointsPerPair);
+        playback.play(sldPlaybackFPS.getValue());
     }
 
     private void stopPlayback() {
         chkPlayback.setSelected(false);
-        playbackController.stopPlayback();
-        playbackController = null;
-
-    }
-
-    private void assertPlaybackController() {
-        if (playbackController == null)
-            playbackController = new PlaybackThread((int) sldPlaybackFPS.getValue(), this);
+        if (playback != null)
+            playback.close();
+        playback = null;
     }
 }
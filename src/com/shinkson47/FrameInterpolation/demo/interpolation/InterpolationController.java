@@ -1,14 +1,15 @@
 package com.shinkson47.FrameInterpolation.demo.interpolation;
 
-import com.shinkson47.FrameInterpolation.LinearImageInterpolator;
+import com.shinkson47.FrameInterpolation.ProgressivePreview;
+import com.shinkson47.FrameInterpolation.demo.FXImageInterpolator;
 import com.shinkson47.opex.frontend.fxml.FXMLController;
-import javafx.embed.swing.SwingFXUtils;
+import javafx.application.Platform;
 import javafx.scene.control.Button;
 import javafx.scene.control.CheckBox;
 import javafx.scene.control.Label;
 import javafx.scene.control.Slider;
-import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
+import javafx.scene.image.WritableImage;
 
 import java.awt.image.BufferedImage;
 
@@ -38,8 +39,22 @@ public class InterpolationController extends FXMLController {
     public Label lblRT;
     //#endregion FXML
 
-    private Image pre;
-    private Image post;
+    private WritableImage pre;
+    private WritableImage post;
+    private BufferedImage preFrame;
+    private BufferedImage postFrame;
+
+    /**
+     * Shows reduced inter-frames whilst the slider is dragged, and refines them once it settles.
+     */
+    private final ProgressivePreview preview = new ProgressivePreview(Platform::runLater, this::showInter);
+
+    /**
+     * Displays of the inter-frames, re-used for every calculation. Previews and refinements are kept apart,
+     * as they differ in size, and would otherwise re-allocate on every alternation.
+     */
+    private final WritableImage[] previewViews = new WritableImage[3];
+    private final WritableImage[] refinedViews = new WritableImage[3];
 
     public InterpolationController() {
         super(SLIDER_FXML);
@@ -50,8 +65,10 @@ public class InterpolationController extends FXMLController {
      * @param _pre Buffered image to set.
      */
     public void setPreImage(BufferedImage _pre){
-        pre = SwingFXUtils.toFXImage(_pre, null);
+        preFrame = _pre;
+        pre = FXImageInterpolator.toFXImage(_pre, pre);
         img_pre.setImage(pre);
+        if (postFrame != null) preview.setFrames(preFrame, postFrame);
     }
 
     /**
@@ -59,39 +76,44 @@ public class InterpolationController extends FXMLController {
      * @param _post Buffered image to set.
      */
     public void setPostImage(BufferedImage _post){
-        post = SwingFXUtils.toFXImage(_post, null);
+        postFrame = _post;
+        post = FXImageInterpolator.toFXImage(_post, post);
         img_post.setImage(post);
+        if (preFrame != null) preview.setFrames(preFrame, postFrame);
     }
 
     /**
-     * Calculates and displays an inter-frame, then updates the time ui.
+     * Previews inter-frames at the slider's position, which are refined once it settles.
      */
     public void calculateInter() {
-        long preInterTime = System.nanoTime();                                                                          // Nano time before the image generation call.
-        long totalTime = 0;                                                                                             // Store for time taken.
-        if(chkTri.isSelected()){
-            BufferedImage[] images = LinearImageInterpolator.InterpolateImage(pre, post, new double[]{
-                    sld_pos.getValue() * 0.25, sld_pos.getValue() * 0.5, sld_pos.getValue() * 0.75
-            });
-
-            totalTime = System.nanoTime() - preInterTime;
+        if (preFrame == null || postFrame == null) return;
 
-            img_inter1.setImage(SwingFXUtils.toFXImage(images[0], null));
-            img_inter.setImage(SwingFXUtils.toFXImage(images[1], null));
-            img_inter2.setImage(SwingFXUtils.toFXImage(images[2], null));
+        if (chkTri.isSelected())
+            preview.request(new double[]{sld_pos.getValue() * 0.25, sld_pos.getValue() * 0.5, sld_pos.getValue() * 0.75});
+        else
+            preview.request(new double[]{sld_pos.getValue()});                                                          // Generate an interframe.
+    }
 
+    /**
+     * Displays previewed, or refined, inter-frames, then updates the time ui.
+     * @param frames one inter-frame per point requested by {@link #calculateInter()}
+     * @param refined <i>true</i> if the frames are full resolution.
+     * @param totalTime nano time taken to calculate the inter-frames.
+     */
+    private void showInter(BufferedImage[] frames, boolean refined, long totalTime) {
+        WritableImage[] views = refined ? refinedViews : previewViews;
+        if (frames.length == 3) {
+            for (int i = 0; i < frames.length; i++)
+                views[i] = FXImageInterpolator.toFXImage(frames[i], views[i]);
+            img_inter1.setImage(views[0]);
+            img_inter.setImage(views[1]);
+            img_inter2.setImage(views[2]);
         } else {
-            BufferedImage result = LinearImageInterpolator.VolatileInterpolateImage(                                    // Generate an interframe.
-                    pre,
-                    post, sld_pos.getValue());
-
-            totalTime = System.nanoTime() - preInterTime;
-
-            img_inter.setImage(SwingFXUtils.toFXImage(result, null));                                             // Render resulting image.
+            views[1] = FXImageInterpolator.toFXImage(frames[0], views[1]);                                              // Render resulting image.
+            img_inter.setImage(views[1]);
         }
 
-        writeTimeUI(totalTime);                                                                                         // Render time data
-
+        if (refined) writeTimeUI(totalTime);                                                                            // Render time data, of full resolution blends only.
     }
 
     /**
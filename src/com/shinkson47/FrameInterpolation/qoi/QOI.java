@@ -0,0 +1,303 @@
+package com.shinkson47.FrameInterpolation.qoi;
+
+import javax.imageio.spi.IIORegistry;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.awt.image.WritableRaster;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+/**
+ * A pure Java codec for the "Quite OK Image" format, see <a href="https://qoiformat.org/qoi-specification.pdf">the specification</a>.
+ *
+ * QOI is lossless, and encodes and decodes many times faster than PNG at a similar size, which makes it well suited to
+ * intermediate frames. Images are decoded straight into the packed int array of a TYPE_INT_RGB or TYPE_INT_ARGB
+ * BufferedImage, without any intermediate conversion.
+ *
+ * Once {@link #register()} has been called, or if this package's service files are on the class path,
+ * ImageIO, and therefore FrameBuffer and FrameExporter, read and write QOI as format <i>qoi</i>.
+ *
+ * @version 1
+ * @author <a href="https://www.shinkson47.in">Jordan T. Gray</a>
+ */
+public final class QOI {
+
+    public static final String FORMAT = "qoi";
+    public static final String MIME_TYPE = "image/qoi";
+    public static final int MAGIC = 0x716F6966;                                                                         // "qoif"
+    public static final int HEADER_BYTES = 14;
+
+    private static final int OP_INDEX = 0x00;
+    private static final int OP_DIFF = 0x40;
+    private static final int OP_LUMA = 0x80;
+    private static final int OP_RUN = 0xC0;
+    private static final int OP_RGB = 0xFE;
+    private static final int OP_RGBA = 0xFF;
+    private static final int MASK_2 = 0xC0;
+    private static final int MAX_RUN = 62;
+    private static final byte[] END_MARKER = {0, 0, 0, 0, 0, 0, 0, 1};
+
+    /**
+     * Largest image accepted, in pixels, so that a corrupt header cannot request an absurd allocation.
+     */
+    public static final int MAX_PIXELS = 400_000_000;
+
+    private static volatile boolean registered;
+
+    private QOI() {}
+
+    /**
+     * Registers the QOI reader and writer with ImageIO. Calling this more than once has no further effect.
+     */
+    public static void register() {
+        if (registered) return;
+        synchronized (QOI.class) {
+            if (registered) return;
+            IIORegistry registry = IIORegistry.getDefaultInstance();
+            registry.registerServiceProvider(new QOIImageReaderSpi());
+            registry.registerServiceProvider(new QOIImageWriterSpi());
+            registered = true;
+        }
+    }
+
+    /**
+     * @param data at least the first 4 bytes of a file.
+     * @return <i>true</i> if the data begins with the QOI magic.
+     */
+    public static boolean isQOI(byte[] data) {
+        return data.length >= 4 && readInt(data, 0) == MAGIC;
+    }
+
+    /**
+     * Reads and decodes a QOI file.
+     *
+     * @param file file to read.
+     * @return The decoded image.
+     * @throws IOException if the file cannot be read, or is not a valid QOI image.
+     */
+    public static BufferedImage read(File file) throws IOException {
+        return decode(Files.readAllBytes(file.toPath()));
+    }
+
+    /**
+     * Encodes and writes a QOI file.
+     *
+     * @param image image to encode.
+     * @param file file to write.
+     * @throws IOException if the file cannot be written.
+     */
+    public static void write(BufferedImage image, File file) throws IOException {
+        Files.write(file.toPath(), encode(image));
+    }
+
+    /**
+     * Decodes a QOI image.
+     *
+     * @param data the whole QOI file.
+     * @return TYPE_INT_ARGB image if the file declares 4 channels, otherwise TYPE_INT_RGB.
+     * @throws IOException if the data is not a valid QOI image.
+     */
+    public static BufferedImage decode(byte[] data) throws IOException {
+        if (data.length < HEADER_BYTES + END_MARKER.length || !isQOI(data)) throw new IOException("Not a QOI image.");
+
+        int width = readInt(data, 4), height = readInt(data, 8), channels = data[12];
+        if (width <= 0 || height <= 0 || (long) width * height > MAX_PIXELS) throw new IOException("Invalid QOI dimensions " + width + "x" + height);
+        if (channels != 3 && channels != 4) throw new IOException("Invalid QOI channel count " + channels);
+
+        BufferedImage image = new BufferedImage(width, height, channels == 4 ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        int[] pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        decode(data, HEADER_BYTES, data.length - END_MARKER.length, pixels);
+        return image;
+    }
+
+    /**
+     * Decodes the chunks of a QOI image into packed <i>0xAARRGGBB</i> pixels.
+     *
+     * @param data QOI file.
+     * @param from index of the first chunk.
+     * @param to index after the last byte that may hold a chunk.
+     * @param pixels destination, exactly <i>width * height</i> long.
+     * @throws IOException if the chunks end before every pixel is decoded.
+     */
+    static void decode(byte[] data, int from, int to, int[] pixels) throws IOException {
+        int[] index = new int[64];
+        int pixel = 0xFF000000;
+        int p = from;
+
+        for (int i = 0; i < pixels.length; ) {
+            if (p >= to) throw new IOException("QOI image is truncated.");
+            int op = data[p++] & 0xFF;
+
+            if (op == OP_RGB) {
+                pixel = (pixel & 0xFF000000) | (data[p] & 0xFF) << 16 | (data[p + 1] & 0xFF) << 8 | (data[p + 2] & 0xFF);
+                p += 3;
+            } else if (op == OP_RGBA) {
+                pixel = (data[p + 3] & 0xFF) << 24 | (data[p] & 0xFF) << 16 | (data[p + 1] & 0xFF) << 8 | (data[p + 2] & 0xFF);
+                p += 4;
+            } else switch (op & MASK_2) {
+                case OP_INDEX:
+                    pixels[i++] = pixel = index[op];
+                    continue;                                                                                           // Already indexed.
+
+                case OP_DIFF:
+                    pixel = pixel(pixel, (op >> 4 & 3) - 2, (op >> 2 & 3) - 2, (op & 3) - 2);
+                    break;
+
+                case OP_LUMA:
+                    int green = (op & 0x3F) - 32;
+                    int redBlue = data[p++] & 0xFF;
+                    pixel = pixel(pixel, green + (redBlue >> 4) - 8, green, green + (redBlue & 0xF) - 8);
+                    break;
+
+                default:                                                                                                // OP_RUN
+                    int run = Math.min((op & 0x3F) + 1, pixels.length - i);
+                    Arrays.fill(pixels, i, i + run, pixel);
+                    i += run;
+                    continue;                                                                                           // Repeats the previous pixel, which is already indexed.
+            }
+
+            index[hash(pixel)] = pixel;
+            pixels[i++] = pixel;
+        }
+    }
+
+    /**
+     * Encodes an image as QOI, with 4 channels if its colour model has alpha, otherwise 3.
+     *
+     * @param image image to encode.
+     * @return The whole QOI file.
+     */
+    public static byte[] encode(BufferedImage image) {
+        int width = image.getWidth(), height = image.getHeight();
+        boolean alpha = image.getColorModel().hasAlpha();
+        int[] pixels = packed(image);
+
+        Output out = new Output(HEADER_BYTES + width * height * (alpha ? 5 : 4) / 4 + END_MARKER.length);             // Generous for typical frames; grows if needed.
+        out.writeInt(MAGIC);
+        out.writeInt(width);
+        out.writeInt(height);
+        out.write(alpha ? 4 : 3);
+        out.write(0);                                                                                                   // sRGB with linear alpha.
+
+        int[] index = new int[64];
+        int previous = 0xFF000000;
+        int run = 0;
+
+        for (int i = 0; i < pixels.length; i++) {
+            int pixel = alpha ? pixels[i] : pixels[i] | 0xFF000000;
+
+            if (pixel == previous) {
+                if (++run == MAX_RUN || i == pixels.length - 1) {
+                    out.write(OP_RUN | (run - 1));
+                    run = 0;
+                }
+                continue;
+            }
+
+            if (run > 0) {
+                out.write(OP_RUN | (run - 1));
+                run = 0;
+            }
+
+            int hash = hash(pixel);
+            if (index[hash] == pixel) {
+                out.write(OP_INDEX | hash);
+            } else {
+                index[hash] = pixel;
+
+                if ((pixel ^ previous) >>> 24 == 0) {                                                                   // Same alpha; try a difference.
+                    int red = (byte) ((pixel >> 16) - (previous >> 16));
+                    int green = (byte) ((pixel >> 8) - (previous >> 8));
+                    int blue = (byte) (pixel - previous);
+                    int redGreen = red - green, blueGreen = blue - green;
+
+                    if (red >= -2 && red <= 1 && green >= -2 && green <= 1 && blue >= -2 && blue <= 1)
+                        out.write(OP_DIFF | (red + 2) << 4 | (green + 2) << 2 | (blue + 2));
+                    else if (green >= -32 && green <= 31 && redGreen >= -8 && redGreen <= 7 && blueGreen >= -8 && blueGreen <= 7) {
+                        out.write(OP_LUMA | (green + 32));
+                        out.write((redGreen + 8) << 4 | (blueGreen + 8));
+                    } else {
+                        out.write(OP_RGB);
+                        out.write(pixel >> 16);
+                        out.write(pixel >> 8);
+                        out.write(pixel);
+                    }
+                } else {
+                    out.write(OP_RGBA);
+                    out.write(pixel >> 16);
+                    out.write(pixel >> 8);
+                    out.write(pixel);
+                    out.write(pixel >>> 24);
+                }
+            }
+            previous = pixel;
+        }
+
+        out.write(END_MARKER, 0, END_MARKER.length);
+        return out.toByteArray();
+    }
+
+    /**
+     * @return Every pixel of the image as packed <i>0xAARRGGBB</i>, without copying if the image is already stored that way.
+     */
+    private static int[] packed(BufferedImage image) {
+        int type = image.getType();
+        WritableRaster raster = image.getRaster();
+        if ((type == BufferedImage.TYPE_INT_ARGB || type == BufferedImage.TYPE_INT_RGB) &&
+            raster.getSampleModelTranslateX() == 0 && raster.getSampleModelTranslateY() == 0 &&
+            raster.getDataBuffer().getOffset() == 0 &&
+            ((SinglePixelPackedSampleModel) raster.getSampleModel()).getScanlineStride() == image.getWidth())
+            return ((DataBufferInt) raster.getDataBuffer()).getData();
+
+        return image.getRGB(0, 0, image.getWidth(), image.getHeight(), null, 0, image.getWidth());
+    }
+
+    private static int pixel(int previous, int red, int green, int blue) {
+        return (previous & 0xFF000000)
+             | ((previous >> 16) + red & 0xFF) << 16
+             | ((previous >> 8) + green & 0xFF) << 8
+             | (previous + blue & 0xFF);
+    }
+
+    private static int hash(int pixel) {
+        return ((pixel >> 16 & 0xFF) * 3 + (pixel >> 8 & 0xFF) * 5 + (pixel & 0xFF) * 7 + (pixel >>> 24) * 11) & 63;
+    }
+
+    static int readInt(byte[] data, int offset) {
+        return (data[offset] & 0xFF) << 24 | (data[offset + 1] & 0xFF) << 16 | (data[offset + 2] & 0xFF) << 8 | (data[offset + 3] & 0xFF);
+    }
+
+    /**
+     * Byte array output stream, with big endian ints, and without synchronisation.
+     */
+    private static final class Output extends ByteArrayOutputStream {
+
+        Output(int size) {
+            super(size);
+        }
+
+        @Override
+        public void write(int b) {
+            if (count == buf.length) buf = Arrays.copyOf(buf, buf.length * 2);
+            buf[count++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            if (count + len > buf.length) buf = Arrays.copyOf(buf, Math.max(buf.length * 2, count + len));
+            System.arraycopy(b, off, buf, count, len);
+            count += len;
+        }
+
+        void writeInt(int value) {
+            write(value >>> 24);
+            write(value >>> 16);
+            write(value >>> 8);
+            write(value);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.shinkson47.FrameInterpolation.qoi;
+
+import javax.imageio.IIOException;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageTypeSpecifier;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.spi.ImageReaderSpi;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Iterator;
+
+/**
+ * ImageIO reader of QOI images. Each input holds exactly one image.
+ *
+ * @implNote Read parameters, such as source regions and subsampling, are ignored; the whole image is always decoded.
+ * @version 1
+ * @author <a href="https://www.shinkson47.in">Jordan T. Gray</a>
+ */
+public class QOIImageReader extends ImageReader {
+
+    private byte[] header;
+    private BufferedImage decoded;
+
+    public QOIImageReader(ImageReaderSpi provider) {
+        super(provider);
+    }
+
+    @Override
+    public void setInput(Object input, boolean seekForwardOnly, boolean ignoreMetadata) {
+        super.setInput(input, seekForwardOnly, ignoreMetadata);
+        header = null;
+        decoded = null;
+    }
+
+    @Override
+    public int getNumImages(boolean allowSearch) {
+        return 1;
+    }
+
+    @Override
+    public int getWidth(int imageIndex) throws IOException {
+        return QOI.readInt(header(imageIndex), 4);
+    }
+
+    @Override
+    public int getHeight(int imageIndex) throws IOException {
+        return QOI.readInt(header(imageIndex), 8);
+    }
+
+    @Override
+    public Iterator<ImageTypeSpecifier> getImageTypes(int imageIndex) throws IOException {
+        int type = header(imageIndex)[12] == 4 ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        return Collections.singletonList(ImageTypeSpecifier.createFromBufferedImageType(type)).iterator();
+    }
+
+    @Override
+    public IIOMetadata getStreamMetadata() {
+        return null;
+    }
+
+    @Override
+    public IIOMetadata getImageMetadata(int imageIndex) {
+        return null;
+    }
+
+    @Override
+    public BufferedImage read(int imageIndex, ImageReadParam param) throws IOException {
+        checkIndex(imageIndex);
+        if (decoded == null) {
+            processImageStarted(imageIndex);
+            decoded = QOI.decode(readAll());
+            processImageComplete();
+        }
+        return decoded;
+    }
+
+    @Override
+    public void dispose() {
+        header = null;
+        decoded = null;
+    }
+
+    private byte[] header(int imageIndex) throws IOException {
+        checkIndex(imageIndex);
+        if (header == null) {
+            ImageInputStream stream = stream();
+            header = new byte[QOI.HEADER_BYTES];
+            stream.mark();
+            try {
+                stream.readFully(header);
+            } finally {
+                stream.reset();
+            }
+            if (!QOI.isQOI(header)) throw new IIOException("Not a QOI image.");
+        }
+        return header;
+    }
+
+    /**
+     * Reads the remainder of the input, which is expected to begin with the QOI header.
+     */
+    private byte[] readAll() throws IOException {
+        ImageInputStream stream = stream();
+        long length = stream.length();
+        if (length > 0 && length - stream.getStreamPosition() <= Integer.MAX_VALUE) {                                   // Known length; read in one go.
+            byte[] data = new byte[(int) (length - stream.getStreamPosition())];
+            stream.readFully(data);
+            return data;
+        }
+
+        ByteArrayOutputStream data = new ByteArrayOutputStream();
+        byte[] chunk = new byte[1 << 16];
+        for (int read; (read = stream.read(chunk)) > 0; )
+            data.write(chunk, 0, read);
+        return data.toByteArray();
+    }
+
+    private ImageInputStream stream() throws IIOException {
+        if (!(input instanceof ImageInputStream)) throw new IllegalStateException("No input has been set.");
+        return (ImageInputStream) input;
+    }
+
+    private void checkIndex(int imageIndex) {
+        if (imageIndex != 0) throw new IndexOutOfBoundsException("QOI files contain a single image.");
+    }
+}
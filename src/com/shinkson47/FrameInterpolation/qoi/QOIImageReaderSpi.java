@@ -0,0 +1,52 @@
+package com.shinkson47.FrameInterpolation.qoi;
+
+import javax.imageio.ImageReader;
+import javax.imageio.spi.ImageReaderSpi;
+import javax.imageio.stream.ImageInputStream;
+import java.io.IOException;
+import java.util.Locale;
+
+/**
+ * Describes {@link QOIImageReader} to ImageIO.
+ *
+ * @version 1
+ * @author <a href="https://www.shinkson47.in">Jordan T. Gray</a>
+ */
+public class QOIImageReaderSpi extends ImageReaderSpi {
+
+    public QOIImageReaderSpi() {
+        super("Shinkson47", "1",
+              new String[]{QOI.FORMAT, QOI.FORMAT.toUpperCase()}, new String[]{QOI.FORMAT}, new String[]{QOI.MIME_TYPE},
+              QOIImageReader.class.getName(), new Class<?>[]{ImageInputStream.class},
+              new String[]{QOIImageWriterSpi.class.getName()},
+              false, null, null, null, null,
+              false, null, null, null, null);
+    }
+
+    @Override
+    public boolean canDecodeInput(Object source) throws IOException {
+        if (!(source instanceof ImageInputStream)) return false;
+
+        ImageInputStream stream = (ImageInputStream) source;
+        byte[] magic = new byte[4];
+        stream.mark();
+        try {
+            stream.readFully(magic);
+        } catch (IOException e) {
+            return false;                                                                                               // Shorter than a header.
+        } finally {
+            stream.reset();
+        }
+        return QOI.isQOI(magic);
+    }
+
+    @Override
+    public ImageReader createReaderInstance(Object extension) {
+        return new QOIImageReader(this);
+    }
+
+    @Override
+    public String getDescription(Locale locale) {
+        return "Quite OK Image (QOI) reader";
+    }
+}
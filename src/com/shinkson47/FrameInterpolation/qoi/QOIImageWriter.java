@@ -0,0 +1,70 @@
+package com.shinkson47.FrameInterpolation.qoi;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageTypeSpecifier;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.spi.ImageWriterSpi;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.RenderedImage;
+import java.io.IOException;
+
+/**
+ * ImageIO writer of QOI images.
+ *
+ * @implNote Write parameters are ignored; QOI has no options.
+ * @version 1
+ * @author <a href="https://www.shinkson47.in">Jordan T. Gray</a>
+ */
+public class QOIImageWriter extends ImageWriter {
+
+    public QOIImageWriter(ImageWriterSpi provider) {
+        super(provider);
+    }
+
+    @Override
+    public IIOMetadata getDefaultStreamMetadata(ImageWriteParam param) {
+        return null;
+    }
+
+    @Override
+    public IIOMetadata getDefaultImageMetadata(ImageTypeSpecifier imageType, ImageWriteParam param) {
+        return null;
+    }
+
+    @Override
+    public IIOMetadata convertStreamMetadata(IIOMetadata inData, ImageWriteParam param) {
+        return null;
+    }
+
+    @Override
+    public IIOMetadata convertImageMetadata(IIOMetadata inData, ImageTypeSpecifier imageType, ImageWriteParam param) {
+        return null;
+    }
+
+    @Override
+    public void write(IIOMetadata streamMetadata, IIOImage image, ImageWriteParam param) throws IOException {
+        if (!(output instanceof ImageOutputStream)) throw new IllegalStateException("No output has been set.");
+
+        processImageStarted(0);
+        ((ImageOutputStream) output).write(QOI.encode(toBufferedImage(image.getRenderedImage())));
+        processImageComplete();
+    }
+
+    private static BufferedImage toBufferedImage(RenderedImage image) {
+        if (image instanceof BufferedImage) return (BufferedImage) image;
+
+        BufferedImage copy = new BufferedImage(image.getWidth(), image.getHeight(),
+                image.getColorModel().hasAlpha() ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = copy.createGraphics();
+        try {
+            graphics.drawRenderedImage(image, null);
+        } finally {
+            graphics.dispose();
+        }
+        return copy;
+    }
+}
@@ -0,0 +1,43 @@
+package com.shinkson47.FrameInterpolation.qoi;
+
+import javax.imageio.ImageTypeSpecifier;
+import javax.imageio.ImageWriter;
+import javax.imageio.spi.ImageWriterSpi;
+import javax.imageio.stream.ImageOutputStream;
+import java.util.Locale;
+
+/**
+ * Describes {@link QOIImageWriter} to ImageIO.
+ *
+ * @version 1
+ * @author <a href="https://www.shinkson47.in">Jordan T. Gray</a>
+ */
+public class QOIImageWriterSpi extends ImageWriterSpi {
+
+    public QOIImageWriterSpi() {
+        super("Shinkson47", "1",
+              new String[]{QOI.FORMAT, QOI.FORMAT.toUpperCase()}, new String[]{QOI.FORMAT}, new String[]{QOI.MIME_TYPE},
+              QOIImageWriter.class.getName(), new Class<?>[]{ImageOutputStream.class},
+              new String[]{QOIImageReaderSpi.class.getName()},
+              false, null, null, null, null,
+              false, null, null, null, null);
+    }
+
+    /**
+     * Any 8 bit RGB or RGBA image may be encoded; others are converted to packed ARGB first.
+     */
+    @Override
+    public boolean canEncodeImage(ImageTypeSpecifier type) {
+        return true;
+    }
+
+    @Override
+    public ImageWriter createWriterInstance(Object extension) {
+        return new QOIImageWriter(this);
+    }
+
+    @Override
+    public String getDescription(Locale locale) {
+        return "Quite OK Image (QOI) writer";
+    }
+}